@@ -48,6 +48,15 @@ interface AIResponse {
     [key: string]: any;
 }
 
+type FeedbackStage = "queued" | "extracted" | "scored" | "done" | "failed";
+
+interface FeedbackJobStatus {
+    id: string;
+    status: FeedbackStage;
+    message?: AIMessage;
+    error?: string;
+}
+
 interface PuterStore {
     isLoading: boolean;
     error: string | null;
@@ -80,7 +89,8 @@ interface PuterStore {
         ) => Promise<AIResponse | undefined>;
         feedback: (
             path: string,
-            message: string
+            message: string,
+            onProgress?: (stage: FeedbackStage) => void
         ) => Promise<AIResponse | undefined>;
         img2txt: (
             image: string | File | Blob,
@@ -102,6 +112,46 @@ interface PuterStore {
     clearError: () => void;
 }
 
+const isFinished = (stage: FeedbackStage) => stage === "done" || stage === "failed";
+
+// Follows a queued review over SSE until it finishes, polling instead if the stream drops
+const followFeedbackJob = (
+    id: string,
+    onProgress?: (stage: FeedbackStage) => void
+): Promise<FeedbackJobStatus | undefined> =>
+    new Promise((resolve) => {
+        // The review comes back as a JSON object rather than a string to parse again
+        const url = `${API_BASE_URL}/api/ai/feedback/jobs/${encodeURIComponent(id)}`;
+        const poll = async () => {
+            try {
+                const res = await fetch(`${url}?format=object`);
+                if (!res.ok) return resolve(undefined);
+                const status = (await res.json()) as FeedbackJobStatus;
+                onProgress?.(status.status);
+                if (isFinished(status.status)) return resolve(status);
+                setTimeout(poll, 1000);
+            } catch {
+                resolve(undefined);
+            }
+        };
+        const source = new EventSource(`${url}/events?format=object`);
+        const onStage = (event: MessageEvent) => {
+            const status = JSON.parse(event.data) as FeedbackJobStatus;
+            onProgress?.(status.status);
+            if (isFinished(status.status)) {
+                source.close();
+                resolve(status);
+            }
+        };
+        for (const stage of ["queued", "extracted", "scored", "done", "failed"]) {
+            source.addEventListener(stage, onStage as EventListener);
+        }
+        source.onerror = () => {
+            source.close();
+            poll();
+        };
+    });
+
 // Helper function to get auth token
 const getAuthToken = (): string | null => {
     if (typeof window === "undefined") return null;
@@ -126,10 +176,46 @@ const clearAuthToken = (): void => {
     }
 };
 
-// API request helper
+// Helper function to get refresh token
+const getRefreshToken = (): string | null => {
+    if (typeof window === "undefined") return null;
+    return localStorage.getItem("refresh_token");
+};
+
+// Refresh tokens are single use, so concurrent requests share one refresh
+let refreshing: Promise<boolean> | null = null;
+
+// Trades the refresh token for a new pair; false if the session is over
+const refreshTokens = (): Promise<boolean> => {
+    if (!refreshing) {
+        refreshing = (async () => {
+            const refreshToken = getRefreshToken();
+            if (!refreshToken) return false;
+            const response = await fetch(`${API_BASE_URL}/api/auth/refresh`, {
+                method: "POST",
+                headers: { "Content-Type": "application/json" },
+                body: JSON.stringify({ refreshToken }),
+                credentials: "include",
+            });
+            if (!response.ok) {
+                clearAuthToken();
+                return false;
+            }
+            const body = (await response.json()) as AuthResponse;
+            setAuthToken(body.accessToken, body.refreshToken);
+            return true;
+        })().finally(() => {
+            refreshing = null;
+        });
+    }
+    return refreshing;
+};
+
+// API request helper; retries once with fresh tokens when the access token is rejected
 const apiRequest = async (
     endpoint: string,
-    options: RequestInit = {}
+    options: RequestInit = {},
+    retry = true
 ): Promise<Response> => {
     const token = getAuthToken();
     const headers: Record<string, string> = {
@@ -141,11 +227,17 @@ const apiRequest = async (
         headers.Authorization = `Bearer ${token}`;
     }
 
-    return fetch(`${API_BASE_URL}${endpoint}`, {
+    const response = await fetch(`${API_BASE_URL}${endpoint}`, {
         ...options,
         headers,
         credentials: "include",
     });
+
+    if (retry && token && (response.status === 401 || response.status === 403)
+        && !/^\/api\/auth\/(login|refresh|logout)/.test(endpoint) && await refreshTokens()) {
+        return apiRequest(endpoint, options, false);
+    }
+    return response;
 };
 
 export const usePuterStore = create<PuterStore>((set, get) => {
@@ -300,6 +392,7 @@ export const usePuterStore = create<PuterStore>((set, get) => {
             try {
                 await apiRequest("/api/auth/logout", {
                     method: "POST",
+                    body: JSON.stringify({ refreshToken: getRefreshToken() }),
                 });
             } catch (apiErr) {
                 console.warn('Auth API unavailable for logout', apiErr);
@@ -506,18 +599,28 @@ export const usePuterStore = create<PuterStore>((set, get) => {
         return undefined;
     };
 
-    const feedback = async (path: string, message: string) => {
+    const feedback = async (
+        path: string,
+        message: string,
+        onProgress?: (stage: FeedbackStage) => void
+    ) => {
         try {
-            const res = await fetch(`${API_BASE_URL}/api/ai/feedback?path=${encodeURIComponent(path)}`, {
+            const res = await fetch(`${API_BASE_URL}/api/ai/feedback/jobs?path=${encodeURIComponent(path)}`, {
                 method: 'POST',
                 headers: { 'Content-Type': 'application/json' },
                 body: JSON.stringify(message),
             });
             if (!res.ok) {
-                setError('AI feedback failed');
+                setError(res.status === 503 ? 'The analyzer is busy, please try again shortly' : 'AI feedback failed');
+                return undefined;
+            }
+            const job = (await res.json()) as FeedbackJobStatus;
+            const result = await followFeedbackJob(job.id, onProgress);
+            if (!result || result.status !== 'done') {
+                setError(result?.error || 'AI feedback failed');
                 return undefined;
             }
-            return (await res.json()) as AIResponse;
+            return { message: result.message } as AIResponse;
         } catch (err) {
             setError(err instanceof Error ? err.message : 'AI feedback failed');
             return undefined;
@@ -617,7 +720,8 @@ export const usePuterStore = create<PuterStore>((set, get) => {
                 testMode?: boolean,
                 options?: PuterChatOptions
             ) => chat(prompt, imageURL, testMode, options),
-            feedback: (path: string, message: string) => feedback(path, message),
+            feedback: (path: string, message: string, onProgress?: (stage: FeedbackStage) => void) =>
+                feedback(path, message, onProgress),
             img2txt: (image: string | File | Blob, testMode?: boolean) =>
                 img2txt(image, testMode),
         },
@@ -52,7 +52,12 @@ const Upload = () => {
 
         const feedback = await ai.feedback(
             uploadedFile.path,
-            prepareInstructions({ jobTitle, jobDescription })
+            prepareInstructions({ jobTitle, jobDescription }),
+            (stage) => {
+                if (stage === 'queued') setStatusText('Waiting for the analyzer...');
+                else if (stage === 'extracted') setStatusText('Scoring against the job description...');
+                else if (stage === 'scored') setStatusText('Preparing feedback...');
+            }
         )
         if (!feedback || !feedback.message) return setStatusText('Error: Failed to analyze resume');
 
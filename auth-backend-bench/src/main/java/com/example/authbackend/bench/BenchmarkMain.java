@@ -0,0 +1,32 @@
+package com.example.authbackend.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}: JMH's own, except that results are written as JSON
+ * unless {@code -rf} asks for another format, so every run leaves a {@code jmh-result.json} (or
+ * the {@code -rff} file) that two releases can be compared with.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs JMH.
+     *
+     * @param args JMH command-line options
+     * @throws Exception if JMH fails
+     */
+    public static void main(final String[] args) throws Exception {
+        final List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            // JMH names the file jmh-result.<format> when -rff is not given
+            options.add(0, "json");
+            options.add(0, "-rf");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.authbackend.bench;
+
+import com.example.authbackend.dto.FeedbackDTOs.Feedback;
+import com.example.authbackend.resume.FeedbackFormat;
+import com.example.authbackend.resume.JobDescription;
+import com.example.authbackend.resume.PageText;
+import com.example.authbackend.resume.ResumeScorer;
+import com.example.authbackend.resume.SkillDictionary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code POST /api/ai/feedback} spends turning a review into a response. {@link #review}
+ * is the one-off serialization of a freshly scored review into the bytes the feedback cache
+ * keeps; {@link #writeString} and {@link #writeObject} are the per-response cost of each
+ * {@link FeedbackFormat} on a cache hit; {@link #mapperEnvelope} builds the same
+ * {@code {"message":{"content":...}}} through the object mapper instead, for contrast.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedbackSerializationBenchmark {
+
+    private static final int PAGES = 2;
+
+    private SkillDictionary dictionary;
+    private ObjectMapper mapper;
+    private Feedback feedback;
+    private byte[] review;
+    private String reviewText;
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dictionary = new SkillDictionary("");
+        final ResumeScorer scorer = new ResumeScorer(dictionary);
+        final List<PageText> pages = new ArrayList<>();
+        for (int page = 1; page <= PAGES; page++) {
+            pages.add(new PageText(page, 612, 792, String.join("\n",
+                "Jane Doe - Senior Software Engineer",
+                "Experience",
+                "Built Java and Spring Boot services on AWS with Kubernetes and PostgreSQL",
+                "Led a team of 5 engineers, cutting p99 latency by 40% and cloud spend by $120k",
+                "Designed Kafka pipelines processing 2M events per day; mentored junior developers",
+                "Skills",
+                "Java, Kotlin, Python, SQL, Docker, Terraform, React, TypeScript, Git, CI/CD",
+                "Education",
+                "B.Sc. Computer Science"), List.of()));
+        }
+        final JobDescription job = new JobDescription("Backend Engineer",
+            "Java, Spring Boot, Kafka, Kubernetes, PostgreSQL and AWS; on-call for production services");
+        feedback = scorer.score(pages, job);
+        mapper = new ObjectMapper();
+        review = mapper.writeValueAsBytes(feedback);
+        reviewText = new String(review, StandardCharsets.UTF_8);
+        out = new ByteArrayOutputStream(review.length * 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dictionary.close();
+    }
+
+    @Benchmark
+    public byte[] review() throws IOException {
+        return mapper.writeValueAsBytes(feedback);
+    }
+
+    @Benchmark
+    public int writeString() throws IOException {
+        out.reset();
+        FeedbackFormat.STRING.write(review, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeObject() throws IOException {
+        out.reset();
+        FeedbackFormat.OBJECT.write(review, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int mapperEnvelope() throws IOException {
+        out.reset();
+        mapper.writeValue(out, Map.of("message", Map.of("content", reviewText)));
+        return out.size();
+    }
+}
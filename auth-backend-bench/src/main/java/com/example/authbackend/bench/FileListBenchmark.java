@@ -0,0 +1,119 @@
+package com.example.authbackend.bench;
+
+import com.example.authbackend.controller.FileController;
+import com.example.authbackend.files.FileIndex;
+import com.example.authbackend.files.FileSender;
+import com.example.authbackend.files.UploadStore;
+import com.example.authbackend.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@code GET /api/files} over an upload directory of growing size, spread over 256 shard
+ * directories the way {@link UploadStore} lays them out. {@link #firstPage} is what the UI asks
+ * for, {@link #fullListing} the unpaged response; both read only the {@link FileIndex}.
+ * {@link #legacyDirectoryWalk} reproduces the old listing, which walked the disk and stat'ed
+ * every file on each request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FileListBenchmark {
+
+    private static final int PAGE = 50;
+    private static final int SHARDS = 256;
+
+    @Param({"1000", "10000", "100000"})
+    private int files;
+
+    @Param({"*", "007f-*"})
+    private String pattern;
+
+    private Path root;
+    private FileIndex index;
+    private FileController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("bench-uploads");
+        final UploadStore uploads = new UploadStore(root.toString(), Long.MAX_VALUE);
+        final byte[] body = new byte[512];
+        for (int i = 0; i < files; i++) {
+            final String name = String.format("%04x-%s.pdf", i % SHARDS, UUID.randomUUID());
+            final Path file = uploads.shardedPath(name);
+            Files.createDirectories(file.getParent());
+            Files.write(file, body);
+        }
+        index = new FileIndex(uploads);
+        controller = new FileController(uploads, index, new FileSender(), new MetricsRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+        try (Stream<Path> tree = Files.walk(root)) {
+            for (final Path path : tree.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object firstPage() {
+        return controller.listFiles(pattern, PAGE, null).getBody();
+    }
+
+    @Benchmark
+    public Object fullListing() {
+        return controller.listFiles(pattern, null, null).getBody();
+    }
+
+    @Benchmark
+    public Object legacyDirectoryWalk() throws IOException {
+        final Pattern regex = Pattern.compile("^" + pattern.replace("*", ".*") + "$");
+        try (Stream<Path> tree = Files.walk(root)) {
+            return tree
+                .filter(Files::isRegularFile)
+                .filter(file -> regex.matcher(file.getFileName().toString()).matches())
+                .sorted(Comparator.comparing(Path::getFileName))
+                .map(file -> {
+                    try {
+                        return Map.<String, Object>of(
+                            "name", file.getFileName().toString(),
+                            "path", "/api/files/" + file.getFileName(),
+                            "isDirectory", false,
+                            "size", Files.size(file)
+                        );
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.authbackend.bench;
+
+import com.example.authbackend.metrics.LatencyHistogram;
+import com.example.authbackend.security.JwtFilter;
+import com.example.authbackend.security.JwtUtil;
+import com.example.authbackend.security.KeyRing;
+import com.example.authbackend.security.RevocationList;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtFilter} end to end for one request: header parsing, verification, the security
+ * context and the verify-time histogram. {@link #cachedToken} is a client repeating its access
+ * token; {@link #freshToken} verifies in full with the cache off; {@link #anonymous} carries no
+ * token and shows the filter's fixed cost. {@link #issueAccessToken} and {@link #validateToken}
+ * time {@code JwtUtil} on its own, signing and checking a token without the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private RevocationList revocations;
+    private Path keyFile;
+    private KeyRing keyRing;
+    private JwtUtil uncached;
+    private JwtFilter cachedFilter;
+    private JwtFilter uncachedFilter;
+    private String token;
+    private MockHttpServletRequest bearer;
+    private MockHttpServletRequest noToken;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        revocations = new RevocationList(3_600_000, 100_000);
+        keyFile = Files.createTempFile("bench-keys", ".p12");
+        Files.delete(keyFile);
+        keyRing = new KeyRing(keyFile.toString(), "bench", 0);
+        final JwtUtil cached = new JwtUtil(10_000, revocations, keyRing);
+        uncached = new JwtUtil(0, revocations, keyRing);
+        cachedFilter = new JwtFilter(cached, new LatencyHistogram());
+        uncachedFilter = new JwtFilter(uncached, new LatencyHistogram());
+        token = cached.generateAccessToken("bench-user");
+
+        bearer = new MockHttpServletRequest("GET", "/api/kv");
+        bearer.addHeader("Authorization", "Bearer " + token);
+        noToken = new MockHttpServletRequest("GET", "/api/kv");
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        revocations.close();
+        keyRing.close();
+        Files.deleteIfExists(keyFile);
+    }
+
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        return filter(cachedFilter, bearer);
+    }
+
+    @Benchmark
+    public Object freshToken() throws Exception {
+        return filter(uncachedFilter, bearer);
+    }
+
+    @Benchmark
+    public Object anonymous() throws Exception {
+        return filter(cachedFilter, noToken);
+    }
+
+    @Benchmark
+    public String issueAccessToken() {
+        return uncached.generateAccessToken("bench-user");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncached.validateToken(token);
+    }
+
+    private Object filter(final JwtFilter filter, final MockHttpServletRequest request) throws Exception {
+        try {
+            filter.doFilter(request, response, CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.authbackend.bench;
+
+import com.example.authbackend.security.JwtUtil;
+import com.example.authbackend.security.KeyRing;
+import com.example.authbackend.security.RevocationList;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of checking a bearer token. {@link #legacyRebuildParser} is what
+ * {@code JwtFilter} used to do on every request; {@link #sharedParser} verifies in full with the
+ * parser built once; {@link #cachedRepeat} is the usual case of a client sending the same token
+ * again, answered from the verified-token cache. {@link #revocationCheck} is the part of each of
+ * those spent asking the revocation list about a token id that is not revoked, with ten
+ * thousand others already in it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final int REVOKED = 10_000;
+
+    private SecretKey key;
+    private RevocationList revocations;
+    private Path keyFile;
+    private KeyRing keyRing;
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+    private String tokenId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        revocations = new RevocationList(3_600_000, 100_000);
+        for (int i = 0; i < REVOKED; i++) {
+            revocations.revoke(UUID.randomUUID().toString(), System.currentTimeMillis() + 3_600_000);
+        }
+        keyFile = Files.createTempFile("bench-keys", ".p12");
+        Files.delete(keyFile);
+        keyRing = new KeyRing(keyFile.toString(), "bench", 0);
+        key = keyRing.verificationKey(keyRing.currentKid());
+        uncached = new JwtUtil(0, revocations, keyRing);
+        cached = new JwtUtil(10_000, revocations, keyRing);
+        token = cached.generateAccessToken("bench-user");
+        tokenId = UUID.randomUUID().toString();
+        cached.verify(token);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        revocations.close();
+        keyRing.close();
+        Files.deleteIfExists(keyFile);
+    }
+
+    @Benchmark
+    public String legacyRebuildParser() {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String sharedParser() {
+        return uncached.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String cachedRepeat() {
+        return cached.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revocations.isRevoked(tokenId);
+    }
+}
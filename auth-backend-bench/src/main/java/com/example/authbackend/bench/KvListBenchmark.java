@@ -0,0 +1,91 @@
+package com.example.authbackend.bench;
+
+import com.example.authbackend.controller.KVController;
+import com.example.authbackend.kv.InMemoryKvStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * {@code GET /api/kv?pattern=resume:*} against stores of growing size where the number of
+ * matching resumes stays fixed. The indexed path should stay flat across {@code storeSize};
+ * {@link #legacyFullScan} reproduces the old filter-and-sort over the whole map for contrast.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KvListBenchmark {
+
+    private static final int RESUMES = 200;
+
+    @Param({"10000", "100000", "1000000"})
+    private int storeSize;
+
+    @Param({"resume:*", "resume:0*"})
+    private String pattern;
+
+    private InMemoryKvStore store;
+    private KVController controller;
+    private Map<String, String> legacyMap;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        store = new InMemoryKvStore();
+        legacyMap = new ConcurrentHashMap<>(storeSize * 2);
+        final String feedback = "{\"overallScore\":78,\"ATS\":{\"score\":82,\"tips\":[]}}";
+        for (int i = 0; i < RESUMES; i++) {
+            final String key = "resume:" + UUID.randomUUID();
+            store.put(key, feedback);
+            legacyMap.put(key, feedback);
+        }
+        for (int i = RESUMES; i < storeSize; i++) {
+            final String key = "session:" + UUID.randomUUID();
+            store.put(key, "x");
+            legacyMap.put(key, "x");
+        }
+        controller = new KVController(store, new ObjectMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public Object indexedList() {
+        return controller.list(pattern, true, null, null).getBody();
+    }
+
+    @Benchmark
+    public Object legacyFullScan() {
+        final Pattern regex = Pattern.compile("^" + pattern.replace("*", ".*") + "$");
+        final List<Map<String, String>> items = legacyMap.entrySet().stream()
+            .filter(entry -> regex.matcher(entry.getKey()).matches())
+            .sorted(Map.Entry.comparingByKey())
+            .map(entry -> Map.of("key", entry.getKey(), "value", entry.getValue()))
+            .toList();
+        return items;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.authbackend.bench;
+
+import com.example.authbackend.security.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code RateLimitFilter} adds to each API request: taking a token from a client's bucket
+ * among ten thousand others. {@link #admitted} never runs dry; {@link #rejected} is a client far
+ * over its limit, which is refused without writing to the bucket. {@link #contended} has four
+ * threads taking from the same bucket, the case the compare-and-set retries for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter open;
+    private RateLimiter strict;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        open = new RateLimiter(true, 2, 20, 1, 10, 1e9, 1_000_000, 600_000);
+        strict = new RateLimiter(true, 2, 20, 1, 10, 1, 1, 600_000);
+        for (int i = 0; i < CLIENTS; i++) {
+            open.acquire("GET", "/api/kv", "user-" + i, null);
+            strict.acquire("GET", "/api/kv", "user-" + i, null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        open.close();
+        strict.close();
+    }
+
+    @Benchmark
+    public long admitted() {
+        return open.acquire("GET", "/api/kv/resume:1", "user-42", "127.0.0.1");
+    }
+
+    @Benchmark
+    public long rejected() {
+        return strict.acquire("GET", "/api/kv/resume:1", "user-42", "127.0.0.1");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long contended() {
+        return open.acquire("GET", "/api/kv/resume:1", "user-42", "127.0.0.1");
+    }
+}
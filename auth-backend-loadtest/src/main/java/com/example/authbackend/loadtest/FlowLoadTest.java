@@ -0,0 +1,391 @@
+package com.example.authbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Many users going through the app's main flow at once, for {@code --seconds} after a
+ * {@code --warmup}; then prints throughput, latency percentiles and errors for each step.
+ *
+ * <p>Each client replays what {@code upload.tsx} and {@code resume.tsx} do, back to back:</p>
+ * <ol>
+ *   <li>{@code fs.upload} the resume PDF, then the PNG of its first page;</li>
+ *   <li>{@code kv.set} the {@code resume:<uuid>} record with both paths;</li>
+ *   <li>{@code ai.feedback}: queue the review and follow its events until it is done;</li>
+ *   <li>{@code kv.set} the record again with the feedback;</li>
+ *   <li>{@code kv.get} the record, and {@code fs.read} the PDF and the PNG.</li>
+ * </ol>
+ *
+ * <p>A failed step ends the flow, as it does in the UI, and counts against that step and the
+ * flow. Resumes come from {@link SyntheticResume} with {@code --seed}, so two runs with the
+ * same options send the same documents in the same order per client; each upload is still
+ * distinct from every other, in this run and earlier ones, so every review is computed.</p>
+ *
+ * <pre>
+ * java -cp target/loadtest.jar com.example.authbackend.loadtest.FlowLoadTest \
+ *     --url http://localhost:9000 --clients 20 --seconds 60 --warmup 10
+ * </pre>
+ */
+public final class FlowLoadTest {
+
+    private static final String BOUNDARY = "loadtest-boundary-7f3a";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private FlowLoadTest() {
+    }
+
+    /** The requests of one flow, in order, and the flow as a whole. */
+    private enum Step {
+        UPLOAD_PDF("fs.upload pdf"),
+        UPLOAD_PNG("fs.upload png"),
+        KV_SET("kv.set"),
+        AI_FEEDBACK("ai.feedback"),
+        KV_SET_FEEDBACK("kv.set feedback"),
+        KV_GET("kv.get"),
+        READ_PDF("fs.read pdf"),
+        READ_PNG("fs.read png"),
+        FLOW("flow");
+
+        private final String label;
+
+        Step(final String label) {
+            this.label = label;
+        }
+    }
+
+    /** A request whose response was not what the flow needs to go on. */
+    private static final class StepFailure extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        StepFailure(final String message) {
+            super(message);
+        }
+    }
+
+    /** One request to time. */
+    @FunctionalInterface
+    private interface Request<T> {
+        T send() throws IOException, InterruptedException, StepFailure;
+    }
+
+    /** What happened to one step on one client, or on all of them once merged. */
+    private static final class Outcomes {
+        private final Latencies latencies = new Latencies();
+        private int errors;
+        private String lastError;
+
+        void addAll(final Outcomes other) {
+            latencies.addAll(other.latencies);
+            errors += other.errors;
+            lastError = other.lastError != null ? other.lastError : lastError;
+        }
+    }
+
+    /** One simulated user going through the flow in a loop. */
+    private static final class Client implements Runnable {
+        private final int id;
+        private final HttpClient http;
+        private final String url;
+        private final String run;
+        private final List<SyntheticResume> resumes;
+        private final Random random;
+        private final Duration timeout;
+        private final long warmupEnd;
+        private final long deadline;
+        private final Outcomes[] outcomes = new Outcomes[Step.values().length];
+
+        Client(final int id, final HttpClient http, final String url, final String run,
+               final List<SyntheticResume> resumes, final long seed, final Duration timeout, final long warmupEnd,
+               final long deadline) {
+            this.id = id;
+            this.http = http;
+            this.url = url;
+            this.run = run;
+            this.resumes = resumes;
+            this.random = new Random(seed + id);
+            this.timeout = timeout;
+            this.warmupEnd = warmupEnd;
+            this.deadline = deadline;
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] = new Outcomes();
+            }
+        }
+
+        @Override
+        public void run() {
+            for (long sequence = 0; System.nanoTime() < deadline; sequence++) {
+                final SyntheticResume resume = resumes.get(random.nextInt(resumes.size()));
+                final long started = System.nanoTime();
+                try {
+                    flow(resume, "loadtest-" + run + "-" + id + "-" + sequence);
+                    record(Step.FLOW, started, null);
+                } catch (final StepFailure e) {
+                    record(Step.FLOW, started, e.getMessage());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void flow(final SyntheticResume resume, final String marker)
+            throws StepFailure, InterruptedException {
+            final String resumePath = step(Step.UPLOAD_PDF,
+                () -> upload(resume.pdf(marker), marker + ".pdf", "application/pdf"));
+            final String imagePath = step(Step.UPLOAD_PNG,
+                () -> upload(resume.png(marker), marker + ".png", "image/png"));
+
+            final String key = "resume:" + UUID.randomUUID();
+            final ObjectNode data = MAPPER.createObjectNode()
+                .put("id", key.substring("resume:".length()))
+                .put("resumePath", resumePath)
+                .put("imagePath", imagePath)
+                .put("companyName", resume.getCompanyName())
+                .put("jobTitle", resume.getJobTitle())
+                .put("jobDescription", resume.getJobDescription())
+                .put("feedback", "");
+            step(Step.KV_SET, () -> kvSet(key, data));
+
+            final JsonNode feedback = step(Step.AI_FEEDBACK, () -> feedback(resumePath, resume));
+            data.set("feedback", feedback);
+            step(Step.KV_SET_FEEDBACK, () -> kvSet(key, data));
+
+            step(Step.KV_GET, () -> kvGet(key));
+            step(Step.READ_PDF, () -> read(resumePath));
+            step(Step.READ_PNG, () -> read(imagePath));
+        }
+
+        private <T> T step(final Step step, final Request<T> request) throws StepFailure, InterruptedException {
+            final long started = System.nanoTime();
+            try {
+                final T result = request.send();
+                record(step, started, null);
+                return result;
+            } catch (final IOException e) {
+                record(step, started, e.toString());
+                throw new StepFailure(step.label + ": " + e);
+            } catch (final StepFailure e) {
+                record(step, started, e.getMessage());
+                throw new StepFailure(step.label + ": " + e.getMessage());
+            }
+        }
+
+        /** Counts requests started after the warm-up: latencies of successes, and failures. */
+        private void record(final Step step, final long started, final String error) {
+            if (started < warmupEnd) {
+                return;
+            }
+            final Outcomes outcome = outcomes[step.ordinal()];
+            if (error == null) {
+                outcome.latencies.record(System.nanoTime() - started);
+            } else {
+                outcome.errors++;
+                outcome.lastError = error;
+            }
+        }
+
+        /** {@code fs.upload}: a multipart form with one {@code file} field, as the browser sends it. */
+        private String upload(final byte[] content, final String filename, final String contentType)
+            throws IOException, InterruptedException, StepFailure {
+            final byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            final byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+            final byte[] body = new byte[head.length + content.length + tail.length];
+            System.arraycopy(head, 0, body, 0, head.length);
+            System.arraycopy(content, 0, body, head.length, content.length);
+            System.arraycopy(tail, 0, body, head.length + content.length, tail.length);
+
+            final HttpResponse<String> response = http.send(request("/api/files/upload")
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            expect(response, 200);
+            final JsonNode path = MAPPER.readTree(response.body()).path("path");
+            if (!path.isTextual()) {
+                throw new StepFailure("no path in " + response.body());
+            }
+            return path.asText();
+        }
+
+        private Void kvSet(final String key, final JsonNode value) throws IOException, InterruptedException, StepFailure {
+            final HttpResponse<Void> response = http.send(request("/api/kv/" + encode(key))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(value)))
+                .build(), HttpResponse.BodyHandlers.discarding());
+            expect(response, 200);
+            return null;
+        }
+
+        private JsonNode kvGet(final String key) throws IOException, InterruptedException, StepFailure {
+            final HttpResponse<String> response = http.send(request("/api/kv/" + encode(key)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            expect(response, 200);
+            final JsonNode record = MAPPER.readTree(response.body());
+            if (!record.path("feedback").isObject()) {
+                throw new StepFailure("record has no feedback");
+            }
+            return record;
+        }
+
+        /** {@code fs.read}: the whole file, which the page turns into a blob URL. */
+        private Void read(final String path) throws IOException, InterruptedException, StepFailure {
+            expect(http.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding()), 200);
+            return null;
+        }
+
+        /**
+         * {@code ai.feedback}: queues the review, then follows its Server-Sent Events until it is
+         * done, asking for the review as an object as the front end does.
+         */
+        private JsonNode feedback(final String path, final SyntheticResume resume)
+            throws IOException, InterruptedException, StepFailure {
+            final String instructions = "You are an expert in ATS (Applicant Tracking System) and resume analysis.\n"
+                + "The job title is: " + resume.getJobTitle() + "\n"
+                + "The job description is: " + resume.getJobDescription() + "\n"
+                + "Provide the feedback using the following format: ...";
+            final HttpResponse<String> submitted = http.send(request("/api/ai/feedback/jobs?path=" + encode(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(instructions)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            expect(submitted, 202);
+            final String id = MAPPER.readTree(submitted.body()).path("id").asText();
+
+            final HttpResponse<Stream<String>> events = http.send(
+                request("/api/ai/feedback/jobs/" + encode(id) + "/events?format=object")
+                    .header("Accept", "text/event-stream").GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+            try (Stream<String> lines = events.body()) {
+                expect(events, 200);
+                String event = null;
+                final StringBuilder data = new StringBuilder();
+                for (final Iterator<String> it = lines.iterator(); it.hasNext(); ) {
+                    final String line = it.next();
+                    if (line.startsWith("event:")) {
+                        event = line.substring("event:".length()).trim();
+                    } else if (line.startsWith("data:")) {
+                        data.append(line.substring("data:".length()));
+                    } else if (line.isEmpty()) {
+                        if ("done".equals(event)) {
+                            final JsonNode content = MAPPER.readTree(data.toString()).path("message").path("content");
+                            if (!content.isObject()) {
+                                throw new StepFailure("review is not an object");
+                            }
+                            return content;
+                        }
+                        if ("failed".equals(event)) {
+                            throw new StepFailure("review failed: " + MAPPER.readTree(data.toString()).path("error").asText());
+                        }
+                        event = null;
+                        data.setLength(0);
+                    }
+                }
+            }
+            throw new StepFailure("event stream ended before the review was done");
+        }
+
+        private HttpRequest.Builder request(final String path) {
+            return HttpRequest.newBuilder(URI.create(url + path)).timeout(timeout);
+        }
+
+        private static void expect(final HttpResponse<?> response, final int status) throws StepFailure {
+            if (response.statusCode() != status) {
+                throw new StepFailure("HTTP " + response.statusCode());
+            }
+        }
+
+        private static String encode(final String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args {@code --url}, {@code --clients}, {@code --seconds} measured after
+     *             {@code --warmup} seconds, {@code --resumes} distinct documents generated from
+     *             {@code --seed}, and {@code --timeout} per request in seconds
+     * @throws IOException if the resumes cannot be generated
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final Options options = Options.parse(args);
+        final String url = options.string("url", "http://localhost:9000");
+        final int clients = (int) options.number("clients", 20);
+        final long seconds = options.number("seconds", 60);
+        final long warmup = options.number("warmup", 10);
+        final int count = (int) options.number("resumes", 16);
+        final long seed = options.number("seed", 1);
+        final Duration timeout = Duration.ofSeconds(options.number("timeout", 120));
+
+        final Random random = new Random(seed);
+        final List<SyntheticResume> resumes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            resumes.add(SyntheticResume.generate(random));
+        }
+        System.out.printf(Locale.ROOT, "%d clients replaying upload -> analyze -> view with %d resumes (seed %d) "
+            + "for %d s after %d s warm-up against %s%n", clients, count, seed, seconds, warmup, url);
+
+        final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        // Markers differ between runs, so a rerun against the same server uploads new files
+        final String run = Long.toString(System.currentTimeMillis(), 36);
+        final long started = System.nanoTime();
+        final long warmupEnd = started + warmup * 1_000_000_000L;
+        final long deadline = warmupEnd + seconds * 1_000_000_000L;
+        final List<Client> all = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            final Client client = new Client(i, http, url, run, resumes, seed, timeout, warmupEnd, deadline);
+            final Thread thread = new Thread(client, "loadtest-client-" + i);
+            all.add(client);
+            threads.add(thread);
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final double elapsed = (System.nanoTime() - Math.max(started, warmupEnd)) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%-16s %8s %7s %6s %8s %9s %9s %9s %9s %9s%n", "step", "ok", "errors", "err%",
+            "per s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        String lastError = null;
+        for (final Step step : Step.values()) {
+            final Outcomes merged = new Outcomes();
+            for (final Client client : all) {
+                merged.addAll(client.outcomes[step.ordinal()]);
+            }
+            final Latencies latencies = merged.latencies;
+            final int total = latencies.count() + merged.errors;
+            System.out.printf(Locale.ROOT, "%-16s %8d %7d %6.2f %8.2f %9.1f %9.1f %9.1f %9.1f %9.1f%n", step.label,
+                latencies.count(), merged.errors, total == 0 ? 0 : 100.0 * merged.errors / total,
+                latencies.count() / elapsed, latencies.percentileMillis(50), latencies.percentileMillis(90),
+                latencies.percentileMillis(99), latencies.percentileMillis(99.9), latencies.percentileMillis(100));
+            if (step == Step.FLOW) {
+                lastError = merged.lastError;
+            }
+        }
+        if (lastError != null) {
+            System.out.println("last error: " + lastError);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.authbackend.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Every latency of one kind of request, for exact percentiles. Each client thread records into
+ * its own instance, and the instances are merged once the run is over, so recording takes no
+ * lock.
+ */
+final class Latencies {
+
+    private long[] nanos = new long[1024];
+    private int count;
+
+    /**
+     * Records one request.
+     *
+     * @param elapsedNanos how long it took
+     */
+    void record(final long elapsedNanos) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = elapsedNanos;
+    }
+
+    /**
+     * Adds another instance's latencies to this one.
+     *
+     * @param other the latencies to add
+     */
+    void addAll(final Latencies other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+    }
+
+    /**
+     * Gets the number of requests recorded.
+     *
+     * @return the count
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Gets a percentile, sorting the latencies on first use after recording.
+     *
+     * @param percent from 0 to 100
+     * @return the latency in milliseconds, or 0 if none were recorded
+     */
+    double percentileMillis(final double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(nanos, 0, count);
+        final int index = (int) Math.min(count - 1, Math.ceil(percent / 100 * count) - 1);
+        return nanos[Math.max(0, index)] / 1e6;
+    }
+}
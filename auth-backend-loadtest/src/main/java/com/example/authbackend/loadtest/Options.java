@@ -0,0 +1,57 @@
+package com.example.authbackend.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line options of the form {@code --name value}.
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private Options() {
+    }
+
+    /**
+     * Parses the arguments.
+     *
+     * @param args {@code --name value} pairs
+     * @return the options
+     * @throws IllegalArgumentException for anything else
+     */
+    static Options parse(final String[] args) {
+        final Options options = new Options();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value, got " + args[i]);
+            }
+            options.values.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Gets a text option.
+     *
+     * @param name the option name, without dashes
+     * @param fallback the value if not given
+     * @return the value
+     */
+    String string(final String name, final String fallback) {
+        return values.getOrDefault(name, fallback);
+    }
+
+    /**
+     * Gets a numeric option.
+     *
+     * @param name the option name, without dashes
+     * @param fallback the value if not given
+     * @return the value
+     * @throws NumberFormatException if it is not a number
+     */
+    long number(final String name, final long fallback) {
+        final String value = values.get(name);
+        return value == null ? fallback : Long.parseLong(value);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.authbackend.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends one HTTP/1.1 POST over its own socket, writing the body no faster than a fixed rate.
+ *
+ * <p>{@code java.net.http.HttpClient} reads a request body ahead of the network, so throttling
+ * its input stream delays the request without making it slow on the wire. Writing to the socket
+ * directly means the server really does receive the body at {@code rate}, and a server that
+ * blocks a thread per request holds it for the whole upload, as long as the body is larger than
+ * the socket buffers between the two.</p>
+ */
+final class SlowUpload {
+
+    private static final int TIMEOUT_MS = 120_000;
+    private static final int SEND_BUFFER_BYTES = 16 * 1024;
+
+    private SlowUpload() {
+    }
+
+    /**
+     * Posts a body and waits for the response status.
+     *
+     * @param uri where to post
+     * @param contentType the body's content type
+     * @param body the body
+     * @param bytesPerSecond how fast to write it; 0 for as fast as possible
+     * @return the response status code
+     * @throws IOException if the connection fails or the response is not HTTP
+     * @throws InterruptedException if interrupted while throttling
+     */
+    static int post(final URI uri, final String contentType, final byte[] body, final long bytesPerSecond)
+        throws IOException, InterruptedException {
+        final int port = uri.getPort() < 0 ? 80 : uri.getPort();
+        try (Socket socket = new Socket()) {
+            // A small fixed buffer, so the kernel cannot absorb the body before the server reads it
+            socket.setSendBufferSize(SEND_BUFFER_BYTES);
+            socket.connect(new InetSocketAddress(uri.getHost(), port), TIMEOUT_MS);
+            socket.setSoTimeout(TIMEOUT_MS);
+            final OutputStream out = socket.getOutputStream();
+            out.write(("POST " + uri.getRawPath() + " HTTP/1.1\r\n"
+                + "Host: " + uri.getHost() + ":" + port + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            final int chunk = bytesPerSecond > 0 ? (int) Math.max(1, Math.min(1 << 16, bytesPerSecond / 20)) : 1 << 16;
+            // Paced from the last write, not the start, so a stall is not made up in a burst, as on a slow link
+            long next = System.nanoTime();
+            for (int written = 0; written < body.length; ) {
+                final int n = Math.min(chunk, body.length - written);
+                if (bytesPerSecond > 0) {
+                    final long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                    }
+                }
+                out.write(body, written, n);
+                out.flush();
+                written += n;
+                if (bytesPerSecond > 0) {
+                    next = Math.max(next, System.nanoTime()) + n * 1_000_000_000L / bytesPerSecond;
+                }
+            }
+
+            final InputStream in = socket.getInputStream();
+            final String status = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII)).readLine();
+            if (status == null || !status.startsWith("HTTP/1.")) {
+                throw new IOException("Not an HTTP response: " + status);
+            }
+            return Integer.parseInt(status.substring(9, 12));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.authbackend.loadtest;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A generated resume with text the server can extract, its first page rendered
+ * to PNG the way {@code pdf2img.ts} does in the browser, and the job it is submitted for.
+ *
+ * <p>Everything is drawn from the {@link Random} passed in, so a seed always yields the same
+ * resumes. {@link #pdf} and {@link #png} append a marker after the end of each file so that
+ * every upload is distinct and none is served from a cache: readers ignore bytes past
+ * {@code %%EOF} and {@code IEND}.</p>
+ */
+final class SyntheticResume {
+
+    /** {@code pdf2img.ts} renders at scale 4 of the PDF's 72 points per inch. */
+    private static final float RENDER_DPI = 288;
+    private static final float MARGIN = 54;
+    private static final float LEADING = 14;
+
+    private static final String[] NAMES = {
+        "Jane Doe", "Arjun Mehta", "Li Wei", "Maria Garcia", "Tom Becker", "Aisha Khan", "Sam Okafor",
+    };
+    private static final String[] TITLES = {
+        "Backend Engineer", "Frontend Developer", "Data Engineer", "DevOps Engineer", "Full Stack Developer",
+    };
+    private static final String[] COMPANIES = {"Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark Industries"};
+    private static final String[] SKILLS = {
+        "Java", "Spring Boot", "Kotlin", "Python", "Go", "TypeScript", "React", "Node.js", "SQL", "PostgreSQL",
+        "MongoDB", "Redis", "Kafka", "Docker", "Kubernetes", "Terraform", "AWS", "GCP", "Azure", "CI/CD", "Git",
+        "GraphQL", "REST", "Microservices", "Linux", "Spark", "Airflow",
+    };
+    private static final String[] ACHIEVEMENTS = {
+        "Cut p99 latency by %d%% by moving hot paths to %s",
+        "Led a team of %d engineers delivering a %s platform on schedule",
+        "Saved $%dk a year in cloud spend by right-sizing %s workloads",
+        "Grew test coverage to %d%% and automated releases with %s",
+        "Processed %dM events a day through %s pipelines",
+    };
+
+    private final byte[] pdf;
+    private final byte[] png;
+    private final String companyName;
+    private final String jobTitle;
+    private final String jobDescription;
+
+    private SyntheticResume(final byte[] pdf, final byte[] png, final String companyName, final String jobTitle,
+                            final String jobDescription) {
+        this.pdf = pdf;
+        this.png = png;
+        this.companyName = companyName;
+        this.jobTitle = jobTitle;
+        this.jobDescription = jobDescription;
+    }
+
+    /**
+     * Generates a resume and the job it applies to.
+     *
+     * @param random source of every choice
+     * @return the resume
+     * @throws IOException if the PDF cannot be written or rendered
+     */
+    static SyntheticResume generate(final Random random) throws IOException {
+        final String title = pick(random, TITLES);
+        final List<String> lines = new ArrayList<>();
+        lines.add(pick(random, NAMES) + " - " + title);
+        lines.add("name@example.com | +1 555 0100 | github.com/example");
+        lines.add("");
+        lines.add("Summary");
+        lines.add(String.format(Locale.ROOT, "%s with %d years of experience building %s and %s systems.", title,
+            2 + random.nextInt(12), pick(random, SKILLS), pick(random, SKILLS)));
+        lines.add("");
+        lines.add("Experience");
+        final int jobs = 2 + random.nextInt(4);
+        for (int i = 0; i < jobs; i++) {
+            lines.add(String.format(Locale.ROOT, "%s, %s, %d - %d", title, pick(random, COMPANIES), 2010 + i * 3, 2013 + i * 3));
+            for (int j = 0; j < 3; j++) {
+                lines.add("- " + String.format(Locale.ROOT, pick(random, ACHIEVEMENTS), 5 + random.nextInt(60), pick(random, SKILLS)));
+            }
+        }
+        lines.add("");
+        lines.add("Skills");
+        final StringBuilder skills = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            skills.append(i == 0 ? "" : ", ").append(pick(random, SKILLS));
+        }
+        lines.add(skills.toString());
+        lines.add("");
+        lines.add("Education");
+        lines.add("B.Sc. Computer Science, State University");
+
+        final byte[] pdf;
+        final byte[] png;
+        try (PDDocument document = new PDDocument()) {
+            write(document, lines);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            pdf = out.toByteArray();
+            out.reset();
+            ImageIO.write(new PDFRenderer(document).renderImageWithDPI(0, RENDER_DPI), "png", out);
+            png = out.toByteArray();
+        }
+        final String description = String.format(Locale.ROOT, "We are hiring a %s to work with %s, %s and %s on %s.", title,
+            pick(random, SKILLS), pick(random, SKILLS), pick(random, SKILLS), pick(random, SKILLS));
+        return new SyntheticResume(pdf, png, pick(random, COMPANIES), title, description);
+    }
+
+    /**
+     * Gets the PDF, made distinct by a marker after its end.
+     *
+     * @param marker text unique to this upload
+     * @return the file's bytes
+     */
+    byte[] pdf(final String marker) {
+        return withTrailer(pdf, "\n%" + marker + "\n");
+    }
+
+    /**
+     * Gets the rendered first page, made distinct by a marker after its end.
+     *
+     * @param marker text unique to this upload
+     * @return the file's bytes
+     */
+    byte[] png(final String marker) {
+        return withTrailer(png, marker);
+    }
+
+    String getCompanyName() {
+        return companyName;
+    }
+
+    String getJobTitle() {
+        return jobTitle;
+    }
+
+    String getJobDescription() {
+        return jobDescription;
+    }
+
+    private static void write(final PDDocument document, final List<String> lines) throws IOException {
+        final PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        final int perPage = (int) ((PDRectangle.LETTER.getHeight() - 2 * MARGIN) / LEADING);
+        for (int first = 0; first < lines.size(); first += perPage) {
+            final PDPage page = new PDPage(PDRectangle.LETTER);
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(font, 10);
+                content.setLeading(LEADING);
+                content.newLineAtOffset(MARGIN, PDRectangle.LETTER.getHeight() - MARGIN);
+                for (final String line : lines.subList(first, Math.min(lines.size(), first + perPage))) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+        }
+    }
+
+    private static byte[] withTrailer(final byte[] file, final String marker) {
+        final byte[] trailer = marker.getBytes(StandardCharsets.US_ASCII);
+        final byte[] bytes = new byte[file.length + trailer.length];
+        System.arraycopy(file, 0, bytes, 0, file.length);
+        System.arraycopy(trailer, 0, bytes, file.length, trailer.length);
+        return bytes;
+    }
+
+    private static String pick(final Random random, final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.authbackend.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Many clients uploading at once to {@code POST /api/files/upload}, each as fast as its
+ * {@code --rate} allows, for {@code --seconds}; then prints throughput and latency.
+ *
+ * <p>With a slow rate each upload holds a server thread for seconds. Run the server once with
+ * Tomcat's pool capped, e.g. {@code --server.tomcat.threads.max=50}, and once more with
+ * {@code --spring.threads.virtual.enabled=true} on Java 21 and the same cap: on platform threads
+ * at most 50 uploads make progress and the rest queue, on virtual threads every client's upload
+ * runs at once, so throughput scales with {@code --clients} while the pool stays the same size.</p>
+ *
+ * <pre>
+ * java -jar target/loadtest.jar --url http://localhost:9000 --clients 200 --seconds 30 \
+ *     --size 1048576 --rate 262144
+ * </pre>
+ *
+ * <p>Every upload has distinct content, so none is deduplicated; each one is stored. Uploads
+ * should be well over the socket buffers, a few hundred KiB on loopback, or the kernel takes the
+ * whole body before the server reads any of it.</p>
+ */
+public final class UploadLoadTest {
+
+    private static final String BOUNDARY = "loadtest-boundary-7f3a";
+
+    private UploadLoadTest() {
+    }
+
+    /** One simulated user uploading in a loop. */
+    private static final class Client implements Runnable {
+        private final int id;
+        private final URI uri;
+        private final byte[] content;
+        private final long rate;
+        private final long deadline;
+        private final Latencies latencies = new Latencies();
+        private int errors;
+        private String lastError;
+
+        Client(final int id, final URI uri, final int size, final long rate, final long deadline) {
+            this.id = id;
+            this.uri = uri;
+            this.content = new byte[size];
+            new Random(id).nextBytes(content);
+            this.rate = rate;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            for (long sequence = 0; System.nanoTime() < deadline; sequence++) {
+                final byte[] body = multipart(sequence);
+                final long started = System.nanoTime();
+                try {
+                    final int status = SlowUpload.post(uri, "multipart/form-data; boundary=" + BOUNDARY, body, rate);
+                    if (status == 200) {
+                        latencies.record(System.nanoTime() - started);
+                    } else {
+                        errors++;
+                        lastError = "HTTP " + status;
+                    }
+                } catch (final IOException e) {
+                    errors++;
+                    lastError = e.toString();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private byte[] multipart(final long sequence) {
+            // The first bytes of the file name this client and upload, so no two uploads are alike
+            ByteBuffer.wrap(content).putInt(id).putLong(sequence);
+            final byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load-" + id + "-" + sequence + ".pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            final byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+            final byte[] body = new byte[head.length + content.length + tail.length];
+            System.arraycopy(head, 0, body, 0, head.length);
+            System.arraycopy(content, 0, body, head.length, content.length);
+            System.arraycopy(tail, 0, body, head.length + content.length, tail.length);
+            return body;
+        }
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args {@code --url}, {@code --clients}, {@code --seconds}, {@code --size} in bytes and
+     *             {@code --rate} in bytes per second per client (0 for unthrottled)
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        final Options options = Options.parse(args);
+        final String url = options.string("url", "http://localhost:9000");
+        final int clients = (int) options.number("clients", 200);
+        final long seconds = options.number("seconds", 30);
+        final int size = (int) options.number("size", 1024 * 1024);
+        final long rate = options.number("rate", 256 * 1024);
+
+        System.out.printf(Locale.ROOT, "%d clients uploading %d KiB at %s for %d s to %s%n", clients, size / 1024,
+            rate > 0 ? rate / 1024 + " KiB/s each" : "full speed", seconds, url);
+        final long started = System.nanoTime();
+        final long deadline = started + seconds * 1_000_000_000L;
+        final List<Client> all = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            final Client client = new Client(i, URI.create(url + "/api/files/upload"), size, rate, deadline);
+            final Thread thread = new Thread(client, "loadtest-client-" + i);
+            all.add(client);
+            threads.add(thread);
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final double elapsed = (System.nanoTime() - started) / 1e9;
+
+        final Latencies latencies = new Latencies();
+        int errors = 0;
+        String lastError = null;
+        for (final Client client : all) {
+            latencies.addAll(client.latencies);
+            errors += client.errors;
+            lastError = client.lastError != null ? client.lastError : lastError;
+        }
+        System.out.printf(Locale.ROOT, "uploads     %d in %.1f s: %.1f/s, %.2f MiB/s%n", latencies.count(), elapsed,
+            latencies.count() / elapsed, latencies.count() * (double) size / elapsed / (1 << 20));
+        System.out.printf(Locale.ROOT, "latency ms  p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+            latencies.percentileMillis(50), latencies.percentileMillis(90), latencies.percentileMillis(99),
+            latencies.percentileMillis(100));
+        System.out.printf(Locale.ROOT, "errors      %d%s%n", errors, lastError == null ? "" : " (last: " + lastError + ")");
+    }
+}
@@ -1,63 +1,283 @@
 package com.example.authbackend.controller;
 
+import com.example.authbackend.dto.BulkFeedbackDTOs.BulkRequest;
+import com.example.authbackend.dto.BulkFeedbackDTOs.BulkSummary;
+import com.example.authbackend.dto.FeedbackDTOs.JobStatus;
+import com.example.authbackend.dto.FeedbackDTOs.Message;
+import com.example.authbackend.files.FileMetadata;
+import com.example.authbackend.resume.BulkReviews;
+import com.example.authbackend.resume.ExtractedTextStore;
+import com.example.authbackend.resume.FeedbackCache;
+import com.example.authbackend.resume.FeedbackFormat;
+import com.example.authbackend.resume.FeedbackJob;
+import com.example.authbackend.resume.FeedbackJobs;
+import com.example.authbackend.resume.JobDescription;
+import com.example.authbackend.resume.ResumeReviewer;
+import com.example.authbackend.resume.ResumeScorer;
+import com.example.authbackend.resume.UnsupportedDocumentException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * Simple placeholder AI endpoints for feedback generation.
+ * Resume review endpoints, computed locally from the uploaded PDF's text.
  */
 @RestController
 @RequestMapping("/api/ai")
 public class AiController {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AiController.class);
+    private static final String NDJSON = "application/x-ndjson";
+    private static final long SSE_TIMEOUT_MILLIS = 120_000;
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final ExtractedTextStore texts;
+    private final ResumeReviewer reviewer;
+    private final FeedbackJobs jobs;
+    private final BulkReviews bulk;
+    private final ResumeScorer scorer;
+    private final ObjectMapper mapper;
+
+    public AiController(final ExtractedTextStore texts, final ResumeReviewer reviewer, final FeedbackJobs jobs,
+                        final BulkReviews bulk, final ResumeScorer scorer, final ObjectMapper mapper) {
+        this.texts = texts;
+        this.reviewer = reviewer;
+        this.jobs = jobs;
+        this.bulk = bulk;
+        this.scorer = scorer;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Streams the text and line layout of an uploaded PDF as newline-delimited JSON, one page
+     * per line, extracting on first request and from the cache after that.
+     */
+    @GetMapping("/text")
+    public void text(@RequestParam("path") String path, HttpServletResponse response) throws IOException {
+        try {
+            final FileMetadata file = texts.locate(path);
+            response.setContentType(NDJSON);
+            texts.stream(file, response.getOutputStream());
+        } catch (final IllegalArgumentException e) {
+            writeError(response, 400, e.getMessage());
+        } catch (final NoSuchFileException e) {
+            writeError(response, 404, "File not found");
+        } catch (final UnsupportedDocumentException e) {
+            writeError(response, 415, e.getMessage());
+        } catch (final IOException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            LOG.warn("Failed to extract text from {}", path, e);
+            writeError(response, 500, "Failed to extract text");
+        }
+    }
+
+    /**
+     * Reviews the resume uploaded at {@code path} against the job title and description in
+     * {@code instructions}, using {@link ResumeScorer} on the text extracted on the server.
+     * Reviews are cached by resume and job in {@link FeedbackCache}, and identical requests
+     * arriving together share one computation.
+     *
+     * <p>With {@code format=object} the review is sent as a JSON object, straight from the
+     * cached bytes; the default, {@code string}, sends it as a JSON string the way a chat
+     * model's reply would be.</p>
+     */
     @PostMapping("/feedback")
-    public ResponseEntity<?> feedback(@RequestParam("path") String path, @RequestBody String instructions) {
-        // Local deterministic feedback keeps the full upload-review flow working without an external AI key.
-        final String payload = """
-            {
-              "overallScore": 78,
-              "ATS": {
-                "score": 82,
-                "tips": [
-                  { "type": "good", "tip": "Resume uses a readable structure for ATS parsing." },
-                  { "type": "improve", "tip": "Add more job-description keywords where they fit naturally." },
-                  { "type": "improve", "tip": "Use standard section headings such as Experience, Skills, and Education." }
-                ]
-              },
-              "toneAndStyle": {
-                "score": 76,
-                "tips": [
-                  { "type": "good", "tip": "Professional tone", "explanation": "The resume reads clearly and avoids overly casual wording." },
-                  { "type": "improve", "tip": "Tighten bullets", "explanation": "Make bullets more direct by starting with strong action verbs and removing filler words." },
-                  { "type": "improve", "tip": "Show confidence", "explanation": "Replace vague phrases with concrete achievements and measurable outcomes." }
-                ]
-              },
-              "content": {
-                "score": 74,
-                "tips": [
-                  { "type": "good", "tip": "Relevant experience is present", "explanation": "The resume includes work history that can be connected to the target role." },
-                  { "type": "improve", "tip": "Quantify impact", "explanation": "Add numbers, percentages, scale, or business outcomes to make accomplishments easier to evaluate." },
-                  { "type": "improve", "tip": "Mirror the role", "explanation": "Prioritize experience and projects that match the job title and description." }
-                ]
-              },
-              "structure": {
-                "score": 80,
-                "tips": [
-                  { "type": "good", "tip": "Clear sections", "explanation": "The document can be scanned quickly by a recruiter." },
-                  { "type": "improve", "tip": "Improve hierarchy", "explanation": "Keep titles, companies, locations, and dates visually consistent throughout." },
-                  { "type": "improve", "tip": "Limit dense blocks", "explanation": "Break long text into short accomplishment-focused bullets." }
-                ]
-              },
-              "skills": {
-                "score": 78,
-                "tips": [
-                  { "type": "good", "tip": "Skills are visible", "explanation": "The resume gives recruiters a quick view of relevant tools and abilities." },
-                  { "type": "improve", "tip": "Group skills", "explanation": "Separate languages, frameworks, tools, and domain skills for easier ATS matching." },
-                  { "type": "improve", "tip": "Connect skills to achievements", "explanation": "Mention important skills again inside experience bullets to prove applied capability." }
-                ]
-              }
+    public void feedback(@RequestParam("path") String path,
+                         @RequestParam(value = "format", defaultValue = "string") String format,
+                         @RequestBody String instructions, HttpServletResponse response) throws IOException {
+        try {
+            final FeedbackFormat wire = FeedbackFormat.of(format);
+            final FileMetadata file = texts.locate(path);
+            final byte[] json = reviewer.review(file, JobDescription.fromInstructions(decode(instructions)),
+                ResumeReviewer.Progress.NONE);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            final long length = wire.length(json);
+            if (length >= 0) {
+                response.setContentLengthLong(length);
+            }
+            wire.write(json, response.getOutputStream());
+        } catch (final IllegalArgumentException e) {
+            writeError(response, 400, e.getMessage());
+        } catch (final NoSuchFileException e) {
+            writeError(response, 404, "File not found");
+        } catch (final UnsupportedDocumentException e) {
+            writeError(response, 415, e.getMessage());
+        } catch (final IOException e) {
+            if (response.isCommitted()) {
+                throw e;
             }
-            """;
-        return ResponseEntity.ok().body(java.util.Map.of("message", java.util.Map.of("content", payload)));
+            LOG.warn("Failed to review {}", path, e);
+            writeError(response, 500, "Failed to analyze resume");
+        }
+    }
+
+    /**
+     * Queues the same review as {@code POST /feedback} and returns at once with the job's id.
+     * Its result is then polled from {@code GET /feedback/jobs/{id}} or followed on
+     * {@code GET /feedback/jobs/{id}/events}. Responds 503 with {@code Retry-After} when the
+     * queue is full.
+     */
+    @PostMapping("/feedback/jobs")
+    public ResponseEntity<?> submitFeedback(@RequestParam("path") String path, @RequestBody String instructions) {
+        try {
+            final FileMetadata file = texts.locate(path);
+            final FeedbackJob job = jobs.submit(file, JobDescription.fromInstructions(decode(instructions)));
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/ai/feedback/jobs/" + job.getId()))
+                .body(status(job, FeedbackFormat.STRING));
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (final NoSuchFileException e) {
+            return ResponseEntity.status(404).body(Map.of("error", "File not found"));
+        } catch (final RejectedExecutionException e) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS))
+                .body(Map.of("error", "Too many reviews in progress, try again shortly"));
+        } catch (final IOException e) {
+            LOG.warn("Failed to queue review of {}", path, e);
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to analyze resume"));
+        }
+    }
+
+    /**
+     * Gets a queued review's stage, and the review once it is done.
+     */
+    @GetMapping("/feedback/jobs/{id}")
+    public ResponseEntity<?> feedbackJob(@PathVariable("id") String id,
+                                         @RequestParam(value = "format", defaultValue = "string") String format) {
+        final FeedbackFormat wire;
+        try {
+            wire = FeedbackFormat.of(format);
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        final FeedbackJob job = jobs.get(id);
+        if (job == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
+        }
+        return ResponseEntity.ok(status(job, wire));
+    }
+
+    /**
+     * Streams a queued review's progress as Server-Sent Events named after each stage
+     * ({@code queued}, {@code extracted}, {@code scored}, then {@code done} or {@code failed}),
+     * each carrying the same JSON as {@code GET /feedback/jobs/{id}} in the same {@code format}. The current stage is sent
+     * first, and the stream ends after the last.
+     */
+    @GetMapping("/feedback/jobs/{id}/events")
+    public ResponseEntity<SseEmitter> feedbackEvents(@PathVariable("id") String id,
+                                                     @RequestParam(value = "format", defaultValue = "string")
+                                                     String format) {
+        final FeedbackFormat wire;
+        try {
+            wire = FeedbackFormat.of(format);
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        final FeedbackJob job = jobs.get(id);
+        if (job == null) {
+            return ResponseEntity.status(404).build();
+        }
+        final SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        final FeedbackJob.Listener listener = (source, stage) -> {
+            try {
+                emitter.send(SseEmitter.event().name(stage.label()).data(status(source, wire),
+                    MediaType.APPLICATION_JSON));
+                if (stage.isTerminal()) {
+                    emitter.complete();
+                }
+            } catch (final IOException e) {
+                // The client went away; completion unsubscribes
+                emitter.completeWithError(e);
+            }
+        };
+        emitter.onCompletion(() -> job.unsubscribe(listener));
+        emitter.onError(e -> job.unsubscribe(listener));
+        job.subscribe(listener);
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Reviews many resumes against one job: those listed in {@code paths}, plus the uploads
+     * whose names match {@code glob}. Results are streamed as newline-delimited JSON, one line
+     * per resume as soon as it is scored with its rank so far, then a final line with the
+     * complete ranking.
+     */
+    @PostMapping("/feedback/bulk")
+    public void bulkFeedback(@RequestBody BulkRequest request, HttpServletResponse response) throws IOException {
+        final Set<String> paths = new LinkedHashSet<>(request.getPaths() == null ? List.of() : request.getPaths());
+        final JobDescription job = request.getInstructions() != null
+            ? JobDescription.fromInstructions(request.getInstructions())
+            : new JobDescription(request.getJobTitle(), request.getJobDescription());
+        try {
+            if (request.getGlob() != null && !request.getGlob().isEmpty()) {
+                paths.addAll(bulk.matching(request.getGlob()));
+            }
+            if (paths.isEmpty()) {
+                writeError(response, 400, "No resumes selected; give paths or a glob");
+                return;
+            }
+            final ResumeScorer.PreparedJob prepared = scorer.prepare(job);
+            response.setContentType(NDJSON);
+            final OutputStream out = response.getOutputStream();
+            final BulkSummary summary = bulk.review(List.copyOf(paths), prepared, result -> {
+                out.write(mapper.writeValueAsBytes(result));
+                out.write('\n');
+                out.flush();
+            });
+            out.write(mapper.writeValueAsBytes(summary));
+            out.write('\n');
+        } catch (final IllegalArgumentException e) {
+            writeError(response, 400, e.getMessage());
+        }
+    }
+
+    private static JobStatus status(final FeedbackJob job, final FeedbackFormat format) {
+        final JobStatus status = new JobStatus(job.getId(), job.getStage().label());
+        final byte[] result = job.getResult();
+        if (result != null) {
+            status.setMessage(new Message(format.content(result)));
+        }
+        status.setError(job.getError());
+        return status;
+    }
+
+    /**
+     * The front end posts the instructions JSON-encoded; other clients may send plain text.
+     */
+    private String decode(final String instructions) {
+        if (instructions != null && instructions.startsWith("\"")) {
+            try {
+                return mapper.readValue(instructions, String.class);
+            } catch (final JsonProcessingException e) {
+                // Not a JSON string after all; use it as is
+            }
+        }
+        return instructions;
+    }
+
+    private void writeError(final HttpServletResponse response, final int status, final String message)
+        throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), Map.of("error", message));
     }
 }
@@ -2,6 +2,8 @@ package com.example.authbackend.controller;
 
 import com.example.authbackend.dto.AuthDTOs;
 import com.example.authbackend.security.JwtUtil;
+import com.example.authbackend.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
@@ -11,9 +13,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 /**
  * REST controller for authentication endpoints.
  */
@@ -21,6 +26,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final JwtUtil jwtUtil;
 
     /**
@@ -51,8 +58,9 @@ public class AuthController {
         }
 
         final String username = loginRequest.getUsername();
-        final String accessToken = jwtUtil.generateAccessToken(username);
-        final String refreshToken = jwtUtil.generateRefreshToken(username);
+        final String family = jwtUtil.newFamily();
+        final String accessToken = jwtUtil.generateAccessToken(username, family);
+        final String refreshToken = jwtUtil.generateRefreshToken(username, family);
 
         final AuthDTOs.UserDTO user = new AuthDTOs.UserDTO(
             username,
@@ -63,6 +71,39 @@ public class AuthController {
         return ResponseEntity.ok(new AuthDTOs.AuthResponse(user, accessToken, refreshToken));
     }
 
+    /**
+     * Trades a refresh token for a new access and refresh token in the same session. Each refresh
+     * token works once; presenting one again ends the session, as it has been copied.
+     *
+     * @param request the refresh token
+     * @return the authentication response with the new tokens, 400 without a token, or 401 if
+     *         it is not a valid, unspent refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody(required = false) final AuthDTOs.RefreshRequest request) {
+        if (request == null || request.getRefreshToken() == null || request.getRefreshToken().isEmpty()) {
+            return ResponseEntity.status(400).body(Map.of("error", "refreshToken is required"));
+        }
+
+        final VerifiedToken spent;
+        try {
+            spent = jwtUtil.redeem(request.getRefreshToken());
+        } catch (final JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid refresh token"));
+        }
+
+        final String username = spent.getSubject();
+        final AuthDTOs.UserDTO user = new AuthDTOs.UserDTO(
+            username,
+            username,
+            username + "@example.com"
+        );
+
+        return ResponseEntity.ok(new AuthDTOs.AuthResponse(user,
+            jwtUtil.generateAccessToken(username, spent.getFamily()),
+            jwtUtil.generateRefreshToken(username, spent.getFamily())));
+    }
+
     /**
      * Endpoint to get current authenticated user.
      *
@@ -90,13 +131,34 @@ public class AuthController {
     }
 
     /**
-     * Logout endpoint.
+     * Logout endpoint. Revokes the session of the bearer token and of the refresh token, if
+     * given, so neither they nor any token refreshed from them is accepted again. Tokens that
+     * are invalid or already revoked are ignored.
      *
+     * @param authorization the {@code Authorization} header, if any
+     * @param request the refresh token, if any
      * @return response indicating logout success
      */
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
+    public ResponseEntity<Void> logout(
+        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) final String authorization,
+        @RequestBody(required = false) final AuthDTOs.RefreshRequest request) {
+
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            revokeSession(authorization.substring(BEARER_PREFIX.length()));
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            revokeSession(request.getRefreshToken());
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok().build();
     }
+
+    private void revokeSession(final String token) {
+        try {
+            jwtUtil.revokeFamily(jwtUtil.verify(token));
+        } catch (final JwtException | IllegalArgumentException e) {
+            // Nothing left to revoke
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.authbackend.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursors: the last key or name of a page, base64url-encoded.
+ */
+final class Cursors {
+
+    private Cursors() {
+    }
+
+    static String encode(final String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor from a request parameter.
+     *
+     * @throws IllegalArgumentException if the cursor is not valid base64url
+     */
+    static String decode(final String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
@@ -1,24 +1,25 @@
 package com.example.authbackend.controller;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import com.example.authbackend.files.FileIndex;
+import com.example.authbackend.files.FileMetadata;
+import com.example.authbackend.files.FileSender;
+import com.example.authbackend.files.StoredUpload;
+import com.example.authbackend.files.UploadStore;
+import com.example.authbackend.files.UploadTooLargeException;
+import com.example.authbackend.kv.KeyGlob;
+import com.example.authbackend.metrics.MetricsRegistry;
+import com.example.authbackend.metrics.RateMeter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Controller for file upload and serving.
@@ -27,94 +28,114 @@ import java.util.stream.Stream;
 @RequestMapping("/api/files")
 public class FileController {
 
-    private final Path uploadDir = Paths.get("uploads").toAbsolutePath();
+    private final UploadStore uploads;
+    private final FileIndex index;
+    private final FileSender sender;
+    private final LongAdder uploadBytes;
+    private final RateMeter uploadRate;
 
-    public FileController() throws IOException {
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir);
-        }
+    public FileController(final UploadStore uploads, final FileIndex index, final FileSender sender,
+                          final MetricsRegistry metrics) {
+        this.uploads = uploads;
+        this.index = index;
+        this.sender = sender;
+        this.uploadBytes = metrics.counter("upload_bytes_total", "Bytes of files uploaded");
+        this.uploadRate = metrics.rate("upload_bytes_per_second", "Bytes of files uploaded per second, over the last minute");
     }
 
+    /**
+     * Streams the {@code file} part of a multipart body to disk while hashing it. Identical
+     * content is stored once and every upload of it gets the same path back.
+     */
     @PostMapping("/upload")
-    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> upload(HttpServletRequest request) {
         try {
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Uploaded file is empty"));
-            }
-
-            final String original = StringUtils.cleanPath(file.getOriginalFilename());
-            final String ext = original.contains(".") ? original.substring(original.lastIndexOf('.')) : "";
-            final String filename = UUID.randomUUID().toString() + ext;
+            final StoredUpload stored = uploads.receive(request.getContentType(), request.getInputStream(), "file");
+            index.refresh(stored.getFileName());
+            uploadBytes.add(stored.getSize());
+            uploadRate.record(stored.getSize());
 
-            final Path target = this.uploadDir.resolve(filename);
-            Files.copy(file.getInputStream(), target);
-
-            final String publicPath = "/api/files/" + filename;
+            final String publicPath = "/api/files/" + stored.getFileName();
             return ResponseEntity.ok().body(Map.of(
-                "name", original,
+                "name", stored.getOriginalName(),
                 "path", publicPath,
-                "size", file.getSize()
+                "size", stored.getSize(),
+                "sha256", stored.getSha256(),
+                "deduplicated", stored.isDeduplicated()
             ));
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (final UploadTooLargeException e) {
+            return ResponseEntity.status(413).body(Map.of("error", e.getMessage()));
         } catch (final IOException e) {
             return ResponseEntity.status(500).body(java.util.Map.of("error", "Failed to upload file"));
         }
     }
 
+    /**
+     * Lists uploaded files from the in-memory {@link FileIndex}, in name order. {@code pattern}
+     * filters names with {@code *} globs; with {@code limit} the response carries an
+     * {@value KVController#NEXT_CURSOR_HEADER} header to pass back as {@code cursor}.
+     */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> listFiles() {
-        try (Stream<Path> files = Files.list(uploadDir)) {
-            final List<Map<String, Object>> items = files
-                .filter(Files::isRegularFile)
-                .sorted()
-                .map(file -> {
-                    try {
-                        return Map.<String, Object>of(
-                            "name", file.getFileName().toString(),
-                            "path", "/api/files/" + file.getFileName(),
-                            "isDirectory", false,
-                            "size", Files.size(file)
-                        );
-                    } catch (final IOException e) {
-                        return Map.<String, Object>of(
-                            "name", file.getFileName().toString(),
-                            "path", "/api/files/" + file.getFileName(),
-                            "isDirectory", false
-                        );
-                    }
-                })
-                .toList();
+    public ResponseEntity<List<Map<String, Object>>> listFiles(
+        @RequestParam(defaultValue = "*") String pattern,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
 
-            return ResponseEntity.ok(items);
-        } catch (final IOException e) {
-            return ResponseEntity.status(500).build();
+        try {
+            final List<FileMetadata> page = new ArrayList<>();
+            final String last = index.list(KeyGlob.compile(pattern), Cursors.decode(cursor),
+                limit == null ? Integer.MAX_VALUE : Math.max(1, limit), page);
+            final List<Map<String, Object>> items = new ArrayList<>(page.size());
+            for (final FileMetadata file : page) {
+                items.add(Map.of(
+                    "name", file.getName(),
+                    "path", "/api/files/" + file.getName(),
+                    "isDirectory", false,
+                    "size", file.getSize()
+                ));
+            }
+
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (last != null) response.header(KVController.NEXT_CURSOR_HEADER, Cursors.encode(last));
+            return response.body(items);
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Serves a file with strong ETags, {@code If-None-Match}/{@code If-Modified-Since} and
+     * single byte ranges; metadata comes from the {@link FileIndex} rather than the disk.
+     */
     @GetMapping("/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(@PathVariable String filename) {
+    public void serveFile(@PathVariable String filename, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        final FileMetadata metadata;
         try {
-            final Path file = resolveUploadPath(filename);
-            final Resource resource = new UrlResource(file.toUri());
-            if (!resource.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-            final String contentType = Files.probeContentType(file);
-            return ResponseEntity.ok()
-                .contentType(contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
-        } catch (final MalformedURLException e) {
-            return ResponseEntity.status(500).build();
+            metadata = index.get(filename);
         } catch (final IOException e) {
-            return ResponseEntity.status(500).build();
+            response.setStatus(500);
+            return;
         }
+        if (metadata == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sender.send(request, response, metadata.getPath(), metadata, metadata.getName());
     }
 
+    /**
+     * Deletes one upload of a file. Identical uploads share the file, which stays listed and
+     * served until all of them are deleted.
+     */
     @DeleteMapping("/{filename:.+}")
     public ResponseEntity<Void> deleteFile(@PathVariable String filename) {
         try {
-            final Path file = resolveUploadPath(filename);
-            if (!Files.deleteIfExists(file)) {
+            final boolean deleted = uploads.delete(filename);
+            index.refresh(filename);
+            if (!deleted) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -123,12 +144,4 @@ public class FileController {
             return ResponseEntity.status(500).build();
         }
     }
-
-    private Path resolveUploadPath(final String filename) throws IOException {
-        final Path file = uploadDir.resolve(StringUtils.cleanPath(filename)).normalize();
-        if (!file.startsWith(uploadDir)) {
-            throw new IOException("Invalid file path");
-        }
-        return file;
-    }
 }
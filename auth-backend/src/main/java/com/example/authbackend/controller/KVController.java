@@ -1,64 +1,259 @@
 package com.example.authbackend.controller;
 
+import com.example.authbackend.dto.KvBatchDTOs;
+import com.example.authbackend.kv.KeyGlob;
+import com.example.authbackend.kv.KvBatch;
+import com.example.authbackend.kv.KvStats;
+import com.example.authbackend.kv.KvStore;
+import com.example.authbackend.kv.KvValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Simple in-memory key-value store for demo purposes.
+ * Key-value endpoints backed by the configured {@link KvStore} engine.
  */
 @RestController
 @RequestMapping("/api/kv")
 public class KVController {
 
-    private final Map<String, String> store = new ConcurrentHashMap<>();
+    /** Response header carrying the cursor for the next page of a limited listing. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
+    /** Upper bound on operations per batch request. */
+    public static final int MAX_BATCH_OPS = 1000;
+
+    private final KvStore store;
+    private final ObjectMapper objectMapper;
+
+    public KVController(final KvStore store, final ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stores a value; {@code ttl} is an optional time-to-live in seconds.
+     */
     @PostMapping("/{key}")
-    public ResponseEntity<?> set(@PathVariable String key, @RequestBody String body) {
-        store.put(key, body);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> set(@PathVariable String key, @RequestBody String body,
+                                 @RequestParam(required = false) Long ttl) {
+        try {
+            store.put(key, body, ttl == null ? 0 : TimeUnit.SECONDS.toMillis(ttl));
+            return ResponseEntity.ok().build();
+        } catch (final IOException e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to store value"));
+        }
+    }
+
+    /**
+     * Runs several gets, sets and deletes in one round trip with a single fsync. With
+     * {@code "atomic": true} the writes are journaled as one record and either all survive
+     * a crash or none do.
+     */
+    @PostMapping("/_batch")
+    public ResponseEntity<?> batch(@RequestBody KvBatchDTOs.BatchRequest request) {
+        final List<KvBatchDTOs.Operation> ops = request.getOps();
+        if (ops == null || ops.isEmpty() || ops.size() > MAX_BATCH_OPS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Batch must hold 1 to " + MAX_BATCH_OPS + " ops"));
+        }
+        final KvBatch batch = new KvBatch();
+        for (final KvBatchDTOs.Operation op : ops) {
+            if (op == null || op.getKey() == null || op.getOp() == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Every op needs an op and a key"));
+            }
+            switch (op.getOp().toLowerCase()) {
+                case "get" -> batch.get(op.getKey());
+                case "delete" -> batch.delete(op.getKey());
+                case "set" -> {
+                    if (op.getValue() == null) {
+                        return ResponseEntity.badRequest().body(Map.of("error", "Missing value for set " + op.getKey()));
+                    }
+                    batch.set(op.getKey(), op.getValue(), op.getTtl() == null ? 0 : TimeUnit.SECONDS.toMillis(op.getTtl()));
+                }
+                default -> {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Unknown op " + op.getOp()));
+                }
+            }
+        }
+
+        try {
+            final List<KvBatch.Outcome> outcomes = store.execute(batch, request.isAtomic());
+            final List<KvBatchDTOs.OperationResult> results = new ArrayList<>(outcomes.size());
+            for (int i = 0; i < outcomes.size(); i++) {
+                final KvBatch.Op op = batch.ops().get(i);
+                results.add(new KvBatchDTOs.OperationResult(op.type().name().toLowerCase(), op.key(),
+                    outcomes.get(i).found(), outcomes.get(i).value()));
+            }
+            return ResponseEntity.ok(Map.of("results", results));
+        } catch (final IOException e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to apply batch"));
+        }
     }
 
+    @GetMapping("/_stats")
+    public ResponseEntity<KvStats> stats() {
+        return ResponseEntity.ok(store.stats());
+    }
+
+    /**
+     * Writes the stored UTF-8 bytes straight to the response. Values kept deflated off-heap are
+     * sent as-is with {@code Content-Encoding: deflate} when the client accepts it.
+     */
     @GetMapping("/{key}")
-    public ResponseEntity<String> get(@PathVariable String key) {
-        final String v = store.get(key);
-        if (v == null) return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(v);
+    public void get(@PathVariable String key,
+                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                    HttpServletResponse response) throws IOException {
+        try (KvValue value = store.open(key)) {
+            if (value == null) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            response.setContentType("text/plain;charset=UTF-8");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (value.deflated() && acceptsDeflate(acceptEncoding)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "deflate");
+                response.setContentLength(value.storedLength());
+                value.writeStoredTo(response.getOutputStream());
+            } else {
+                response.setContentLength(value.length());
+                value.writeTo(response.getOutputStream());
+            }
+        }
     }
 
     @DeleteMapping("/{key}")
     public ResponseEntity<?> delete(@PathVariable String key) {
-        store.remove(key);
-        return ResponseEntity.ok().build();
+        try {
+            store.remove(key);
+            return ResponseEntity.ok().build();
+        } catch (final IOException e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to delete value"));
+        }
     }
 
     @GetMapping
     public ResponseEntity<List<Map<String, String>>> list(
         @RequestParam(defaultValue = "*") String pattern,
-        @RequestParam(defaultValue = "true") boolean returnValues) {
+        @RequestParam(defaultValue = "true") boolean returnValues,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
 
-        final Pattern regex = Pattern.compile(
-            "^" + Pattern.quote(pattern).replace("\\*", ".*") + "$"
-        );
+        try {
+            final List<Map<String, String>> items = new ArrayList<>();
+            final String next = scan(KeyGlob.compile(pattern), Cursors.decode(cursor), limit, returnValues,
+                (key, value) -> items.add(value == null ? Map.of("key", key) : Map.of("key", key, "value", value)));
 
-        final List<Map<String, String>> items = store.entrySet().stream()
-            .filter(entry -> regex.matcher(entry.getKey()).matches())
-            .sorted(Map.Entry.comparingByKey())
-            .map(entry -> returnValues
-                ? Map.of("key", entry.getKey(), "value", entry.getValue())
-                : Map.of("key", entry.getKey()))
-            .toList();
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (next != null) response.header(NEXT_CURSOR_HEADER, next);
+            return response.body(items);
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (final IOException e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
 
-        return ResponseEntity.ok(items);
+    /**
+     * Streams matching entries as NDJSON, one {@code {"key","value"}} object per line, written
+     * while the key index is scanned so memory stays flat however many entries match. When
+     * {@code limit} cuts the scan short the last line is {@code {"nextCursor": "..."}}.
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> stream(
+        @RequestParam(defaultValue = "*") String pattern,
+        @RequestParam(defaultValue = "true") boolean returnValues,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
+
+        final KeyGlob glob = KeyGlob.compile(pattern);
+        final String after;
+        try {
+            after = Cursors.decode(cursor);
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final StreamingResponseBody body = out -> {
+            final JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            json.setRootValueSeparator(new SerializedString("\n"));
+            final String next = scan(glob, after, limit, returnValues, (key, value) -> {
+                json.writeStartObject();
+                json.writeStringField("key", key);
+                if (value != null) json.writeStringField("value", value);
+                json.writeEndObject();
+            });
+            if (next != null) {
+                json.writeStartObject();
+                json.writeStringField("nextCursor", next);
+                json.writeEndObject();
+            }
+            json.writeRaw('\n');
+            json.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @DeleteMapping
     public ResponseEntity<?> flush() {
-        store.clear();
-        return ResponseEntity.ok().build();
+        try {
+            store.clear();
+            return ResponseEntity.ok().build();
+        } catch (final IOException e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to flush store"));
+        }
+    }
+
+    /**
+     * Walks keys matching the glob after the cursor, handing each live entry to the sink.
+     *
+     * @return the cursor for the next page, or {@code null} if the scan reached the end
+     */
+    private String scan(final KeyGlob glob, final String after, final Integer limit,
+                        final boolean returnValues, final EntrySink sink) throws IOException {
+        final int max = limit == null ? Integer.MAX_VALUE : Math.max(1, limit);
+        final Iterator<String> keys = store.keys(glob.prefix(), after).filter(glob::matches).iterator();
+        int emitted = 0;
+        String last = null;
+        while (keys.hasNext()) {
+            if (emitted == max) {
+                return Cursors.encode(last);
+            }
+            final String key = keys.next();
+            // The index can still hold keys that were removed or expired since it was read
+            final String value = returnValues ? store.get(key) : null;
+            if (returnValues ? value == null : !store.containsKey(key)) continue;
+            sink.accept(key, value);
+            emitted++;
+            last = key;
+        }
+        return null;
+    }
+
+    private static boolean acceptsDeflate(final String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.trim().split(";");
+            if (!"deflate".equalsIgnoreCase(parts[0].trim())) continue;
+            return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface EntrySink {
+        void accept(String key, String value) throws IOException;
     }
 }
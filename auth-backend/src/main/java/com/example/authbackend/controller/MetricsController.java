@@ -0,0 +1,30 @@
+package com.example.authbackend.controller;
+
+import com.example.authbackend.metrics.MetricsRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Prometheus scrape endpoint.
+ */
+@RestController
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    private final MetricsRegistry metrics;
+
+    public MetricsController(final MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Writes every metric in the Prometheus text format.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(metrics.scrape());
+    }
+}
@@ -237,4 +237,46 @@ public class AuthDTOs {
             this.password = password;
         }
     }
+
+    /**
+     * DTO for refresh and logout requests.
+     */
+    public static class RefreshRequest implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String refreshToken;
+
+        /**
+         * Default constructor.
+         */
+        public RefreshRequest() {
+        }
+
+        /**
+         * Constructor with all fields.
+         *
+         * @param refreshToken the refresh token
+         */
+        public RefreshRequest(final String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+
+        /**
+         * Gets the refresh token.
+         *
+         * @return the refresh token
+         */
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        /**
+         * Sets the refresh token.
+         *
+         * @param refreshToken the refresh token
+         */
+        public void setRefreshToken(final String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
 }
@@ -0,0 +1,353 @@
+package com.example.authbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for reviewing many resumes against one job.
+ */
+public class BulkFeedbackDTOs {
+
+    /**
+     * DTO for a request to review many resumes against one job.
+     */
+    public static class BulkRequest implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String jobTitle;
+        private String jobDescription;
+        private String instructions;
+        private List<String> paths = new ArrayList<>();
+        private String glob;
+
+        /**
+         * Default constructor.
+         */
+        public BulkRequest() {
+        }
+
+        /**
+         * Gets the job title.
+         *
+         * @return the title, or {@code null}
+         */
+        public String getJobTitle() {
+            return jobTitle;
+        }
+
+        /**
+         * Sets the job title.
+         *
+         * @param jobTitle the title
+         */
+        public void setJobTitle(final String jobTitle) {
+            this.jobTitle = jobTitle;
+        }
+
+        /**
+         * Gets the job description.
+         *
+         * @return the description, or {@code null}
+         */
+        public String getJobDescription() {
+            return jobDescription;
+        }
+
+        /**
+         * Sets the job description.
+         *
+         * @param jobDescription the description
+         */
+        public void setJobDescription(final String jobDescription) {
+            this.jobDescription = jobDescription;
+        }
+
+        /**
+         * Gets the job as the front end's review instructions, used instead of the title and
+         * description when set.
+         *
+         * @return the instructions, or {@code null}
+         */
+        public String getInstructions() {
+            return instructions;
+        }
+
+        /**
+         * Sets the job as review instructions.
+         *
+         * @param instructions the instructions
+         */
+        public void setInstructions(final String instructions) {
+            this.instructions = instructions;
+        }
+
+        /**
+         * Gets the resumes to review, as {@code /api/files/...} paths.
+         *
+         * @return the paths
+         */
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        /**
+         * Sets the resumes to review.
+         *
+         * @param paths the paths
+         */
+        public void setPaths(final List<String> paths) {
+            this.paths = paths;
+        }
+
+        /**
+         * Gets a file name pattern selecting further resumes, with {@code *} wildcards.
+         *
+         * @return the pattern, or {@code null}
+         */
+        public String getGlob() {
+            return glob;
+        }
+
+        /**
+         * Sets a file name pattern.
+         *
+         * @param glob the pattern
+         */
+        public void setGlob(final String glob) {
+            this.glob = glob;
+        }
+    }
+
+    /**
+     * DTO for one reviewed resume, sent as soon as it is done.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BulkResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String path;
+        private Integer overallScore;
+        private Integer rank;
+        private Integer completed;
+        private String error;
+
+        /**
+         * Default constructor.
+         */
+        public BulkResult() {
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param path the resume's path
+         * @param overallScore the resume's overall score, or {@code null}
+         * @param error why it could not be reviewed, or {@code null}
+         */
+        public BulkResult(final String path, final Integer overallScore, final String error) {
+            this.path = path;
+            this.overallScore = overallScore;
+            this.error = error;
+        }
+
+        /**
+         * Gets the resume's path.
+         *
+         * @return the {@code /api/files/...} path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Sets the resume's path.
+         *
+         * @param path the path
+         */
+        public void setPath(final String path) {
+            this.path = path;
+        }
+
+        /**
+         * Gets the resume's overall score.
+         *
+         * @return 0 to 100, or {@code null} if it could not be reviewed
+         */
+        public Integer getOverallScore() {
+            return overallScore;
+        }
+
+        /**
+         * Sets the resume's overall score.
+         *
+         * @param overallScore the score
+         */
+        public void setOverallScore(final Integer overallScore) {
+            this.overallScore = overallScore;
+        }
+
+        /**
+         * Gets the resume's rank by score: among those done so far while streaming, and final
+         * in the summary.
+         *
+         * @return 1 for the best, or {@code null} if it could not be reviewed
+         */
+        public Integer getRank() {
+            return rank;
+        }
+
+        /**
+         * Sets the resume's rank.
+         *
+         * @param rank the rank
+         */
+        public void setRank(final Integer rank) {
+            this.rank = rank;
+        }
+
+        /**
+         * Gets how many resumes were done, this one included, when it was sent.
+         *
+         * @return the count, or {@code null} in the summary
+         */
+        public Integer getCompleted() {
+            return completed;
+        }
+
+        /**
+         * Sets how many resumes were done.
+         *
+         * @param completed the count
+         */
+        public void setCompleted(final Integer completed) {
+            this.completed = completed;
+        }
+
+        /**
+         * Gets why the resume could not be reviewed.
+         *
+         * @return the error, or {@code null}
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Sets why the resume could not be reviewed.
+         *
+         * @param error the error
+         */
+        public void setError(final String error) {
+            this.error = error;
+        }
+    }
+
+    /**
+     * DTO sent last, with every reviewed resume in rank order.
+     */
+    public static class BulkSummary implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int total;
+        private int failed;
+        private long elapsedMillis;
+        private List<BulkResult> ranking = new ArrayList<>();
+
+        /**
+         * Default constructor.
+         */
+        public BulkSummary() {
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param total the number of resumes requested
+         * @param failed the number that could not be reviewed
+         * @param elapsedMillis how long the batch took
+         * @param ranking the reviewed resumes, best first
+         */
+        public BulkSummary(final int total, final int failed, final long elapsedMillis,
+                           final List<BulkResult> ranking) {
+            this.total = total;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+            this.ranking = ranking;
+        }
+
+        /**
+         * Gets the number of resumes requested.
+         *
+         * @return the count
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * Sets the number of resumes requested.
+         *
+         * @param total the count
+         */
+        public void setTotal(final int total) {
+            this.total = total;
+        }
+
+        /**
+         * Gets the number of resumes that could not be reviewed.
+         *
+         * @return the count
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * Sets the number of resumes that could not be reviewed.
+         *
+         * @param failed the count
+         */
+        public void setFailed(final int failed) {
+            this.failed = failed;
+        }
+
+        /**
+         * Gets how long the whole batch took.
+         *
+         * @return milliseconds
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Sets how long the whole batch took.
+         *
+         * @param elapsedMillis milliseconds
+         */
+        public void setElapsedMillis(final long elapsedMillis) {
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * Gets the reviewed resumes, best first.
+         *
+         * @return the ranking
+         */
+        public List<BulkResult> getRanking() {
+            return ranking;
+        }
+
+        /**
+         * Sets the reviewed resumes.
+         *
+         * @param ranking the ranking
+         */
+        public void setRanking(final List<BulkResult> ranking) {
+            this.ranking = ranking;
+        }
+    }
+}
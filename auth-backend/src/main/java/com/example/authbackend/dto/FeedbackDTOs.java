@@ -0,0 +1,438 @@
+package com.example.authbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for resume feedback, in the schema the front end's {@code Feedback} type expects.
+ */
+public class FeedbackDTOs {
+
+    /**
+     * DTO for the full review of one resume.
+     */
+    @JsonPropertyOrder({"overallScore", "ATS", "toneAndStyle", "content", "structure", "skills"})
+    public static class Feedback implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int overallScore;
+        private Category ats;
+        private Category toneAndStyle;
+        private Category content;
+        private Category structure;
+        private Category skills;
+
+        /**
+         * Default constructor.
+         */
+        public Feedback() {
+        }
+
+        /**
+         * Gets the overall score.
+         *
+         * @return 0 to 100
+         */
+        public int getOverallScore() {
+            return overallScore;
+        }
+
+        /**
+         * Sets the overall score.
+         *
+         * @param overallScore 0 to 100
+         */
+        public void setOverallScore(final int overallScore) {
+            this.overallScore = overallScore;
+        }
+
+        /**
+         * Gets the applicant-tracking-system compatibility review.
+         *
+         * @return the category
+         */
+        @JsonProperty("ATS")
+        public Category getAts() {
+            return ats;
+        }
+
+        /**
+         * Sets the applicant-tracking-system compatibility review.
+         *
+         * @param ats the category
+         */
+        @JsonProperty("ATS")
+        public void setAts(final Category ats) {
+            this.ats = ats;
+        }
+
+        /**
+         * Gets the tone and style review.
+         *
+         * @return the category
+         */
+        public Category getToneAndStyle() {
+            return toneAndStyle;
+        }
+
+        /**
+         * Sets the tone and style review.
+         *
+         * @param toneAndStyle the category
+         */
+        public void setToneAndStyle(final Category toneAndStyle) {
+            this.toneAndStyle = toneAndStyle;
+        }
+
+        /**
+         * Gets the content review.
+         *
+         * @return the category
+         */
+        public Category getContent() {
+            return content;
+        }
+
+        /**
+         * Sets the content review.
+         *
+         * @param content the category
+         */
+        public void setContent(final Category content) {
+            this.content = content;
+        }
+
+        /**
+         * Gets the structure review.
+         *
+         * @return the category
+         */
+        public Category getStructure() {
+            return structure;
+        }
+
+        /**
+         * Sets the structure review.
+         *
+         * @param structure the category
+         */
+        public void setStructure(final Category structure) {
+            this.structure = structure;
+        }
+
+        /**
+         * Gets the skills review.
+         *
+         * @return the category
+         */
+        public Category getSkills() {
+            return skills;
+        }
+
+        /**
+         * Sets the skills review.
+         *
+         * @param skills the category
+         */
+        public void setSkills(final Category skills) {
+            this.skills = skills;
+        }
+    }
+
+    /**
+     * DTO for one scored aspect of a resume.
+     */
+    public static class Category implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int score;
+        private List<Tip> tips = new ArrayList<>();
+
+        /**
+         * Default constructor.
+         */
+        public Category() {
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param score 0 to 100
+         * @param tips the tips
+         */
+        public Category(final int score, final List<Tip> tips) {
+            this.score = score;
+            this.tips = tips;
+        }
+
+        /**
+         * Gets the score.
+         *
+         * @return 0 to 100
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * Sets the score.
+         *
+         * @param score 0 to 100
+         */
+        public void setScore(final int score) {
+            this.score = score;
+        }
+
+        /**
+         * Gets the tips, strengths first.
+         *
+         * @return the tips
+         */
+        public List<Tip> getTips() {
+            return tips;
+        }
+
+        /**
+         * Sets the tips.
+         *
+         * @param tips the tips
+         */
+        public void setTips(final List<Tip> tips) {
+            this.tips = tips;
+        }
+    }
+
+    /**
+     * DTO for one strength or suggestion.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Tip implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String type;
+        private String tip;
+        private String explanation;
+
+        /**
+         * Default constructor.
+         */
+        public Tip() {
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param type {@code good} or {@code improve}
+         * @param tip the headline
+         * @param explanation the detail, or {@code null} where the schema has none
+         */
+        public Tip(final String type, final String tip, final String explanation) {
+            this.type = type;
+            this.tip = tip;
+            this.explanation = explanation;
+        }
+
+        /**
+         * Gets the type.
+         *
+         * @return {@code good} or {@code improve}
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Sets the type.
+         *
+         * @param type {@code good} or {@code improve}
+         */
+        public void setType(final String type) {
+            this.type = type;
+        }
+
+        /**
+         * Gets the headline.
+         *
+         * @return the tip
+         */
+        public String getTip() {
+            return tip;
+        }
+
+        /**
+         * Sets the headline.
+         *
+         * @param tip the tip
+         */
+        public void setTip(final String tip) {
+            this.tip = tip;
+        }
+
+        /**
+         * Gets the detail.
+         *
+         * @return the explanation, or {@code null}
+         */
+        public String getExplanation() {
+            return explanation;
+        }
+
+        /**
+         * Sets the detail.
+         *
+         * @param explanation the explanation
+         */
+        public void setExplanation(final String explanation) {
+            this.explanation = explanation;
+        }
+    }
+
+    /**
+     * DTO for the state of a queued review, as returned by polling and sent with each SSE event.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class JobStatus implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String id;
+        private String status;
+        private Message message;
+        private String error;
+
+        /**
+         * Default constructor.
+         */
+        public JobStatus() {
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param id the job's id
+         * @param status the stage, such as {@code queued} or {@code done}
+         */
+        public JobStatus(final String id, final String status) {
+            this.id = id;
+            this.status = status;
+        }
+
+        /**
+         * Gets the job's id.
+         *
+         * @return the id
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Sets the job's id.
+         *
+         * @param id the id
+         */
+        public void setId(final String id) {
+            this.id = id;
+        }
+
+        /**
+         * Gets the stage.
+         *
+         * @return {@code queued}, {@code extracted}, {@code scored}, {@code done} or {@code failed}
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * Sets the stage.
+         *
+         * @param status the stage
+         */
+        public void setStatus(final String status) {
+            this.status = status;
+        }
+
+        /**
+         * Gets the review, in the same shape {@code POST /api/ai/feedback} returns it.
+         *
+         * @return the review, or {@code null} until the job is done
+         */
+        public Message getMessage() {
+            return message;
+        }
+
+        /**
+         * Sets the review.
+         *
+         * @param message the review
+         */
+        public void setMessage(final Message message) {
+            this.message = message;
+        }
+
+        /**
+         * Gets why the job failed.
+         *
+         * @return the error, or {@code null} unless it failed
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Sets why the job failed.
+         *
+         * @param error the error
+         */
+        public void setError(final String error) {
+            this.error = error;
+        }
+    }
+
+    /**
+     * DTO wrapping a review the way a chat completion wraps its reply.
+     */
+    public static class Message implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Object content;
+
+        /**
+         * Default constructor.
+         */
+        public Message() {
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param content the review, as a JSON string or as the review object
+         */
+        public Message(final Object content) {
+            this.content = content;
+        }
+
+        /**
+         * Gets the review.
+         *
+         * @return the review, as a JSON string or as the review object
+         */
+        public Object getContent() {
+            return content;
+        }
+
+        /**
+         * Sets the review.
+         *
+         * @param content the review, as a JSON string or as the review object
+         */
+        public void setContent(final Object content) {
+            this.content = content;
+        }
+    }
+}
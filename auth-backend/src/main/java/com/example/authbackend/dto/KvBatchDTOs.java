@@ -0,0 +1,258 @@
+package com.example.authbackend.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for KV batch requests and responses.
+ */
+public class KvBatchDTOs {
+
+    /**
+     * DTO for a batch of KV operations.
+     */
+    public static class BatchRequest implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private boolean atomic;
+        private List<Operation> ops = new ArrayList<>();
+
+        /**
+         * Default constructor.
+         */
+        public BatchRequest() {
+        }
+
+        /**
+         * Gets whether the writes must be applied all-or-nothing.
+         *
+         * @return the atomic flag
+         */
+        public boolean isAtomic() {
+            return atomic;
+        }
+
+        /**
+         * Sets whether the writes must be applied all-or-nothing.
+         *
+         * @param atomic the atomic flag
+         */
+        public void setAtomic(final boolean atomic) {
+            this.atomic = atomic;
+        }
+
+        /**
+         * Gets the operations, in execution order.
+         *
+         * @return the operations
+         */
+        public List<Operation> getOps() {
+            return ops;
+        }
+
+        /**
+         * Sets the operations, in execution order.
+         *
+         * @param ops the operations
+         */
+        public void setOps(final List<Operation> ops) {
+            this.ops = ops;
+        }
+    }
+
+    /**
+     * DTO for one operation in a batch.
+     */
+    public static class Operation implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String op;
+        private String key;
+        private String value;
+        private Long ttl;
+
+        /**
+         * Default constructor.
+         */
+        public Operation() {
+        }
+
+        /**
+         * Gets the operation name: get, set or delete.
+         *
+         * @return the operation name
+         */
+        public String getOp() {
+            return op;
+        }
+
+        /**
+         * Sets the operation name: get, set or delete.
+         *
+         * @param op the operation name
+         */
+        public void setOp(final String op) {
+            this.op = op;
+        }
+
+        /**
+         * Gets the key.
+         *
+         * @return the key
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Sets the key.
+         *
+         * @param key the key
+         */
+        public void setKey(final String key) {
+            this.key = key;
+        }
+
+        /**
+         * Gets the value to set.
+         *
+         * @return the value
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Sets the value to set.
+         *
+         * @param value the value
+         */
+        public void setValue(final String value) {
+            this.value = value;
+        }
+
+        /**
+         * Gets the optional time-to-live in seconds for a set.
+         *
+         * @return the time-to-live
+         */
+        public Long getTtl() {
+            return ttl;
+        }
+
+        /**
+         * Sets the optional time-to-live in seconds for a set.
+         *
+         * @param ttl the time-to-live
+         */
+        public void setTtl(final Long ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * DTO for the result of one operation, in the same position as the request operation.
+     */
+    public static class OperationResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String op;
+        private String key;
+        private boolean found;
+        private String value;
+
+        /**
+         * Default constructor.
+         */
+        public OperationResult() {
+        }
+
+        /**
+         * Constructor with all fields.
+         *
+         * @param op the operation name
+         * @param key the key
+         * @param found whether a get found the key or a delete removed it; always true for sets
+         * @param value the value read by a get
+         */
+        public OperationResult(final String op, final String key, final boolean found, final String value) {
+            this.op = op;
+            this.key = key;
+            this.found = found;
+            this.value = value;
+        }
+
+        /**
+         * Gets the operation name.
+         *
+         * @return the operation name
+         */
+        public String getOp() {
+            return op;
+        }
+
+        /**
+         * Sets the operation name.
+         *
+         * @param op the operation name
+         */
+        public void setOp(final String op) {
+            this.op = op;
+        }
+
+        /**
+         * Gets the key.
+         *
+         * @return the key
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Sets the key.
+         *
+         * @param key the key
+         */
+        public void setKey(final String key) {
+            this.key = key;
+        }
+
+        /**
+         * Gets whether a get found the key or a delete removed it.
+         *
+         * @return the found flag
+         */
+        public boolean isFound() {
+            return found;
+        }
+
+        /**
+         * Sets whether a get found the key or a delete removed it.
+         *
+         * @param found the found flag
+         */
+        public void setFound(final boolean found) {
+            this.found = found;
+        }
+
+        /**
+         * Gets the value read by a get.
+         *
+         * @return the value
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Sets the value read by a get.
+         *
+         * @param value the value
+         */
+        public void setValue(final String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.authbackend.files;
+
+import com.example.authbackend.kv.KeyGlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * In-memory metadata index of the upload directory, sorted by name.
+ *
+ * <p>The directory is scanned once at startup. After that the controller's upload and delete
+ * paths update the index directly, and a {@link WatchService} thread picks up files added,
+ * changed or removed behind the application's back; the root and every shard directory are
+ * watched, new shards as they appear. If the watcher overflows it rebuilds the index with a
+ * fresh scan, which is the only time the whole tree is read again.</p>
+ */
+@Component
+public class FileIndex implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileIndex.class);
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final UploadStore uploads;
+    private final ConcurrentSkipListMap<String, FileMetadata> files = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, String> contentTypes = new ConcurrentHashMap<>();
+    private final WatchService watcher;
+    private final Thread watchThread;
+
+    /**
+     * Builds the index and starts watching the upload directory.
+     *
+     * @param uploads the upload store whose directory is indexed
+     * @throws IOException if the directory cannot be scanned
+     */
+    public FileIndex(final UploadStore uploads) throws IOException {
+        this.uploads = uploads;
+        this.watcher = uploads.root().getFileSystem().newWatchService();
+        uploads.root().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        rebuild();
+        this.watchThread = new Thread(this::watch, "file-index-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Looks up a file. A miss falls back to the disk in case the watcher has not caught up.
+     *
+     * @param name the public file name
+     * @return the metadata, or {@code null} if there is no such regular file
+     * @throws IOException if the name is invalid or the attributes cannot be read
+     */
+    public FileMetadata get(final String name) throws IOException {
+        final FileMetadata cached = files.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        return refresh(name);
+    }
+
+    /**
+     * Re-reads one file's attributes, adding, updating or dropping its entry.
+     *
+     * @param name the public file name
+     * @return the new metadata, or {@code null} if the file is gone
+     * @throws IOException if the name is invalid or the attributes cannot be read
+     */
+    public FileMetadata refresh(final String name) throws IOException {
+        return index(name, uploads.resolve(name));
+    }
+
+    private FileMetadata index(final String name, final Path file) throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final NoSuchFileException e) {
+            files.remove(name);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            files.remove(name);
+            return null;
+        }
+        final FileMetadata metadata = new FileMetadata(name, file, attributes.size(),
+            attributes.lastModifiedTime().toMillis(), contentTypeOf(name, file));
+        files.put(name, metadata);
+        return metadata;
+    }
+
+    /**
+     * Gets the number of indexed files.
+     *
+     * @return the file count
+     */
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Lists files in name order.
+     *
+     * @param glob name filter
+     * @param after exclusive lower bound from a previous page, or {@code null}
+     * @param limit maximum number of entries
+     * @param page receives the matching entries
+     * @return the name to resume after, or {@code null} if the listing is complete
+     */
+    public String list(final KeyGlob glob, final String after, final int limit, final List<FileMetadata> page) {
+        final String prefix = glob.prefix();
+        final NavigableMap<String, FileMetadata> range = after != null && after.compareTo(prefix) >= 0
+            ? files.tailMap(after, false)
+            : files.tailMap(prefix, true);
+        String last = null;
+        for (final Map.Entry<String, FileMetadata> entry : range.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (!glob.matches(entry.getKey())) {
+                continue;
+            }
+            if (page.size() == limit) {
+                return last;
+            }
+            page.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+        try {
+            watchThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Replaces the index with a full scan of the upload directory and its shards, registering
+     * any shard directories the watcher does not know yet.
+     */
+    private void rebuild() throws IOException {
+        final long started = System.nanoTime();
+        final Set<String> seen = new HashSet<>();
+        scan(uploads.root(), 0, seen);
+        files.keySet().retainAll(seen);
+        LOG.info("Indexed {} uploaded files in {} ms", files.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void scan(final Path dir, final int depth, final Set<String> seen) throws IOException {
+        if (depth > 0) {
+            register(dir);
+        }
+        try (Stream<Path> entries = Files.list(dir)) {
+            for (final Path entry : (Iterable<Path>) entries::iterator) {
+                final String name = entry.getFileName().toString();
+                if (isInternal(name)) {
+                    continue;
+                }
+                if (depth < 2 && UploadStore.isShardName(name) && Files.isDirectory(entry)) {
+                    scan(entry, depth + 1, seen);
+                } else if (index(name, entry) != null) {
+                    seen.add(name);
+                }
+            }
+        }
+    }
+
+    private void register(final Path dir) {
+        try {
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (final IOException e) {
+            // Typically the inotify watch limit; the controller still keeps the index current
+            LOG.warn("Cannot watch {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void watch() {
+        while (true) {
+            final WatchKey key;
+            try {
+                key = watcher.take();
+            } catch (final InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            final Path dir = (Path) key.watchable();
+            final int depth = dir.equals(uploads.root()) ? 0 : uploads.root().relativize(dir).getNameCount();
+            try {
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rebuild();
+                        continue;
+                    }
+                    final Path child = dir.resolve((Path) event.context());
+                    final String name = child.getFileName().toString();
+                    if (isInternal(name)) {
+                        continue;
+                    }
+                    if (depth < 2 && UploadStore.isShardName(name)) {
+                        if (Files.isDirectory(child)) {
+                            // Files may have landed before the watch was in place
+                            scan(child, depth + 1, new HashSet<>());
+                        }
+                    } else {
+                        refresh(name);
+                    }
+                }
+            } catch (final IOException | RuntimeException e) {
+                LOG.warn("Failed to apply upload directory change", e);
+            }
+            if (!key.reset() && depth == 0) {
+                LOG.warn("Upload directory is no longer watched");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Dot-names such as the {@code .incoming} staging directory are never served.
+     */
+    private static boolean isInternal(final String name) {
+        return name.startsWith(".");
+    }
+
+    /**
+     * Probes content types once per extension rather than once per file.
+     */
+    private String contentTypeOf(final String name, final Path file) {
+        final int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        final String ext = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return contentTypes.computeIfAbsent(ext, e -> {
+            try {
+                final String probed = Files.probeContentType(file);
+                if (probed != null) {
+                    return probed;
+                }
+                return MediaTypeFactory.getMediaType(name).map(Object::toString).orElse(DEFAULT_CONTENT_TYPE);
+            } catch (final IOException ex) {
+                return DEFAULT_CONTENT_TYPE;
+            }
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.authbackend.files;
+
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cached attributes of an uploaded file, enough to answer conditional and range requests
+ * without touching the disk.
+ */
+public final class FileMetadata {
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]+)?");
+
+    private final String name;
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final String contentType;
+    private final String etag;
+    private final String sha256;
+
+    FileMetadata(final String name, final Path path, final long size, final long lastModified,
+                 final String contentType) {
+        this.name = name;
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.contentType = contentType;
+        final Matcher m = CONTENT_ADDRESSED.matcher(name);
+        this.sha256 = m.matches() ? m.group(1) : null;
+        // Content-addressed names carry their SHA-256; older files fall back to size and mtime
+        this.etag = sha256 != null
+            ? "\"" + sha256 + "\""
+            : "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * Gets the file name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets where the file currently lives on disk.
+     *
+     * @return the path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the size in bytes.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the modification time.
+     *
+     * @return epoch milliseconds
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Gets the content type.
+     *
+     * @return the MIME type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Gets the strong entity tag, quoted.
+     *
+     * @return the ETag
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Whether the name is the content hash, so the bytes behind it can never change.
+     *
+     * @return the flag
+     */
+    public boolean isImmutable() {
+        return sha256 != null;
+    }
+
+    /**
+     * Gets the SHA-256 of the content, if the name is content-addressed.
+     *
+     * @return the lowercase hex digest, or {@code null} for older files
+     */
+    public String getSha256() {
+        return sha256;
+    }
+}
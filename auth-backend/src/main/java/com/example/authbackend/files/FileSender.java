@@ -0,0 +1,155 @@
+package com.example.authbackend.files;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes an uploaded file to the response with conditional-request and single-range support.
+ *
+ * <p>Bodies of at least {@value #SENDFILE_MIN_BYTES} bytes are handed to the container's
+ * sendfile support when it is available (Tomcat's NIO connector), so the kernel copies the
+ * file to the socket without passing it through user space. Otherwise the file goes through
+ * {@link FileChannel#transferTo}. Multiple ranges are answered with the full file, which
+ * RFC 9110 permits.</p>
+ */
+@Component
+public class FileSender {
+
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String IMMUTABLE_CACHE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE = "no-cache";
+
+    /**
+     * Sends a file, or a 304/206/416 response as the request headers call for.
+     *
+     * @param request the request
+     * @param response the response
+     * @param file the file on disk
+     * @param metadata its cached metadata
+     * @param downloadName name for {@code Content-Disposition}
+     * @throws IOException if the file cannot be read or the client goes away
+     */
+    public void send(final HttpServletRequest request, final HttpServletResponse response, final Path file,
+                     final FileMetadata metadata, final String downloadName) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, metadata.getEtag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, metadata.getLastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, metadata.isImmutable() ? IMMUTABLE_CACHE : REVALIDATE_CACHE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, metadata)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        final long size = metadata.getSize();
+        long start = 0;
+        long end = size; // exclusive
+        final String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, metadata)) {
+            final Matcher m = RANGE.matcher(range.trim());
+            if (m.matches() && isValidRange(m.group(1), m.group(2))) {
+                if (m.group(1).isEmpty()) {
+                    start = Math.max(0, size - parse(m.group(2)));
+                } else {
+                    start = parse(m.group(1));
+                    end = m.group(2).isEmpty() ? size : Math.min(size - 1, parse(m.group(2))) + 1;
+                }
+                if (start >= end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+
+        response.setContentType(metadata.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadName + "\"");
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod()) || end == start) {
+            return;
+        }
+
+        if (end - start >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    private static boolean notModified(final HttpServletRequest request, final FileMetadata metadata) {
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // Weak comparison, as RFC 9110 requires for If-None-Match
+            for (final String tag : ifNoneMatch.split(",")) {
+                final String t = tag.trim();
+                if (t.equals("*") || t.equals(metadata.getEtag()) || t.equals("W/" + metadata.getEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        final long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && metadata.getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean ifRangeMatches(final HttpServletRequest request, final FileMetadata metadata) {
+        final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"")) {
+            return ifRange.trim().equals(metadata.getEtag());
+        }
+        final long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && metadata.getLastModified() / 1000 == date / 1000;
+    }
+
+    private static long dateHeader(final HttpServletRequest request, final String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (final IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isValidRange(final String first, final String last) {
+        if (first.isEmpty() || last.isEmpty()) {
+            return !(first.isEmpty() && last.isEmpty());
+        }
+        return parse(first) <= parse(last);
+    }
+
+    private static long parse(final String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (final NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.authbackend.files;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single-pass {@code multipart/form-data} reader (RFC 7578) over a request body.
+ *
+ * <p>Part bodies are exposed as streams that end at the next boundary, so a file part can be
+ * copied to its destination without being buffered in memory or spooled to a temp file first.
+ * Only one part is open at a time; {@link #nextPart()} skips whatever the caller left unread.</p>
+ */
+final class MultipartStream {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_HEADER_BYTES = 8192;
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=(?:\"([^\"]+)\"|([^;\\s]+))");
+    private static final Pattern NAME = Pattern.compile("(?<![\\w*])name=\"([^\"]*)\"");
+    private static final Pattern FILENAME = Pattern.compile("filename=\"([^\"]*)\"");
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int head;
+    private int tail;
+    private boolean eof;
+    private boolean finished;
+    private PartInputStream current;
+
+    /**
+     * One part of the body.
+     */
+    static final class Part {
+        private final Map<String, String> headers;
+        private final InputStream body;
+
+        private Part(final Map<String, String> headers, final InputStream body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * Gets the form field name from {@code Content-Disposition}.
+         *
+         * @return the name, or {@code null}
+         */
+        String name() {
+            return match(NAME, headers.get("content-disposition"));
+        }
+
+        /**
+         * Gets the client's file name from {@code Content-Disposition}.
+         *
+         * @return the file name, or {@code null} for a plain field
+         */
+        String filename() {
+            return match(FILENAME, headers.get("content-disposition"));
+        }
+
+        /**
+         * Gets the part body; it ends at the next boundary.
+         *
+         * @return the body stream
+         */
+        InputStream body() {
+            return body;
+        }
+    }
+
+    private MultipartStream(final InputStream in, final String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // The first boundary is not preceded by a line break; fake one so every boundary looks alike
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+    }
+
+    /**
+     * Opens a reader if the content type is multipart with a boundary.
+     *
+     * @param contentType the request content type
+     * @param in the request body
+     * @return the reader, or {@code null} if the request is not multipart
+     */
+    static MultipartStream open(final String contentType, final InputStream in) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return null;
+        }
+        final Matcher m = BOUNDARY.matcher(contentType);
+        if (!m.find()) {
+            return null;
+        }
+        return new MultipartStream(in, m.group(1) != null ? m.group(1) : m.group(2));
+    }
+
+    /**
+     * Advances to the next part, discarding the rest of the current one.
+     *
+     * @return the part, or {@code null} after the closing boundary
+     * @throws IOException if the body is malformed or cannot be read
+     */
+    Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (current == null) {
+            // Skip the preamble up to and including the first delimiter
+            current = new PartInputStream();
+        }
+        current.skipToEnd();
+        if (!fill(2)) {
+            throw new EOFException("Multipart body ended without a closing boundary");
+        }
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        final Map<String, String> headers = new HashMap<>();
+        readLine(); // rest of the boundary line
+        for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+            final int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        current = new PartInputStream();
+        return new Part(headers, current);
+    }
+
+    private String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!fill(length + 2)) {
+                throw new EOFException("Multipart headers truncated");
+            }
+            if (buffer[head + length] == '\r' && buffer[head + length + 1] == '\n') {
+                final String line = new String(buffer, head, length, StandardCharsets.UTF_8);
+                head += length + 2;
+                return line;
+            }
+            if (++length > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart header line too long");
+            }
+        }
+    }
+
+    /**
+     * Makes at least {@code n} unread bytes available, compacting the buffer as needed.
+     *
+     * @return false if the body ended first
+     */
+    private boolean fill(final int n) throws IOException {
+        if (tail - head >= n) {
+            return true;
+        }
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        while (tail < n && !eof) {
+            final int read = in.read(buffer, tail, buffer.length - tail);
+            if (read < 0) {
+                eof = true;
+            } else {
+                tail += read;
+            }
+        }
+        return tail >= n;
+    }
+
+    private int indexOfDelimiter(final int maxStart) {
+        final int last = Math.min(tail - delimiter.length, maxStart);
+        outer:
+        for (int i = head; i <= last; i++) {
+            if (buffer[i] != '\r') {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static String match(final Pattern pattern, final String header) {
+        if (header == null) {
+            return null;
+        }
+        final Matcher m = pattern.matcher(header);
+        return m.find() ? m.group(1) : null;
+    }
+
+    /**
+     * Body of the current part, ending just before the next delimiter.
+     */
+    private final class PartInputStream extends InputStream {
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            final byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                fill(delimiter.length);
+                final int at = indexOfDelimiter(head + len);
+                if (at == head) {
+                    head += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+                // Without a match, hold back a delimiter's worth of bytes that could start one
+                final int available = at >= 0 ? at - head : tail - head - (delimiter.length - 1);
+                if (available > 0) {
+                    final int n = Math.min(len, available);
+                    System.arraycopy(buffer, head, b, off, n);
+                    head += n;
+                    return n;
+                }
+                if (!fill(tail - head + 1)) {
+                    throw new EOFException("Multipart part ended without a boundary");
+                }
+            }
+        }
+
+        void skipToEnd() throws IOException {
+            final byte[] scratch = new byte[BUFFER_SIZE];
+            while (read(scratch, 0, scratch.length) >= 0) {
+                // discard
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.authbackend.files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Background job that moves files from the old flat {@code uploads/} layout into their shard
+ * directories.
+ *
+ * <p>Each file is hard-linked into its shard, the index is repointed, and the flat name is
+ * unlinked one batch later so requests that looked up the old path just before the switch can
+ * still open it. The filesystem itself is the progress record: an interrupted run leaves some
+ * files flat, possibly with a link already in place, and the next start simply picks up the
+ * remaining flat files. Files deleted while the run reaches them are skipped. Throughput is
+ * capped at {@code files.migration.files-per-second}.</p>
+ */
+@Component
+public class ShardMigrator implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ShardMigrator.class);
+    private static final int BATCH = 50;
+
+    private final UploadStore uploads;
+    private final FileIndex index;
+    private final long filesPerSecond;
+    private final Thread thread;
+
+    /**
+     * Starts migrating in the background.
+     *
+     * @param uploads the upload store
+     * @param index the file index to repoint
+     * @param enabled whether to migrate at all
+     * @param filesPerSecond throttle
+     */
+    public ShardMigrator(final UploadStore uploads, final FileIndex index,
+                         @Value("${files.migration.enabled:true}") final boolean enabled,
+                         @Value("${files.migration.files-per-second:200}") final long filesPerSecond) {
+        this.uploads = uploads;
+        this.index = index;
+        this.filesPerSecond = Math.max(1, filesPerSecond);
+        this.thread = new Thread(this::run, "upload-shard-migrator");
+        thread.setDaemon(true);
+        if (enabled) {
+            thread.start();
+        }
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+
+    private void run() {
+        final long started = System.nanoTime();
+        long migrated = 0;
+        List<Path> pendingUnlink = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(uploads.root())) {
+            final List<Path> batch = new ArrayList<>(BATCH);
+            for (final Path file : (Iterable<Path>) entries::iterator) {
+                final String name = file.getFileName().toString();
+                if (name.startsWith(".") || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                batch.add(file);
+                if (batch.size() == BATCH) {
+                    pendingUnlink = migrate(batch, pendingUnlink);
+                    migrated += pendingUnlink.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                pendingUnlink = migrate(batch, pendingUnlink);
+                migrated += pendingUnlink.size();
+            }
+            TimeUnit.SECONDS.sleep(1);
+            unlink(pendingUnlink);
+        } catch (final InterruptedException e) {
+            LOG.info("Upload shard migration interrupted after {} files; it resumes on next start", migrated);
+            return;
+        } catch (final IOException | RuntimeException e) {
+            LOG.warn("Upload shard migration stopped after {} files; it resumes on next start", migrated, e);
+            return;
+        }
+        if (migrated > 0) {
+            LOG.info("Migrated {} uploaded files into shard directories in {} s", migrated,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Links a batch into place, unlinks the previous batch, then sleeps off the batch's share
+     * of the throughput budget.
+     *
+     * @return the flat paths to unlink after the next batch
+     */
+    private List<Path> migrate(final List<Path> batch, final List<Path> previous)
+        throws IOException, InterruptedException {
+        final long started = System.nanoTime();
+        final List<Path> linked = new ArrayList<>(batch.size());
+        for (final Path flat : batch) {
+            if (uploads.linkIntoShard(flat.getFileName().toString(), index)) {
+                linked.add(flat);
+            }
+        }
+        unlink(previous);
+        final long budget = TimeUnit.SECONDS.toNanos(batch.size()) / filesPerSecond;
+        TimeUnit.NANOSECONDS.sleep(budget - (System.nanoTime() - started));
+        return linked;
+    }
+
+    private static void unlink(final List<Path> flat) throws IOException {
+        for (final Path file : flat) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
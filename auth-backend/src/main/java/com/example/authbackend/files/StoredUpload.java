@@ -0,0 +1,67 @@
+package com.example.authbackend.files;
+
+/**
+ * Result of storing an upload in the {@link UploadStore}.
+ */
+public final class StoredUpload {
+
+    private final String fileName;
+    private final String originalName;
+    private final long size;
+    private final String sha256;
+    private final boolean deduplicated;
+
+    StoredUpload(final String fileName, final String originalName, final long size, final String sha256,
+                 final boolean deduplicated) {
+        this.fileName = fileName;
+        this.originalName = originalName;
+        this.size = size;
+        this.sha256 = sha256;
+        this.deduplicated = deduplicated;
+    }
+
+    /**
+     * Gets the stored file name, {@code <sha256>.<ext>}.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Gets the file name the client sent.
+     *
+     * @return the original name
+     */
+    public String getOriginalName() {
+        return originalName;
+    }
+
+    /**
+     * Gets the size in bytes.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the hex SHA-256 of the content.
+     *
+     * @return the digest
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    /**
+     * Whether identical content was already stored and the new copy was discarded.
+     *
+     * @return the flag
+     */
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+}
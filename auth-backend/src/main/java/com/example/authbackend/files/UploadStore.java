@@ -0,0 +1,336 @@
+package com.example.authbackend.files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage for uploaded files.
+ *
+ * <p>Uploads are streamed from the request body straight into a temp file under
+ * {@code .incoming/} while their SHA-256 is computed, then renamed to {@code <sha256>.<ext>}.
+ * Uploading the same bytes again finds that name already taken and discards the new copy,
+ * so each distinct file is written once and stored once. Files from before content addressing
+ * keep their UUID names and are served as before.</p>
+ *
+ * <p>As every upload of the same bytes shares one file, each file counts its uploads, and
+ * deleting it only drops one of them until the last is gone. Only shared files have a count
+ * on disk, under {@code .refs/<name>}; a file without one has a single upload. Storing and
+ * deleting are serialized on a lock around the count, which covers no more than a rename
+ * and a small write.</p>
+ *
+ * <p>Files live in two levels of shard directories, {@code ab/cd/<name>}, so no directory grows
+ * past a few thousand entries. The shard comes from the first four hex digits of the name, which
+ * for both SHA-256 and UUID names are already uniformly distributed; other names are hashed.
+ * Public names carry no shard; files still in the old flat layout are found until the
+ * {@link ShardMigrator} moves them.</p>
+ */
+@Component
+public class UploadStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UploadStore.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,16}");
+    private static final Pattern HEX_PREFIX = Pattern.compile("^[0-9a-f]{4}");
+
+    private final Path root;
+    private final Path incoming;
+    private final Path refs;
+    private final long maxUploadBytes;
+    private final ReentrantLock refsLock = new ReentrantLock();
+
+    /**
+     * Creates the store, clearing uploads left half-written by a previous run.
+     *
+     * @param uploadDir directory holding uploaded files
+     * @param maxUploadBytes largest accepted upload
+     * @throws IOException if the directories cannot be created
+     */
+    public UploadStore(@Value("${files.upload-dir:uploads}") final String uploadDir,
+                       @Value("${files.max-upload-bytes:20971520}") final long maxUploadBytes) throws IOException {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.incoming = root.resolve(".incoming");
+        this.refs = root.resolve(".refs");
+        this.maxUploadBytes = maxUploadBytes;
+        Files.createDirectories(incoming);
+        Files.createDirectories(refs);
+        try (Stream<Path> leftovers = Files.list(incoming)) {
+            for (final Path part : leftovers.toList()) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    /**
+     * Gets the upload directory.
+     *
+     * @return the absolute directory
+     */
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * Reads a {@code multipart/form-data} body and stores the first file part named {@code field}.
+     *
+     * @param contentType the request content type, including the boundary
+     * @param body the request body
+     * @param field the form field carrying the file
+     * @return the stored upload
+     * @throws IllegalArgumentException if the body is not multipart, has no such file part, or it is empty
+     * @throws UploadTooLargeException if the file exceeds {@code files.max-upload-bytes}
+     * @throws IOException if the body cannot be read or the file cannot be written
+     */
+    public StoredUpload receive(final String contentType, final InputStream body, final String field)
+        throws IOException {
+        final MultipartStream multipart = MultipartStream.open(contentType, body);
+        if (multipart == null) {
+            throw new IllegalArgumentException("Expected a multipart/form-data upload");
+        }
+        for (MultipartStream.Part part = multipart.nextPart(); part != null; part = multipart.nextPart()) {
+            if (field.equals(part.name()) && part.filename() != null) {
+                return store(part.body(), part.filename());
+            }
+        }
+        throw new IllegalArgumentException("Missing file part '" + field + "'");
+    }
+
+    /**
+     * Streams content to disk under its SHA-256, or finds an identical file already stored and
+     * counts one more upload of it.
+     *
+     * @param in the content
+     * @param originalName the client's file name, used for the extension
+     * @return the stored upload
+     * @throws IllegalArgumentException if the content is empty
+     * @throws UploadTooLargeException if the content exceeds {@code files.max-upload-bytes}
+     * @throws IOException if the content cannot be read or written
+     */
+    public StoredUpload store(final InputStream in, final String originalName) throws IOException {
+        final String original = StringUtils.cleanPath(originalName);
+        final MessageDigest sha256 = newDigest();
+        final Path part = incoming.resolve(UUID.randomUUID() + ".part");
+        long size = 0;
+        try {
+            try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                    size += n;
+                    if (size > maxUploadBytes) {
+                        throw new UploadTooLargeException(maxUploadBytes);
+                    }
+                    sha256.update(buffer, 0, n);
+                    final ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Uploaded file is empty");
+            }
+
+            final String digest = HexFormat.of().formatHex(sha256.digest());
+            final String fileName = digest + extensionOf(original);
+            final Path target = shardedPath(fileName);
+            refsLock.lock();
+            try {
+                if (exists(fileName)) {
+                    LOG.debug("Upload {} duplicates {}", original, fileName);
+                    writeReferences(fileName, references(fileName) + 1);
+                    return new StoredUpload(fileName, original, size, digest, true);
+                }
+                // A count left behind by a delete that crashed belongs to the old file
+                Files.deleteIfExists(refs.resolve(fileName));
+                Files.createDirectories(target.getParent());
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+                return new StoredUpload(fileName, original, size, digest, false);
+            } finally {
+                refsLock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * Locates a public file name on disk: its shard directory, or the flat layout if it has
+     * not been migrated yet.
+     *
+     * @param filename the name from the request path
+     * @return the existing file, or its sharded path if it exists in neither place
+     * @throws IOException if the name is not a single plain path segment
+     */
+    public Path resolve(final String filename) throws IOException {
+        final String name = validate(filename);
+        final Path sharded = shardedPath(name);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        final Path flat = root.resolve(name);
+        return Files.isRegularFile(flat) ? flat : sharded;
+    }
+
+    /**
+     * Deletes one upload of a file. The file itself is deleted with its last upload, from both
+     * layouts; mid-migration it can briefly be linked into both.
+     *
+     * @param filename the public file name
+     * @return whether there was such a file
+     * @throws IOException if the name is invalid or a file cannot be deleted
+     */
+    public boolean delete(final String filename) throws IOException {
+        final String name = validate(filename);
+        refsLock.lock();
+        try {
+            final int references = references(name);
+            if (references > 1 && exists(name)) {
+                writeReferences(name, references - 1);
+                return true;
+            }
+            final boolean sharded = Files.deleteIfExists(shardedPath(name));
+            final boolean deleted = Files.deleteIfExists(root.resolve(name)) | sharded;
+            Files.deleteIfExists(refs.resolve(name));
+            return deleted;
+        } finally {
+            refsLock.unlock();
+        }
+    }
+
+    /**
+     * Hard-links a file from the flat layout into its shard and refreshes its index entry, both
+     * under the lock deletes take, so a delete cannot run between them and leave a link behind.
+     *
+     * @param name the public file name
+     * @param index the index to refresh
+     * @return false if the flat file is gone
+     * @throws IOException if the file cannot be linked or its attributes cannot be read
+     */
+    boolean linkIntoShard(final String name, final FileIndex index) throws IOException {
+        final Path flat = root.resolve(name);
+        final Path target = shardedPath(name);
+        refsLock.lock();
+        try {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.createLink(target, flat);
+            } catch (final FileAlreadyExistsException e) {
+                // Linked by an interrupted run, or the same content uploaded again since
+            } catch (final UnsupportedOperationException e) {
+                Files.move(flat, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final NoSuchFileException e) {
+                return false;
+            }
+            index.refresh(name);
+            return true;
+        } finally {
+            refsLock.unlock();
+        }
+    }
+
+    /**
+     * Gets where a file belongs in the sharded layout.
+     *
+     * @param filename the public file name
+     * @return {@code <root>/ab/cd/<filename>}
+     */
+    public Path shardedPath(final String filename) {
+        final String shard;
+        if (HEX_PREFIX.matcher(filename).find()) {
+            shard = filename.substring(0, 4);
+        } else {
+            shard = String.format("%04x", (filename.hashCode() * 0x9E3779B9) >>> 16);
+        }
+        return root.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4)).resolve(filename);
+    }
+
+    /**
+     * Whether a name is a shard directory rather than an uploaded file.
+     *
+     * @param name a directory entry name
+     * @return true for two lowercase hex digits
+     */
+    static boolean isShardName(final String name) {
+        return name.length() == 2 && Character.digit(name.charAt(0), 16) >= 0 && Character.digit(name.charAt(1), 16) >= 0
+            && name.equals(name.toLowerCase(Locale.ROOT));
+    }
+
+    private boolean exists(final String name) {
+        return Files.exists(shardedPath(name)) || Files.isRegularFile(root.resolve(name));
+    }
+
+    /**
+     * Reads how many uploads share a file. Called with the lock held.
+     */
+    private int references(final String name) throws IOException {
+        try {
+            return Integer.parseInt(Files.readString(refs.resolve(name)).trim());
+        } catch (final NoSuchFileException e) {
+            return 1;
+        } catch (final NumberFormatException e) {
+            throw new IOException("Corrupt reference count for " + name, e);
+        }
+    }
+
+    /**
+     * Replaces a file's upload count. Called with the lock held.
+     */
+    private void writeReferences(final String name, final int references) throws IOException {
+        final Path target = refs.resolve(name);
+        if (references <= 1) {
+            Files.deleteIfExists(target);
+            return;
+        }
+        final Path part = incoming.resolve(UUID.randomUUID() + ".part");
+        try {
+            Files.writeString(part, Integer.toString(references));
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private static String validate(final String filename) throws IOException {
+        final String clean = StringUtils.cleanPath(filename);
+        if (clean.isEmpty() || clean.startsWith(".") || clean.contains("/") || clean.contains("\\")) {
+            throw new IOException("Invalid file path");
+        }
+        return clean;
+    }
+
+    private static String extensionOf(final String name) {
+        final int dot = name.lastIndexOf('.');
+        final String ext = dot < 0 ? "" : name.substring(dot);
+        return EXTENSION.matcher(ext).matches() ? ext.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.authbackend.files;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an upload exceeds {@code files.max-upload-bytes}; nothing is kept on disk.
+ */
+public class UploadTooLargeException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     *
+     * @param limit the configured limit in bytes
+     */
+    public UploadTooLargeException(final long limit) {
+        super("Upload exceeds " + limit + " bytes");
+    }
+}
@@ -0,0 +1,551 @@
+package com.example.authbackend.kv;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory core shared by the KV engines: the hash map, the sorted key index, TTL expiry
+ * through a {@link TimerWheel} and a size-aware memory budget.
+ *
+ * <p>Every mutation, including expiry and eviction, goes through {@link #apply}, which calls
+ * the journaling hooks under one of {@value #WRITE_STRIPES} striped locks chosen by the key,
+ * then updates the map. Journaling can write to a file or wait for the log's lock, so it is
+ * kept out of the map's {@code compute}, which would stall writers to other keys in the same
+ * bin and pin a virtual thread's carrier. Subclasses that persist state override those hooks;
+ * the volatile engine leaves them as no-ops.</p>
+ *
+ * <p>Values are encoded by a {@link ValueStorage}. Whenever an entry leaves the map its value
+ * is released, which returns off-heap chunks to their slab once no reader holds them.</p>
+ *
+ * <p>Eviction samples entries with a rolling "clock hand" iterator over the map and drops the
+ * highest-scoring one per {@link EvictionPolicy}, similar to Redis' sampled LRU/LFU. It runs
+ * on the writing thread that pushed the store over budget; concurrent writers skip it rather
+ * than queue behind the eviction lock.</p>
+ */
+public abstract class AbstractKvStore implements KvStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractKvStore.class);
+    private static final int WHEEL_SLOTS = 512;
+    private static final int EVICTION_SAMPLE = 16;
+    private static final int WRITE_STRIPES = 256;
+
+    private final ConcurrentHashMap<String, KvEntry> map = new ConcurrentHashMap<>();
+    private final SortedKeyIndex index = new SortedKeyIndex();
+    private final TimerWheel wheel;
+    private final long maxBytes;
+    private final ValueStorage valueStorage;
+    private final EvictionPolicy evictionPolicy;
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReentrantLock[] writeStripes = new ReentrantLock[WRITE_STRIPES];
+    private Iterator<Map.Entry<String, KvEntry>> clockHand;
+
+    /** Single daemon thread for expiry ticks and any engine-specific background work. */
+    protected final ScheduledExecutorService housekeeper;
+
+    /**
+     * Constructor for subclasses.
+     *
+     * @param expiryTickMillis timer wheel resolution
+     * @param maxBytes memory budget in approximate heap bytes; 0 for unbounded
+     * @param evictionPolicy how to pick victims once over budget
+     * @param valueStorage how values are held in memory
+     */
+    protected AbstractKvStore(final long expiryTickMillis, final long maxBytes, final EvictionPolicy evictionPolicy,
+                              final ValueStorage valueStorage) {
+        this.wheel = new TimerWheel(expiryTickMillis, WHEEL_SLOTS, System.currentTimeMillis());
+        this.maxBytes = maxBytes;
+        this.valueStorage = valueStorage;
+        this.evictionPolicy = evictionPolicy;
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            writeStripes[i] = new ReentrantLock();
+        }
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "kv-housekeeping");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts expiry ticks. Subclasses call this once their journaling state is ready.
+     */
+    protected final void startHousekeeping() {
+        final long tick = wheel.tickMillis();
+        housekeeper.scheduleAtFixedRate(() -> {
+            try {
+                wheel.advance(System.currentTimeMillis(), this::expire);
+            } catch (final RuntimeException e) {
+                LOG.warn("KV expiry tick failed", e);
+            }
+        }, tick, tick, TimeUnit.MILLISECONDS);
+        enforceBudget();
+    }
+
+    /**
+     * Stops background work.
+     */
+    protected final void stopHousekeeping() {
+        housekeeper.shutdownNow();
+        try {
+            housekeeper.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String get(final String key) {
+        while (true) {
+            final KvEntry entry = live(key);
+            if (entry == null) {
+                return null;
+            }
+            final String value = entry.value.read();
+            if (value != null) {
+                return value;
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(final String key) {
+        final KvEntry entry = map.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            expire(key, entry.expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public KvValue open(final String key) {
+        while (true) {
+            final KvEntry entry = live(key);
+            if (entry == null) {
+                return null;
+            }
+            final KvValue value = entry.value.open();
+            if (value != null) {
+                return value;
+            }
+        }
+    }
+
+    @Override
+    public void put(final String key, final String value, final long ttlMillis) throws IOException {
+        final long now = System.currentTimeMillis();
+        final KvEntry entry = new KvEntry(key, valueStorage.store(value), ttlMillis > 0 ? now + ttlMillis : 0, now);
+        try {
+            apply(key, entry, null, true);
+        } catch (final IOException e) {
+            entry.value.release();
+            throw e;
+        }
+        if (entry.expiresAt != 0) {
+            wheel.schedule(key, entry.expiresAt);
+        }
+        enforceBudget();
+    }
+
+    @Override
+    public boolean remove(final String key) throws IOException {
+        return apply(key, null, null, true) != null;
+    }
+
+    @Override
+    public void clear() throws IOException {
+        for (final String key : map.keySet()) {
+            apply(key, null, null, false);
+        }
+    }
+
+    @Override
+    public List<KvBatch.Outcome> execute(final KvBatch batch, final boolean atomic) throws IOException {
+        final List<KvBatch.Outcome> outcomes = new ArrayList<>(batch.ops().size());
+        final long now = System.currentTimeMillis();
+        if (!atomic || batch.writeCount() == 0) {
+            for (final KvBatch.Op op : batch.ops()) {
+                switch (op.type()) {
+                    case GET -> outcomes.add(outcomeOf(get(op.key())));
+                    case SET -> {
+                        final KvEntry entry = entryFor(op, now);
+                        try {
+                            apply(op.key(), entry, null, false);
+                        } catch (final IOException e) {
+                            entry.value.release();
+                            throw e;
+                        }
+                        outcomes.add(new KvBatch.Outcome(true, null));
+                    }
+                    case DELETE -> outcomes.add(new KvBatch.Outcome(apply(op.key(), null, null, false) != null, null));
+                    default -> throw new IllegalStateException("Unknown batch op " + op.type());
+                }
+            }
+            if (batch.writeCount() > 0) {
+                flushJournal();
+            }
+        } else {
+            final String[] keys = new String[batch.writeCount()];
+            final KvEntry[] entries = new KvEntry[batch.writeCount()];
+            int w = 0;
+            for (final KvBatch.Op op : batch.ops()) {
+                if (op.type() != KvBatch.Type.GET) {
+                    keys[w] = op.key();
+                    entries[w++] = op.type() == KvBatch.Type.SET ? entryFor(op, now) : null;
+                }
+            }
+            final Object txn = beginExclusive();
+            final long position;
+            try {
+                try {
+                    position = journalBatch(txn, keys, entries);
+                } catch (final IOException e) {
+                    for (final KvEntry entry : entries) {
+                        if (entry != null) {
+                            entry.value.release();
+                        }
+                    }
+                    throw e;
+                }
+                w = 0;
+                for (final KvBatch.Op op : batch.ops()) {
+                    if (op.type() == KvBatch.Type.GET) {
+                        outcomes.add(outcomeOf(get(op.key())));
+                        continue;
+                    }
+                    final String key = keys[w];
+                    final KvEntry entry = entries[w++];
+                    final KvEntry[] previous = {null};
+                    map.compute(key, (k, old) -> {
+                        previous[0] = old;
+                        if (old != null || entry != null) {
+                            account(k, old, entry);
+                        }
+                        return entry;
+                    });
+                    if (previous[0] != null) {
+                        previous[0].value.release();
+                    }
+                    outcomes.add(new KvBatch.Outcome(entry != null || previous[0] != null, null));
+                }
+            } finally {
+                endExclusive(txn);
+            }
+            if (position >= 0) {
+                commit(txn, position);
+            }
+        }
+        for (final KvBatch.Op op : batch.ops()) {
+            if (op.type() == KvBatch.Type.SET && op.ttlMillis() > 0) {
+                wheel.schedule(op.key(), now + op.ttlMillis());
+            }
+        }
+        enforceBudget();
+        return outcomes;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public Stream<String> keys(final String prefix, final String after) {
+        return index.withPrefix(prefix, after);
+    }
+
+    @Override
+    public KvStats stats() {
+        return new KvStats(map.size(), bytes.get(), maxBytes, expired.sum(), evicted.sum(),
+            evictionPolicy.name().toLowerCase(), valueStorage.toString(), valueStorage.offHeapBytes());
+    }
+
+    /**
+     * Opens a mutation; the returned token is handed to the other hooks.
+     *
+     * @return an engine-specific token
+     */
+    protected Object beginWrite() {
+        return null;
+    }
+
+    /**
+     * Records a mutation. Called under the key's write stripe, before the map is updated, so
+     * records for one key are journaled in the same order they are applied.
+     *
+     * @param txn the token from {@link #beginWrite()}
+     * @param key the key
+     * @param entry the new entry, or {@code null} for a removal
+     * @return a position to pass to {@link #commit}, or -1 if nothing needs committing
+     * @throws IOException if the record cannot be written
+     */
+    protected long journal(final Object txn, final String key, final KvEntry entry) throws IOException {
+        return -1;
+    }
+
+    /**
+     * Closes a mutation opened by {@link #beginWrite()}; always called.
+     *
+     * @param txn the token
+     */
+    protected void endWrite(final Object txn) {
+        // No-op for the volatile engine
+    }
+
+    /**
+     * Makes a journaled mutation durable before the caller is acknowledged.
+     *
+     * @param txn the token
+     * @param position the value returned by {@link #journal}
+     * @throws IOException if the record cannot be made durable
+     */
+    protected void commit(final Object txn, final long position) throws IOException {
+        // No-op for the volatile engine
+    }
+
+    /**
+     * Excludes all other writers for an atomic batch.
+     *
+     * @return an engine-specific token
+     */
+    protected Object beginExclusive() {
+        return null;
+    }
+
+    /**
+     * Journals every write of an atomic batch as one record, before any of them is applied.
+     *
+     * @param txn the token from {@link #beginExclusive()}
+     * @param keys the written keys, in order
+     * @param entries the new entries, {@code null} for deletes
+     * @return a position to pass to {@link #commit}, or -1 if nothing needs committing
+     * @throws IOException if the record cannot be written; nothing is applied
+     */
+    protected long journalBatch(final Object txn, final String[] keys, final KvEntry[] entries) throws IOException {
+        return -1;
+    }
+
+    /**
+     * Releases {@link #beginExclusive()}; always called.
+     *
+     * @param txn the token
+     */
+    protected void endExclusive(final Object txn) {
+        // No-op for the volatile engine
+    }
+
+    /**
+     * Makes every write journaled so far durable; used once at the end of a non-atomic batch.
+     *
+     * @throws IOException if the journal cannot be forced
+     */
+    protected void flushJournal() throws IOException {
+        // No-op for the volatile engine
+    }
+
+    /**
+     * Applies a mutation to the map, index and accounting.
+     *
+     * @param key the key
+     * @param entry the new entry, or {@code null} to remove
+     * @param expected only apply if this is the current entry; {@code null} for unconditional
+     * @param sync whether to wait for the journal to be durable
+     * @return the entry that was replaced or removed, or {@code null} if nothing changed
+     * @throws IOException if journaling fails; the map is left unchanged
+     */
+    protected final KvEntry apply(final String key, final KvEntry entry, final KvEntry expected, final boolean sync)
+        throws IOException {
+        final ReentrantLock stripe = writeStripes[(key.hashCode() ^ (key.hashCode() >>> 16)) & (WRITE_STRIPES - 1)];
+        final KvEntry[] previous = {null};
+        final Object txn;
+        final long position;
+        stripe.lock();
+        try {
+            txn = beginWrite();
+            try {
+                // Only apply changes a key, and the stripe excludes other applies to it. Atomic
+                // batches can too, but a journaling engine excludes them in beginWrite
+                final KvEntry current = map.get(key);
+                if (expected != null && current != expected || current == null && entry == null) {
+                    return null;
+                }
+                position = journal(txn, key, entry);
+                map.compute(key, (k, old) -> {
+                    if (expected != null && old != expected) {
+                        return old;
+                    }
+                    previous[0] = old;
+                    if (old != null || entry != null) {
+                        account(k, old, entry);
+                    }
+                    return entry;
+                });
+            } finally {
+                endWrite(txn);
+            }
+        } finally {
+            stripe.unlock();
+        }
+        if (previous[0] != null) {
+            previous[0].value.release();
+        }
+        if (sync && position >= 0) {
+            commit(txn, position);
+        }
+        return previous[0];
+    }
+
+    /**
+     * Installs recovered state without journaling it. Only for use before housekeeping starts.
+     *
+     * @param key the key
+     * @param value the value, or {@code null} to remove
+     * @param expiresAt absolute expiry in milliseconds, 0 for none
+     */
+    protected final void restore(final String key, final String value, final long expiresAt) {
+        final long now = System.currentTimeMillis();
+        final KvEntry entry = value == null || (expiresAt != 0 && expiresAt <= now)
+            ? null
+            : new KvEntry(key, valueStorage.store(value), expiresAt, now);
+        final KvEntry old = entry == null ? map.remove(key) : map.put(key, entry);
+        if (old != null) {
+            old.value.release();
+        }
+        bytes.addAndGet((entry == null ? 0 : entry.weight) - (old == null ? 0 : old.weight));
+        if (entry == null) {
+            index.remove(key);
+        } else {
+            index.add(key);
+            if (expiresAt != 0) {
+                wheel.schedule(key, expiresAt);
+            }
+        }
+    }
+
+    /**
+     * Drops all in-memory state without journaling. Callers must exclude concurrent writers.
+     */
+    protected final void clearMemory() {
+        for (final KvEntry entry : map.values()) {
+            entry.value.release();
+        }
+        map.clear();
+        index.clear();
+        wheel.clear();
+        bytes.set(0);
+    }
+
+    /**
+     * Iterates live entries for snapshotting; weakly consistent.
+     *
+     * @return the entries
+     */
+    protected final Iterator<Map.Entry<String, KvEntry>> entryIterator() {
+        return map.entrySet().iterator();
+    }
+
+    private void account(final String key, final KvEntry old, final KvEntry entry) {
+        bytes.addAndGet((entry == null ? 0 : entry.weight) - (old == null ? 0 : old.weight));
+        if (entry == null) {
+            index.remove(key);
+        } else if (old == null) {
+            index.add(key);
+        }
+    }
+
+    private KvEntry entryFor(final KvBatch.Op op, final long now) {
+        return new KvEntry(op.key(), valueStorage.store(op.value()), op.ttlMillis() > 0 ? now + op.ttlMillis() : 0, now);
+    }
+
+    private KvEntry live(final String key) {
+        final KvEntry entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        if (entry.isExpired(now)) {
+            expire(key, entry.expiresAt);
+            return null;
+        }
+        entry.touch(now);
+        return entry;
+    }
+
+    private static KvBatch.Outcome outcomeOf(final String value) {
+        return new KvBatch.Outcome(value != null, value);
+    }
+
+    private void expire(final String key, final long expiresAt) {
+        final KvEntry current = map.get(key);
+        if (current == null || current.expiresAt != expiresAt || !current.isExpired(System.currentTimeMillis())) {
+            return;
+        }
+        try {
+            if (apply(key, null, current, false) == current) {
+                expired.increment();
+            }
+        } catch (final IOException e) {
+            LOG.warn("Failed to journal expiry of {}", key, e);
+        }
+    }
+
+    private void enforceBudget() {
+        if (maxBytes <= 0 || bytes.get() <= maxBytes || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (bytes.get() > maxBytes) {
+                final long now = System.currentTimeMillis();
+                String victimKey = null;
+                KvEntry victim = null;
+                double worst = -1;
+                for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                    if (clockHand == null || !clockHand.hasNext()) {
+                        clockHand = map.entrySet().iterator();
+                        if (!clockHand.hasNext()) {
+                            break;
+                        }
+                    }
+                    final Map.Entry<String, KvEntry> candidate = clockHand.next();
+                    final KvEntry e = candidate.getValue();
+                    final double score = e.isExpired(now) ? Double.MAX_VALUE : evictionPolicy.score(e, now);
+                    if (score > worst) {
+                        worst = score;
+                        victimKey = candidate.getKey();
+                        victim = e;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                if (apply(victimKey, null, victim, false) == victim) {
+                    (victim.isExpired(now) ? expired : evicted).increment();
+                }
+            }
+        } catch (final IOException e) {
+            LOG.warn("Failed to journal KV eviction", e);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
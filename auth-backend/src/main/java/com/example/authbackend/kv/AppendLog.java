@@ -0,0 +1,275 @@
+package com.example.authbackend.kv;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only redo log for {@link DurableKvStore}.
+ *
+ * <p>Each record is {@code [int length][int crc32][byte op][int keyLen][key][int valueLen][value]},
+ * followed by {@code [long expiresAt]} for {@link #OP_PUT_EXPIRING}; length and crc cover
+ * everything after the header. An {@link #OP_BATCH} body is {@code [byte op][int count]} followed by
+ * {@code count} entries of {@code [byte op][int keyLen][key][int valueLen][value][long expiresAt]},
+ * so an atomic batch is replayed entirely or, if torn, not at all. Appends only reach the page cache;
+ * {@link #sync(long)} implements group commit: the first caller to arrive forces the channel and
+ * every caller whose record was written before that force returns without issuing its own. Both
+ * are guarded by locks rather than monitors, so virtual threads waiting on a write or a force
+ * unmount instead of pinning their carrier.</p>
+ */
+final class AppendLog implements Closeable {
+
+    static final byte OP_PUT = 1;
+    static final byte OP_DELETE = 2;
+    static final byte OP_CLEAR = 3;
+    static final byte OP_PUT_EXPIRING = 4;
+    static final byte OP_BATCH = 5;
+
+    private static final int HEADER_BYTES = 8;
+
+    private final FileChannel channel;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private long writePosition;
+    private volatile long syncedPosition;
+
+    /**
+     * Callback for records read back during replay.
+     */
+    interface Visitor {
+        void record(byte op, String key, String value, long expiresAt);
+    }
+
+    private AppendLog(final FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.writePosition = channel.size();
+        this.syncedPosition = writePosition;
+        channel.position(writePosition);
+    }
+
+    /**
+     * Opens a log for appending, creating it if missing.
+     *
+     * @param path the log file
+     * @return the opened log
+     * @throws IOException if the file cannot be opened
+     */
+    static AppendLog open(final Path path) throws IOException {
+        return new AppendLog(FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Encodes a framed, checksummed record.
+     *
+     * @param op the operation code; {@link #OP_PUT} with an expiry is written as {@link #OP_PUT_EXPIRING}
+     * @param key the key, or {@code null} for {@link #OP_CLEAR}
+     * @param value the UTF-8 value, or {@code null} unless {@link #OP_PUT}
+     * @param expiresAt absolute expiry in milliseconds, 0 for none
+     * @return the framed record, ready to append
+     */
+    static ByteBuffer encode(final byte op, final String key, final byte[] value, final long expiresAt) {
+        final byte[] k = key == null ? new byte[0] : key.getBytes(StandardCharsets.UTF_8);
+        final byte[] v = value == null ? new byte[0] : value;
+        final byte code = op == OP_PUT && expiresAt != 0 ? OP_PUT_EXPIRING : op;
+        final int bodyLength = 1 + 4 + k.length + 4 + v.length + (code == OP_PUT_EXPIRING ? 8 : 0);
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength).putInt(0);
+        buffer.put(code).putInt(k.length).put(k).putInt(v.length).put(v);
+        if (code == OP_PUT_EXPIRING) {
+            buffer.putLong(expiresAt);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    /**
+     * Encodes the writes of an atomic batch as one framed, checksummed record.
+     *
+     * @param keys the written keys, in order
+     * @param entries the new entries, {@code null} for deletes
+     * @return the framed record, ready to append
+     */
+    static ByteBuffer encodeBatch(final String[] keys, final KvEntry[] entries) {
+        final byte[][] k = new byte[keys.length][];
+        final byte[][] v = new byte[keys.length][];
+        int bodyLength = 1 + 4;
+        for (int i = 0; i < keys.length; i++) {
+            k[i] = keys[i].getBytes(StandardCharsets.UTF_8);
+            v[i] = entries[i] == null ? new byte[0] : entries[i].value.utf8();
+            bodyLength += 1 + 4 + k[i].length + 4 + v[i].length + 8;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength).putInt(0);
+        buffer.put(OP_BATCH).putInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.put(entries[i] == null ? OP_DELETE : OP_PUT)
+                .putInt(k[i].length).put(k[i]).putInt(v[i].length).put(v[i])
+                .putLong(entries[i] == null ? 0 : entries[i].expiresAt);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    /**
+     * Appends a record to the page cache without forcing it to disk.
+     *
+     * @param record the encoded record
+     * @return the log position just past the record, to pass to {@link #sync(long)}
+     * @throws IOException if the write fails
+     */
+    long append(final ByteBuffer record) throws IOException {
+        appendLock.lock();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            writePosition = channel.position();
+            return writePosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every byte up to {@code position} is on stable storage.
+     *
+     * @param position a value returned by {@link #append(ByteBuffer)}
+     * @throws IOException if the force fails
+     */
+    void sync(final long position) throws IOException {
+        if (syncedPosition >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (syncedPosition >= position) {
+                return;
+            }
+            final long target = size();
+            channel.force(false);
+            syncedPosition = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of bytes appended so far.
+     *
+     * @return the log size
+     */
+    long size() {
+        appendLock.lock();
+        try {
+            return writePosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        syncLock.lock();
+        try {
+            if (!channel.isOpen()) {
+                return;
+            }
+            channel.force(false);
+            syncedPosition = size();
+            channel.close();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Replays a log, stopping at the first torn or corrupt record, and truncates anything after it.
+     *
+     * @param path the log file
+     * @param visitor receives every intact record in order
+     * @return the number of records replayed
+     * @throws IOException if the file cannot be read
+     */
+    static long replay(final Path path, final Visitor visitor) throws IOException {
+        final long fileSize = Files.size(path);
+        long validLength = 0;
+        long records = 0;
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            final CRC32 crc = new CRC32();
+            while (true) {
+                final int bodyLength;
+                try {
+                    bodyLength = in.readInt();
+                } catch (final EOFException e) {
+                    break;
+                }
+                if (bodyLength < 9 || bodyLength > fileSize - validLength - HEADER_BYTES) {
+                    break;
+                }
+                final int expectedCrc = in.readInt();
+                final byte[] body = new byte[bodyLength];
+                in.readFully(body);
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                final ByteBuffer buffer = ByteBuffer.wrap(body);
+                final byte op = buffer.get();
+                if (op == OP_BATCH) {
+                    for (int i = buffer.getInt(); i > 0; i--) {
+                        final byte subOp = buffer.get();
+                        final String key = readString(buffer);
+                        final String value = readString(buffer);
+                        final long expiresAt = buffer.getLong();
+                        visitor.record(subOp, key, subOp == OP_PUT ? value : null, expiresAt);
+                    }
+                    validLength += HEADER_BYTES + bodyLength;
+                    records++;
+                    continue;
+                }
+                final String key = readString(buffer);
+                final String value = readString(buffer);
+                if (op == OP_PUT_EXPIRING) {
+                    visitor.record(OP_PUT, key, value, buffer.getLong());
+                } else {
+                    visitor.record(op, key, op == OP_PUT ? value : null, 0);
+                }
+                validLength += HEADER_BYTES + bodyLength;
+                records++;
+            }
+        } catch (final EOFException e) {
+            // Torn tail from a crash mid-append; everything before it is intact
+        }
+        if (validLength < fileSize) {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                ch.truncate(validLength);
+                ch.force(true);
+            }
+        }
+        return records;
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final String s = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return s;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.authbackend.kv;
+
+/**
+ * Size-aware victim selection used when the store exceeds its memory budget.
+ *
+ * <p>Both policies weigh an entry's cost against its usefulness, so one large,
+ * cold feedback blob goes before many small hot keys.</p>
+ */
+public enum EvictionPolicy {
+
+    /** Evicts the entry with the largest {@code idle time × size}. */
+    LRU {
+        @Override
+        double score(final KvEntry entry, final long now) {
+            return (double) Math.max(1, now - entry.lastAccess) * entry.weight;
+        }
+    },
+
+    /** Evicts the entry with the largest {@code size / (reads + 1)}. */
+    LFU {
+        @Override
+        double score(final KvEntry entry, final long now) {
+            return (double) entry.weight / (entry.hits + 1);
+        }
+    };
+
+    /**
+     * Scores an eviction candidate; the highest score in a sample is evicted.
+     *
+     * @param entry the candidate
+     * @param now the current time in milliseconds
+     * @return the eviction score
+     */
+    abstract double score(KvEntry entry, long now);
+}
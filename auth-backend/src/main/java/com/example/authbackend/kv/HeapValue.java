@@ -0,0 +1,73 @@
+package com.example.authbackend.kv;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Value kept as a plain {@code String}; the default storage mode.
+ */
+final class HeapValue extends StoredValue {
+
+    private final String value;
+
+    HeapValue(final String value) {
+        this.value = value;
+    }
+
+    @Override
+    int footprint() {
+        return value.length();
+    }
+
+    @Override
+    String read() {
+        return value;
+    }
+
+    @Override
+    byte[] utf8() {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    KvValue open() {
+        final byte[] bytes = utf8();
+        return new KvValue() {
+            @Override
+            public int length() {
+                return bytes.length;
+            }
+
+            @Override
+            public boolean deflated() {
+                return false;
+            }
+
+            @Override
+            public int storedLength() {
+                return bytes.length;
+            }
+
+            @Override
+            public void writeStoredTo(final OutputStream out) throws IOException {
+                out.write(bytes);
+            }
+
+            @Override
+            public void writeTo(final OutputStream out) throws IOException {
+                out.write(bytes);
+            }
+
+            @Override
+            public void close() {
+                // Nothing pinned
+            }
+        };
+    }
+
+    @Override
+    void release() {
+        // Left to the garbage collector
+    }
+}
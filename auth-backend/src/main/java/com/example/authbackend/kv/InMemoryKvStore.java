@@ -0,0 +1,33 @@
+package com.example.authbackend.kv;
+
+/**
+ * Volatile store that keeps everything on the heap; contents are lost on restart.
+ */
+public class InMemoryKvStore extends AbstractKvStore {
+
+    /**
+     * Creates an unbounded store with one-second expiry resolution.
+     */
+    public InMemoryKvStore() {
+        this(1000, 0, EvictionPolicy.LRU, ValueStorage.heap());
+    }
+
+    /**
+     * Creates a store with explicit expiry and eviction settings.
+     *
+     * @param expiryTickMillis timer wheel resolution
+     * @param maxBytes memory budget in approximate heap bytes; 0 for unbounded
+     * @param evictionPolicy how to pick victims once over budget
+     * @param valueStorage how values are held in memory
+     */
+    public InMemoryKvStore(final long expiryTickMillis, final long maxBytes, final EvictionPolicy evictionPolicy,
+                           final ValueStorage valueStorage) {
+        super(expiryTickMillis, maxBytes, evictionPolicy, valueStorage);
+        startHousekeeping();
+    }
+
+    @Override
+    public void close() {
+        stopHousekeeping();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.authbackend.kv;
+
+import java.util.regex.Pattern;
+
+/**
+ * Compiled {@code *}-glob over KV keys.
+ *
+ * <p>The literal text before the first {@code *} becomes a prefix that the sorted key index
+ * can answer with a range scan. Only the remainder, if any, needs a regex, so {@code resume:*}
+ * never touches keys outside its range and {@code *foo*} is the only shape that scans everything.</p>
+ */
+public final class KeyGlob {
+
+    private final String prefix;
+    private final boolean exact;
+    private final Pattern regex;
+
+    private KeyGlob(final String prefix, final boolean exact, final Pattern regex) {
+        this.prefix = prefix;
+        this.exact = exact;
+        this.regex = regex;
+    }
+
+    /**
+     * Compiles a glob where {@code *} matches any run of characters.
+     *
+     * @param glob the glob
+     * @return the compiled glob
+     */
+    public static KeyGlob compile(final String glob) {
+        final int star = glob.indexOf('*');
+        if (star < 0) {
+            return new KeyGlob(glob, true, null);
+        }
+        final String prefix = glob.substring(0, star);
+        if (star == glob.length() - 1) {
+            return new KeyGlob(prefix, false, null);
+        }
+        final StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i <= glob.length(); i++) {
+            if (i == glob.length() || glob.charAt(i) == '*') {
+                if (i > start) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                if (i < glob.length()) {
+                    regex.append(".*");
+                }
+                start = i + 1;
+            }
+        }
+        return new KeyGlob(prefix, false, Pattern.compile(regex.toString(), Pattern.DOTALL));
+    }
+
+    /**
+     * Gets the literal prefix every matching key starts with.
+     *
+     * @return the prefix, possibly empty
+     */
+    public String prefix() {
+        return prefix;
+    }
+
+    /**
+     * Tests a key that is already known to start with {@link #prefix()}.
+     *
+     * @param key the key
+     * @return true if the key matches the whole glob
+     */
+    public boolean matches(final String key) {
+        if (exact) {
+            return key.length() == prefix.length();
+        }
+        return regex == null || regex.matcher(key).matches();
+    }
+}
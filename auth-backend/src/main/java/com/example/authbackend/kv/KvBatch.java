@@ -0,0 +1,115 @@
+package com.example.authbackend.kv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of gets, sets and deletes executed by {@link KvStore#execute} in one call.
+ */
+public final class KvBatch {
+
+    /**
+     * Operation kind.
+     */
+    public enum Type {
+        GET, SET, DELETE
+    }
+
+    /**
+     * One operation in a batch.
+     */
+    public static final class Op {
+        private final Type type;
+        private final String key;
+        private final String value;
+        private final long ttlMillis;
+
+        private Op(final Type type, final String key, final String value, final long ttlMillis) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+            this.ttlMillis = ttlMillis;
+        }
+
+        public Type type() {
+            return type;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public String value() {
+            return value;
+        }
+
+        public long ttlMillis() {
+            return ttlMillis;
+        }
+    }
+
+    /**
+     * Outcome of one operation, in the same position as its {@link Op}.
+     */
+    public static final class Outcome {
+        private final boolean found;
+        private final String value;
+
+        Outcome(final boolean found, final String value) {
+            this.found = found;
+            this.value = value;
+        }
+
+        /**
+         * Whether a get found the key, or a delete removed an existing key; always true for sets.
+         *
+         * @return the flag
+         */
+        public boolean found() {
+            return found;
+        }
+
+        /**
+         * The value read by a get, otherwise {@code null}.
+         *
+         * @return the value
+         */
+        public String value() {
+            return value;
+        }
+    }
+
+    private final List<Op> ops = new ArrayList<>();
+    private int writes;
+
+    public KvBatch get(final String key) {
+        ops.add(new Op(Type.GET, key, null, 0));
+        return this;
+    }
+
+    public KvBatch set(final String key, final String value, final long ttlMillis) {
+        ops.add(new Op(Type.SET, key, value, ttlMillis));
+        writes++;
+        return this;
+    }
+
+    public KvBatch delete(final String key) {
+        ops.add(new Op(Type.DELETE, key, null, 0));
+        writes++;
+        return this;
+    }
+
+    public List<Op> ops() {
+        return Collections.unmodifiableList(ops);
+    }
+
+    /**
+     * Gets the number of sets and deletes.
+     *
+     * @return the write count
+     */
+    public int writeCount() {
+        return writes;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.authbackend.kv;
+
+/**
+ * A stored value plus the bookkeeping used for expiry and eviction.
+ *
+ * <p>Access fields are updated racily on reads; eviction only needs an approximate
+ * picture, and avoiding atomics keeps {@code GET} as cheap as a plain map lookup.</p>
+ */
+final class KvEntry {
+
+    /** Rough heap cost of the map node, index node, entry object and value headers. */
+    static final int ENTRY_OVERHEAD = 160;
+
+    final StoredValue value;
+    final long expiresAt;
+    final int weight;
+    volatile long lastAccess;
+    volatile int hits;
+
+    KvEntry(final String key, final StoredValue value, final long expiresAt, final long now) {
+        this.value = value;
+        this.expiresAt = expiresAt;
+        this.weight = ENTRY_OVERHEAD + key.length() + value.footprint();
+        this.lastAccess = now;
+    }
+
+    boolean isExpired(final long now) {
+        return expiresAt != 0 && now >= expiresAt;
+    }
+
+    void touch(final long now) {
+        lastAccess = now;
+        final int h = hits;
+        if (h < Integer.MAX_VALUE) {
+            hits = h + 1;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.authbackend.kv;
+
+import java.io.Serializable;
+
+/**
+ * Point-in-time counters for sizing the KV memory budget.
+ */
+public class KvStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long entries;
+    private final long bytes;
+    private final long maxBytes;
+    private final long expired;
+    private final long evicted;
+    private final String evictionPolicy;
+    private final String valueStorage;
+    private final long offHeapBytes;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param entries the live entry count
+     * @param bytes the approximate bytes held by entries, on and off heap
+     * @param maxBytes the memory budget, 0 if unbounded
+     * @param expired the number of entries removed by TTL since startup
+     * @param evicted the number of entries removed by the memory budget since startup
+     * @param evictionPolicy the eviction policy name
+     * @param valueStorage the value storage mode
+     * @param offHeapBytes the direct memory reserved for values
+     */
+    public KvStats(final long entries, final long bytes, final long maxBytes,
+                   final long expired, final long evicted, final String evictionPolicy,
+                   final String valueStorage, final long offHeapBytes) {
+        this.entries = entries;
+        this.bytes = bytes;
+        this.maxBytes = maxBytes;
+        this.expired = expired;
+        this.evicted = evicted;
+        this.evictionPolicy = evictionPolicy;
+        this.valueStorage = valueStorage;
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    /**
+     * Gets the live entry count.
+     *
+     * @return the entry count
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the approximate bytes held by entries, on and off heap.
+     *
+     * @return the byte count
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the memory budget.
+     *
+     * @return the budget in bytes, 0 if unbounded
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Gets the number of entries removed by TTL since startup.
+     *
+     * @return the expired count
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * Gets the number of entries removed by the memory budget since startup.
+     *
+     * @return the evicted count
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+
+    /**
+     * Gets the eviction policy name.
+     *
+     * @return the policy
+     */
+    public String getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Gets the value storage mode.
+     *
+     * @return {@code heap} or {@code offheap}
+     */
+    public String getValueStorage() {
+        return valueStorage;
+    }
+
+    /**
+     * Gets the direct memory reserved for values, including free slab chunks.
+     *
+     * @return the reserved bytes
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+}
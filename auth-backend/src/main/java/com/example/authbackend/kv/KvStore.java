@@ -0,0 +1,121 @@
+package com.example.authbackend.kv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine behind the {@code /api/kv} endpoints.
+ */
+public interface KvStore extends Closeable {
+
+    /**
+     * Gets the value stored under a key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key is absent
+     */
+    String get(String key);
+
+    /**
+     * Checks whether a key is present and not expired, without reading its value or counting
+     * as an access for eviction.
+     *
+     * @param key the key
+     * @return true if {@link #get} would find a value now
+     */
+    boolean containsKey(String key);
+
+    /**
+     * Opens a read handle on a value's stored bytes, for writing it out without decoding it.
+     *
+     * @param key the key
+     * @return the handle, which the caller must close, or {@code null} if absent or expired
+     */
+    KvValue open(String key);
+
+    /**
+     * Stores a value, replacing any previous value for the key.
+     *
+     * @param key the key
+     * @param value the value
+     * @throws IOException if the write cannot be made durable
+     */
+    default void put(final String key, final String value) throws IOException {
+        put(key, value, 0);
+    }
+
+    /**
+     * Stores a value that expires after a time-to-live.
+     *
+     * @param key the key
+     * @param value the value
+     * @param ttlMillis time-to-live in milliseconds; 0 or less never expires
+     * @throws IOException if the write cannot be made durable
+     */
+    void put(String key, String value, long ttlMillis) throws IOException;
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return true if the key was present
+     * @throws IOException if the delete cannot be made durable
+     */
+    boolean remove(String key) throws IOException;
+
+    /**
+     * Removes every key.
+     *
+     * @throws IOException if the flush cannot be made durable
+     */
+    void clear() throws IOException;
+
+    /**
+     * Gets the number of stored keys.
+     *
+     * @return the entry count
+     */
+    int size();
+
+    /**
+     * Streams the keys starting with a prefix in ascending order, as a weakly consistent
+     * range scan of the sorted key index.
+     *
+     * @param prefix the prefix; empty for every key
+     * @return the matching keys
+     */
+    default Stream<String> keys(final String prefix) {
+        return keys(prefix, null);
+    }
+
+    /**
+     * Streams the keys starting with a prefix that sort strictly after a cursor key,
+     * so paged listings resume where the previous page stopped.
+     *
+     * @param prefix the prefix; empty for every key
+     * @param after exclusive lower bound, or {@code null} to start at the prefix
+     * @return the matching keys
+     */
+    Stream<String> keys(String prefix, String after);
+
+    /**
+     * Gets size, expiry and eviction counters.
+     *
+     * @return the current stats
+     */
+    KvStats stats();
+
+    /**
+     * Runs a batch of operations in order. Writes are committed with a single fsync at the end.
+     * When {@code atomic} is set, the writes are journaled as one record and applied while other
+     * writers are excluded, so either all of them survive a crash or none do.
+     *
+     * @param batch the operations
+     * @param atomic whether the writes must be all-or-nothing
+     * @return one outcome per operation
+     * @throws IOException if the writes cannot be made durable; in atomic mode nothing was applied
+     */
+    List<KvBatch.Outcome> execute(KvBatch batch, boolean atomic) throws IOException;
+}
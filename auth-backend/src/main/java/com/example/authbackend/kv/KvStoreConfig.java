@@ -0,0 +1,53 @@
+package com.example.authbackend.kv;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Selects the {@link KvStore} engine from the {@code kv.*} properties.
+ */
+@Configuration
+public class KvStoreConfig {
+
+    /**
+     * Creates the KV store bean.
+     *
+     * @param engine {@code log} for the durable engine, {@code memory} for a volatile map
+     * @param dataDir directory for the durable engine's logs and snapshots
+     * @param snapshotIntervalMs how often the durable engine checks whether to snapshot
+     * @param snapshotMinLogBytes log size that triggers a snapshot
+     * @param expiryTickMs timer wheel resolution for TTL expiry
+     * @param maxBytes memory budget in approximate heap bytes; 0 for unbounded
+     * @param eviction {@code lru} or {@code lfu}
+     * @param valueStorage {@code heap} for strings, {@code offheap} for UTF-8 slab storage
+     * @param compressMinBytes smallest off-heap value worth deflating; 0 disables compression
+     * @return the configured store
+     * @throws IOException if the durable engine cannot recover its data directory
+     */
+    @Bean(destroyMethod = "close")
+    public KvStore kvStore(
+        @Value("${kv.engine:log}") final String engine,
+        @Value("${kv.data-dir:data/kv}") final String dataDir,
+        @Value("${kv.snapshot.interval-ms:60000}") final long snapshotIntervalMs,
+        @Value("${kv.snapshot.min-log-bytes:4194304}") final long snapshotMinLogBytes,
+        @Value("${kv.expiry.tick-ms:1000}") final long expiryTickMs,
+        @Value("${kv.max-bytes:0}") final long maxBytes,
+        @Value("${kv.eviction:lru}") final String eviction,
+        @Value("${kv.value-storage:heap}") final String valueStorage,
+        @Value("${kv.compress-min-bytes:1024}") final int compressMinBytes) throws IOException {
+
+        final EvictionPolicy policy = EvictionPolicy.valueOf(eviction.toUpperCase());
+        final ValueStorage storage = "offheap".equalsIgnoreCase(valueStorage)
+            ? ValueStorage.offHeap(compressMinBytes)
+            : ValueStorage.heap();
+        if ("memory".equalsIgnoreCase(engine)) {
+            return new InMemoryKvStore(expiryTickMs, maxBytes, policy, storage);
+        }
+        return new DurableKvStore(Paths.get(dataDir).toAbsolutePath(), snapshotIntervalMs, snapshotMinLogBytes,
+            expiryTickMs, maxBytes, policy, storage);
+    }
+}
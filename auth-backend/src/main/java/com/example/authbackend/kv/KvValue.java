@@ -0,0 +1,53 @@
+package com.example.authbackend.kv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Read handle on a stored value that exposes its UTF-8 bytes without decoding them to a
+ * {@code String}. Off-heap values stay pinned until the handle is closed, so it must be
+ * closed promptly, typically with try-with-resources.
+ */
+public interface KvValue extends Closeable {
+
+    /**
+     * Gets the length of the value in UTF-8 bytes.
+     *
+     * @return the decoded length
+     */
+    int length();
+
+    /**
+     * Whether the value is stored zlib-deflated.
+     *
+     * @return the flag
+     */
+    boolean deflated();
+
+    /**
+     * Gets the length of the stored form; equal to {@link #length()} unless {@link #deflated()}.
+     *
+     * @return the stored length
+     */
+    int storedLength();
+
+    /**
+     * Writes the stored form: zlib-deflated UTF-8 if {@link #deflated()}, plain UTF-8 otherwise.
+     *
+     * @param out the destination
+     * @throws IOException if writing fails
+     */
+    void writeStoredTo(OutputStream out) throws IOException;
+
+    /**
+     * Writes the value as plain UTF-8, inflating it if needed.
+     *
+     * @param out the destination
+     * @throws IOException if writing fails
+     */
+    void writeTo(OutputStream out) throws IOException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,119 @@
+package com.example.authbackend.kv;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memcached-style slab allocator over direct memory.
+ *
+ * <p>Chunk sizes grow geometrically by {@value #GROWTH_FACTOR} from {@value #MIN_CHUNK} bytes.
+ * When a size class runs dry it carves a fresh {@code slabBytes} direct buffer into chunks of
+ * its size; freed chunks go back on that class' free list and slabs are never returned, so
+ * off-heap usage tracks the high-water mark of each class. Requests larger than the biggest
+ * class get a dedicated buffer that is left to the garbage collector's cleaner when freed.</p>
+ */
+final class SlabAllocator {
+
+    private static final int MIN_CHUNK = 64;
+    private static final double GROWTH_FACTOR = 1.25;
+
+    private final int slabBytes;
+    private final int[] classSizes;
+    private final ArrayDeque<ByteBuffer>[] freeLists;
+    private final AtomicLong reserved = new AtomicLong();
+
+    /**
+     * Creates an allocator.
+     *
+     * @param slabBytes size of each direct buffer carved into chunks; the largest size class
+     *                  is a quarter of it
+     */
+    SlabAllocator(final int slabBytes) {
+        this.slabBytes = slabBytes;
+        final List<Integer> sizes = new ArrayList<>();
+        for (int size = MIN_CHUNK; size <= slabBytes / 4; size = (int) Math.ceil(size * GROWTH_FACTOR / 8) * 8) {
+            sizes.add(size);
+        }
+        this.classSizes = sizes.stream().mapToInt(Integer::intValue).toArray();
+        this.freeLists = newFreeLists(classSizes.length);
+    }
+
+    /**
+     * Java cannot create an array of a generic type; the raw array only ever holds deques of
+     * chunks, which it is filled with here before anything else can see it.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArrayDeque<ByteBuffer>[] newFreeLists(final int classes) {
+        final ArrayDeque<ByteBuffer>[] lists = new ArrayDeque[classes];
+        for (int i = 0; i < classes; i++) {
+            lists[i] = new ArrayDeque<>();
+        }
+        return lists;
+    }
+
+    /**
+     * Allocates a chunk of at least {@code size} bytes. Chunks are independent buffers sharing
+     * their slab's memory; only absolute get/put methods may be used on them concurrently.
+     *
+     * @param size the requested size
+     * @return a chunk whose capacity is the size class, or exactly {@code size} for huge requests
+     */
+    ByteBuffer allocate(final int size) {
+        final int cls = classOf(size);
+        if (cls < 0) {
+            reserved.addAndGet(size);
+            return ByteBuffer.allocateDirect(size);
+        }
+        final ArrayDeque<ByteBuffer> free = freeLists[cls];
+        synchronized (free) {
+            if (free.isEmpty()) {
+                final int chunk = classSizes[cls];
+                final ByteBuffer slab = ByteBuffer.allocateDirect(slabBytes - slabBytes % chunk);
+                reserved.addAndGet(slab.capacity());
+                for (int offset = 0; offset < slab.capacity(); offset += chunk) {
+                    free.push(slab.slice(offset, chunk));
+                }
+            }
+            return free.pop();
+        }
+    }
+
+    /**
+     * Returns a chunk obtained from {@link #allocate(int)}.
+     *
+     * @param chunk the chunk, which must not be used afterwards
+     */
+    void free(final ByteBuffer chunk) {
+        final int cls = Arrays.binarySearch(classSizes, chunk.capacity());
+        if (cls < 0) {
+            reserved.addAndGet(-chunk.capacity());
+            return;
+        }
+        final ArrayDeque<ByteBuffer> free = freeLists[cls];
+        synchronized (free) {
+            free.push(chunk);
+        }
+    }
+
+    /**
+     * Gets the direct memory held by slabs and huge chunks.
+     *
+     * @return the reserved bytes
+     */
+    long reservedBytes() {
+        return reserved.get();
+    }
+
+    private int classOf(final int size) {
+        final int i = Arrays.binarySearch(classSizes, size);
+        if (i >= 0) {
+            return i;
+        }
+        final int insertion = -i - 1;
+        return insertion < classSizes.length ? insertion : -1;
+    }
+}
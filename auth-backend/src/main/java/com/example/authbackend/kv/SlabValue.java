@@ -0,0 +1,153 @@
+package com.example.authbackend.kv;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * UTF-8 value held in a {@link SlabAllocator} chunk, optionally zlib-deflated.
+ */
+final class SlabValue extends StoredValue {
+
+    private static final AtomicIntegerFieldUpdater<SlabValue> REFS =
+        AtomicIntegerFieldUpdater.newUpdater(SlabValue.class, "refs");
+    private static final int COPY_BUFFER = 8192;
+
+    private final SlabAllocator allocator;
+    private final ByteBuffer chunk;
+    private final int storedLength;
+    private final int length;
+    private final boolean deflated;
+    private volatile int refs = 1;
+
+    SlabValue(final SlabAllocator allocator, final ByteBuffer chunk, final int storedLength,
+              final int length, final boolean deflated) {
+        this.allocator = allocator;
+        this.chunk = chunk;
+        this.storedLength = storedLength;
+        this.length = length;
+        this.deflated = deflated;
+    }
+
+    @Override
+    int footprint() {
+        return chunk.capacity();
+    }
+
+    @Override
+    String read() {
+        final byte[] bytes = utf8();
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    byte[] utf8() {
+        if (!retain()) {
+            return null;
+        }
+        try {
+            return decode();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    KvValue open() {
+        return retain() ? new Lease() : null;
+    }
+
+    @Override
+    void release() {
+        if (REFS.decrementAndGet(this) == 0) {
+            allocator.free(chunk);
+        }
+    }
+
+    private boolean retain() {
+        while (true) {
+            final int r = refs;
+            if (r == 0) {
+                return false;
+            }
+            if (REFS.compareAndSet(this, r, r + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private byte[] decode() {
+        final byte[] bytes = new byte[length];
+        if (!deflated) {
+            chunk.get(0, bytes);
+            return bytes;
+        }
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(chunk.slice(0, storedLength));
+            int n = 0;
+            while (n < length && !inflater.finished()) {
+                n += inflater.inflate(bytes, n, length - n);
+            }
+            return bytes;
+        } catch (final DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt off-heap KV value", e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Pins the chunk until closed.
+     */
+    private final class Lease implements KvValue {
+        private boolean closed;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public boolean deflated() {
+            return deflated;
+        }
+
+        @Override
+        public int storedLength() {
+            return storedLength;
+        }
+
+        @Override
+        public void writeStoredTo(final OutputStream out) throws IOException {
+            final byte[] buffer = new byte[Math.min(COPY_BUFFER, storedLength)];
+            for (int offset = 0; offset < storedLength; offset += buffer.length) {
+                final int n = Math.min(buffer.length, storedLength - offset);
+                chunk.get(offset, buffer, 0, n);
+                out.write(buffer, 0, n);
+            }
+        }
+
+        @Override
+        public void writeTo(final OutputStream out) throws IOException {
+            if (deflated) {
+                out.write(decode());
+            } else {
+                writeStoredTo(out);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.authbackend.kv;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compacted point-in-time image of a {@link DurableKvStore}.
+ *
+ * <p>Layout: {@code [int magic][int sizeHint]} then {@code [byte 1][key][value][long expiresAt]} per entry,
+ * a {@code [byte 0]} terminator and a CRC32 of everything before it. Strings are
+ * {@code [int length][UTF-8 bytes]}. Files are written to a temp name, forced and renamed,
+ * so a reader only ever sees complete snapshots.</p>
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC_V1 = 0x4B565331; // "KVS1", no expiry field
+    private static final int MAGIC = 0x4B565332; // "KVS2"
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot atomically.
+     *
+     * @param target the final snapshot path
+     * @param sizeHint approximate number of entries, recorded for tooling
+     * @param entries the entries to write; expired ones are skipped
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(final Path target, final int sizeHint,
+                      final Iterator<Map.Entry<String, KvEntry>> entries) throws IOException {
+        final long now = System.currentTimeMillis();
+        final Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), new CRC32());
+            final DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(sizeHint);
+            while (entries.hasNext()) {
+                final Map.Entry<String, KvEntry> entry = entries.next();
+                final KvEntry value = entry.getValue();
+                final byte[] bytes = value.isExpired(now) ? null : value.value.utf8();
+                if (bytes == null) {
+                    continue; // expired, or replaced since the log rotation and so in the new log
+                }
+                out.writeByte(1);
+                writeString(out, entry.getKey());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                out.writeLong(value.expiresAt);
+            }
+            out.writeByte(0);
+            out.flush();
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Callback for entries read back from a snapshot.
+     */
+    interface Sink {
+        void entry(String key, String value, long expiresAt);
+    }
+
+    /**
+     * Reads a snapshot, streaming entries to the sink as they are decoded. The checksum is only
+     * known at the end, so on failure the caller must discard whatever the sink received.
+     *
+     * @param source the snapshot path
+     * @param sink receives every entry
+     * @throws IOException if the file is unreadable or fails verification
+     */
+    static void read(final Path source, final Sink sink) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+            new BufferedInputStream(Files.newInputStream(source), BUFFER_SIZE), new CRC32())) {
+            final DataInputStream in = new DataInputStream(checked);
+            final int magic = in.readInt();
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                throw new IOException("Not a KV snapshot: " + source);
+            }
+            in.readInt(); // size hint
+            while (in.readByte() == 1) {
+                final String key = readString(in);
+                final String value = readString(in);
+                sink.entry(key, value, magic == MAGIC ? in.readLong() : 0);
+            }
+            final int actual = (int) checked.getChecksum().getValue();
+            if (in.readInt() != actual) {
+                throw new IOException("Corrupt KV snapshot: " + source);
+            }
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.authbackend.kv;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Concurrent sorted set of live keys, kept beside the hash map so prefix listings are a
+ * range scan instead of a full-map filter and sort.
+ *
+ * <p>Stores call {@link #add} and {@link #remove} from inside the map's per-key
+ * {@code compute}, so the index never disagrees with the map about a key for longer
+ * than that call.</p>
+ */
+final class SortedKeyIndex {
+
+    private final ConcurrentSkipListSet<String> keys = new ConcurrentSkipListSet<>();
+
+    void add(final String key) {
+        keys.add(key);
+    }
+
+    void remove(final String key) {
+        keys.remove(key);
+    }
+
+    void clear() {
+        keys.clear();
+    }
+
+    /**
+     * Streams keys starting with a prefix in ascending order, lazily.
+     *
+     * @param prefix the prefix; empty for every key
+     * @param after exclusive lower bound, or {@code null} to start at the prefix
+     * @return the matching keys
+     */
+    Stream<String> withPrefix(final String prefix, final String after) {
+        final NavigableSet<String> tail = after != null && after.compareTo(prefix) >= 0
+            ? keys.tailSet(after, false)
+            : keys.tailSet(prefix, true);
+        if (prefix.isEmpty()) {
+            return tail.stream();
+        }
+        return tail.stream().takeWhile(k -> k.startsWith(prefix));
+    }
+}
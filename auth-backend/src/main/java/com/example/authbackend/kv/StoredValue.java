@@ -0,0 +1,45 @@
+package com.example.authbackend.kv;
+
+/**
+ * A value as held by a {@link KvEntry}, in whatever representation the {@link ValueStorage} chose.
+ *
+ * <p>Off-heap values are reference counted: the map owns one reference, released by the store
+ * when the entry is replaced or removed, and readers take a temporary one so the slab chunk is
+ * not recycled under them. Every read method therefore returns {@code null} once the value has
+ * been freed; callers re-read the map, where they will find its replacement.</p>
+ */
+abstract class StoredValue {
+
+    /**
+     * Gets the bytes this value is charged against the memory budget.
+     *
+     * @return the footprint
+     */
+    abstract int footprint();
+
+    /**
+     * Decodes the value.
+     *
+     * @return the value, or {@code null} if it has been freed
+     */
+    abstract String read();
+
+    /**
+     * Copies the value as plain UTF-8.
+     *
+     * @return the bytes, or {@code null} if the value has been freed
+     */
+    abstract byte[] utf8();
+
+    /**
+     * Opens a read handle.
+     *
+     * @return the handle, or {@code null} if the value has been freed
+     */
+    abstract KvValue open();
+
+    /**
+     * Drops the owner's reference; called once, by the store, when the entry leaves the map.
+     */
+    abstract void release();
+}
@@ -0,0 +1,106 @@
+package com.example.authbackend.kv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel for key expiry.
+ *
+ * <p>Scheduling is a lock-free enqueue into the slot for the deadline's tick, so a
+ * {@code POST} with a TTL never creates a task or touches a shared heap. A single
+ * housekeeping thread calls {@link #advance} once per tick; timeouts whose deadline is
+ * more than one revolution away simply stay in their slot until a later pass.</p>
+ */
+final class TimerWheel {
+
+    /**
+     * Receives due timeouts.
+     */
+    interface Expirer {
+        void expire(String key, long expiresAt);
+    }
+
+    private static final class Timeout {
+        final String key;
+        final long expiresAt;
+
+        Timeout(final String key, final long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout>[] slots;
+    private volatile long currentTick;
+
+    TimerWheel(final long tickMillis, final int slotCount, final long now) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("slotCount must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = slotCount - 1;
+        this.slots = newSlots(slotCount);
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Java cannot create an array of a generic type; the raw array only ever holds queues of
+     * {@link Timeout}, which it is filled with here before anything else can see it.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ConcurrentLinkedQueue<Timeout>[] newSlots(final int slotCount) {
+        final ConcurrentLinkedQueue<Timeout>[] slots = new ConcurrentLinkedQueue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        return slots;
+    }
+
+    long tickMillis() {
+        return tickMillis;
+    }
+
+    void schedule(final String key, final long expiresAt) {
+        // A deadline inside a tick that was already swept goes into the next one to be swept
+        final long tick = Math.max(expiresAt / tickMillis, currentTick);
+        slots[(int) tick & mask].add(new Timeout(key, expiresAt));
+    }
+
+    /**
+     * Fires every timeout due by {@code now}. Must only be called from one thread.
+     *
+     * @param now the current time in milliseconds
+     * @param expirer receives each due timeout
+     */
+    void advance(final long now, final Expirer expirer) {
+        final long targetTick = now / tickMillis;
+        // After a long stall, one pass over every slot covers all missed ticks
+        final long firstTick = Math.max(currentTick, targetTick - mask);
+        final List<Timeout> notYetDue = new ArrayList<>();
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            final ConcurrentLinkedQueue<Timeout> slot = slots[(int) tick & mask];
+            Timeout t;
+            while ((t = slot.poll()) != null) {
+                if (t.expiresAt <= now) {
+                    expirer.expire(t.key, t.expiresAt);
+                } else {
+                    notYetDue.add(t);
+                }
+            }
+            for (final Timeout later : notYetDue) {
+                slot.add(later);
+            }
+            notYetDue.clear();
+        }
+        currentTick = targetTick + 1;
+    }
+
+    void clear() {
+        for (final ConcurrentLinkedQueue<Timeout> slot : slots) {
+            slot.clear();
+        }
+    }
+}
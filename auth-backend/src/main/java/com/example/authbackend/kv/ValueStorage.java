@@ -0,0 +1,107 @@
+package com.example.authbackend.kv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * How a store keeps its values: as heap {@code String}s, or as UTF-8 bytes in off-heap slabs.
+ *
+ * <p>Off-heap storage roughly halves the footprint of non-Latin-1 text, which Java holds as
+ * UTF-16, and takes bulky values out of the garbage collector's way entirely. Values at least
+ * {@code compressMinBytes} long are deflated when that saves at least an eighth of their size;
+ * {@code GET} can hand the deflated bytes to clients that accept {@code Content-Encoding: deflate}.</p>
+ */
+public abstract class ValueStorage {
+
+    private static final int SLAB_BYTES = 1 << 20;
+
+    ValueStorage() {
+    }
+
+    /**
+     * Keeps values as heap strings.
+     *
+     * @return the storage
+     */
+    public static ValueStorage heap() {
+        return new ValueStorage() {
+            @Override
+            StoredValue store(final String value) {
+                return new HeapValue(value);
+            }
+
+            @Override
+            long offHeapBytes() {
+                return 0;
+            }
+
+            @Override
+            public String toString() {
+                return "heap";
+            }
+        };
+    }
+
+    /**
+     * Keeps values as UTF-8 in off-heap slabs.
+     *
+     * @param compressMinBytes smallest value worth deflating; 0 disables compression
+     * @return the storage
+     */
+    public static ValueStorage offHeap(final int compressMinBytes) {
+        final SlabAllocator allocator = new SlabAllocator(SLAB_BYTES);
+        return new ValueStorage() {
+            @Override
+            StoredValue store(final String value) {
+                final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                byte[] stored = utf8;
+                int storedLength = utf8.length;
+                if (compressMinBytes > 0 && utf8.length >= compressMinBytes) {
+                    final byte[] compressed = new byte[utf8.length - utf8.length / 8];
+                    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                    try {
+                        deflater.setInput(utf8);
+                        deflater.finish();
+                        final int n = deflater.deflate(compressed);
+                        if (deflater.finished()) {
+                            stored = compressed;
+                            storedLength = n;
+                        }
+                    } finally {
+                        deflater.end();
+                    }
+                }
+                final ByteBuffer chunk = allocator.allocate(Math.max(1, storedLength));
+                chunk.put(0, stored, 0, storedLength);
+                return new SlabValue(allocator, chunk, storedLength, utf8.length, stored != utf8);
+            }
+
+            @Override
+            long offHeapBytes() {
+                return allocator.reservedBytes();
+            }
+
+            @Override
+            public String toString() {
+                return "offheap";
+            }
+        };
+    }
+
+    /**
+     * Encodes a value for storage. The result holds one reference, owned by the caller until
+     * it is installed in the map.
+     *
+     * @param value the value
+     * @return the stored form
+     */
+    abstract StoredValue store(String value);
+
+    /**
+     * Gets the direct memory reserved for values.
+     *
+     * @return the reserved bytes
+     */
+    abstract long offHeapBytes();
+}
@@ -0,0 +1,142 @@
+package com.example.authbackend.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ *
+ * <p>Each power of two of nanoseconds is split into {@value #SUB_BUCKETS} equal buckets, so any
+ * latency from 1 ns to over an hour lands in one of about 1,200 buckets and a quantile read back
+ * is within about 3% of the true value. Recording is an index computation and one atomic
+ * increment, with no lock and no allocation; readers take a {@link #snapshot}.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Latencies are clamped below 2^42 ns, about 73 minutes. */
+    private static final int MAX_BIT = 42;
+    private static final int BUCKETS = (MAX_BIT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /** Counts read from a histogram at one point in time. */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sumNanos;
+        private final long maxNanos;
+
+        private Snapshot(final long[] counts, final long count, final long sumNanos, final long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * Gets the number of latencies recorded.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the total of all latencies recorded.
+         *
+         * @return nanoseconds
+         */
+        public long getSumNanos() {
+            return sumNanos;
+        }
+
+        /**
+         * Gets the longest latency recorded.
+         *
+         * @return nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Gets a quantile.
+         *
+         * @param quantile from 0 to 1
+         * @return the middle of the bucket holding it, in nanoseconds; 0 if nothing was recorded
+         */
+        public long quantileNanos(final double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(maxNanos, (lowerBound(i) + lowerBound(i + 1)) / 2);
+                }
+            }
+            return maxNanos;
+        }
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Records the time since a {@link System#nanoTime()} reading.
+     *
+     * @param startNanos when the timed work started
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Reads the histogram. Latencies recorded meanwhile may or may not be included.
+     *
+     * @return the counts so far
+     */
+    public Snapshot snapshot() {
+        final long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int index(final long nanos) {
+        final long value = Math.min(nanos, (1L << MAX_BIT) - 1);
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.authbackend.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The service's metrics, written out in the Prometheus text format by {@link #scrape}.
+ *
+ * <p>Recorders handed out here ({@link LatencyHistogram}, {@link RateMeter}, {@link LongAdder})
+ * are looked up once by their owner and then recorded into directly, with no lock and no map
+ * lookup on the hot path. Values that components already count are registered as functions and
+ * only read when scraped. Per-endpoint request latencies are kept by route pattern and method,
+ * found with two lock-free map reads. Methods outside the standard ones are counted together
+ * as {@code OTHER}, so clients cannot add series by making methods up.</p>
+ *
+ * <p>Latency histograms are exposed as summaries with fixed quantiles since startup, plus a
+ * {@code _max} gauge.</p>
+ */
+@Component
+public class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String REQUEST_METRIC = "http_server_request_seconds";
+    private static final String RESPONSES_METRIC = "http_server_responses_total";
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final Set<String> METHODS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS",
+        "TRACE");
+    private static final String OTHER_METHOD = "OTHER";
+
+    /** Latency and response statuses of one route and method. */
+    public static final class Endpoint {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder[] statuses = new LongAdder[STATUS_CLASSES.length];
+
+        Endpoint() {
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records one request.
+         *
+         * @param status the response status
+         * @param startNanos the {@link System#nanoTime()} when it arrived
+         */
+        public void record(final int status, final long startNanos) {
+            latency.recordSince(startNanos);
+            statuses[Math.max(0, Math.min(STATUS_CLASSES.length - 1, status / 100 - 1))].increment();
+        }
+    }
+
+    /** One registered metric family. */
+    private abstract static class Metric {
+        final String help;
+
+        Metric(final String help) {
+            this.help = help;
+        }
+
+        void header(final StringBuilder out, final String name, final String type) {
+            header(out, name, type, help);
+        }
+
+        void header(final StringBuilder out, final String name, final String type, final String text) {
+            out.append("# HELP ").append(name).append(' ').append(text).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+
+        abstract void write(StringBuilder out, String name);
+    }
+
+    private static final class TimerMetric extends Metric {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        TimerMetric(final String help) {
+            super(help);
+        }
+
+        @Override
+        void write(final StringBuilder out, final String name) {
+            final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            header(out, name, "summary");
+            writeSummary(out, name, "", snapshot);
+            header(out, name + "_max", "gauge", "Longest of: " + help);
+            sample(out, name + "_max", "", seconds(snapshot.getMaxNanos()));
+        }
+    }
+
+    private static final class CounterMetric extends Metric {
+        private final LongAdder adder = new LongAdder();
+
+        CounterMetric(final String help) {
+            super(help);
+        }
+
+        @Override
+        void write(final StringBuilder out, final String name) {
+            header(out, name, "counter");
+            sample(out, name, "", adder.sum());
+        }
+    }
+
+    private static final class RateMetric extends Metric {
+        private final RateMeter meter = new RateMeter();
+
+        RateMetric(final String help) {
+            super(help);
+        }
+
+        @Override
+        void write(final StringBuilder out, final String name) {
+            header(out, name, "gauge");
+            sample(out, name, "", meter.perSecond());
+        }
+    }
+
+    private static final class FunctionMetric extends Metric {
+        private final String type;
+        private final DoubleSupplier value;
+
+        FunctionMetric(final String help, final String type, final DoubleSupplier value) {
+            super(help);
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        void write(final StringBuilder out, final String name) {
+            header(out, name, type);
+            sample(out, name, "", value.getAsDouble());
+        }
+    }
+
+    private final ConcurrentSkipListMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Endpoint>> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a latency histogram, registering it on first use.
+     *
+     * @param name the metric name, ending in {@code _seconds}
+     * @param help what it measures
+     * @return the histogram to record into
+     * @throws IllegalArgumentException if the name is taken by another kind of metric
+     */
+    public LatencyHistogram timer(final String name, final String help) {
+        return registered(name, TimerMetric.class, () -> new TimerMetric(help)).histogram;
+    }
+
+    /**
+     * Gets a counter, registering it on first use.
+     *
+     * @param name the metric name, ending in {@code _total}
+     * @param help what it counts
+     * @return the adder to count with
+     * @throws IllegalArgumentException if the name is taken by another kind of metric
+     */
+    public LongAdder counter(final String name, final String help) {
+        return registered(name, CounterMetric.class, () -> new CounterMetric(help)).adder;
+    }
+
+    /**
+     * Gets a rate over the last minute, exposed as a gauge and registered on first use.
+     *
+     * @param name the metric name, ending in {@code _per_second}
+     * @param help what it measures
+     * @return the meter to record into
+     * @throws IllegalArgumentException if the name is taken by another kind of metric
+     */
+    public RateMeter rate(final String name, final String help) {
+        return registered(name, RateMetric.class, () -> new RateMetric(help)).meter;
+    }
+
+    /**
+     * Registers a value read when scraped, such as a size.
+     *
+     * @param name the metric name
+     * @param help what it measures
+     * @param value reads the current value
+     */
+    public void gauge(final String name, final String help, final DoubleSupplier value) {
+        function(name, help, "gauge", value);
+    }
+
+    /**
+     * Registers a count kept elsewhere, read when scraped.
+     *
+     * @param name the metric name, ending in {@code _total}
+     * @param help what it counts
+     * @param total reads the count since startup
+     */
+    public void counter(final String name, final String help, final DoubleSupplier total) {
+        function(name, help, "counter", total);
+    }
+
+    /**
+     * Gets the recorder of one endpoint.
+     *
+     * @param method the HTTP method; any but the standard ones is recorded as {@code OTHER}
+     * @param route the route pattern, such as {@code /api/kv/{key}}, not the request path
+     * @return the endpoint's recorder
+     */
+    public Endpoint endpoint(final String method, final String route) {
+        final String label = METHODS.contains(method) ? method : OTHER_METHOD;
+        final ConcurrentHashMap<String, Endpoint> byMethod = endpoints.computeIfAbsent(route,
+            r -> new ConcurrentHashMap<>());
+        final Endpoint endpoint = byMethod.get(label);
+        return endpoint != null ? endpoint : byMethod.computeIfAbsent(label, m -> new Endpoint());
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format, version 0.0.4.
+     *
+     * @return the scrape body
+     */
+    public String scrape() {
+        final StringBuilder out = new StringBuilder(8192);
+        final Map<String, Map<String, Endpoint>> sorted = new TreeMap<>();
+        endpoints.forEach((route, byMethod) -> sorted.put(route, new TreeMap<>(byMethod)));
+        if (!sorted.isEmpty()) {
+            out.append("# HELP ").append(REQUEST_METRIC).append(" Time to handle /api requests, by route\n");
+            out.append("# TYPE ").append(REQUEST_METRIC).append(" summary\n");
+            sorted.forEach((route, byMethod) -> byMethod.forEach((method, endpoint) ->
+                writeSummary(out, REQUEST_METRIC, labels(method, route), endpoint.latency.snapshot())));
+            out.append("# HELP ").append(REQUEST_METRIC).append("_max Longest /api request, by route\n");
+            out.append("# TYPE ").append(REQUEST_METRIC).append("_max gauge\n");
+            sorted.forEach((route, byMethod) -> byMethod.forEach((method, endpoint) ->
+                sample(out, REQUEST_METRIC + "_max", labels(method, route),
+                    seconds(endpoint.latency.snapshot().getMaxNanos()))));
+            out.append("# HELP ").append(RESPONSES_METRIC).append(" Responses to /api requests, by route and status\n");
+            out.append("# TYPE ").append(RESPONSES_METRIC).append(" counter\n");
+            sorted.forEach((route, byMethod) -> byMethod.forEach((method, endpoint) -> {
+                for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                    final long count = endpoint.statuses[i].sum();
+                    if (count > 0) {
+                        sample(out, RESPONSES_METRIC,
+                            labels(method, route) + ",status=\"" + STATUS_CLASSES[i] + "\"", count);
+                    }
+                }
+            }));
+        }
+        metrics.forEach((name, metric) -> metric.write(out, name));
+        return out.toString();
+    }
+
+    private void function(final String name, final String help, final String type, final DoubleSupplier value) {
+        metrics.put(name, new FunctionMetric(help, type, value));
+    }
+
+    private <T extends Metric> T registered(final String name, final Class<T> kind, final Supplier<T> create) {
+        final Metric metric = metrics.computeIfAbsent(name, n -> create.get());
+        if (!kind.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as another kind");
+        }
+        return kind.cast(metric);
+    }
+
+    private static void writeSummary(final StringBuilder out, final String name, final String labels,
+                                     final LatencyHistogram.Snapshot snapshot) {
+        final String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (final double quantile : QUANTILES) {
+            sample(out, name, prefix + "quantile=\"" + quantile + "\"", seconds(snapshot.quantileNanos(quantile)));
+        }
+        sample(out, name + "_sum", labels, seconds(snapshot.getSumNanos()));
+        sample(out, name + "_count", labels, snapshot.getCount());
+    }
+
+    private static void sample(final StringBuilder out, final String name, final String labels, final double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.9g", value));
+        }
+        out.append('\n');
+    }
+
+    private static String labels(final String method, final String route) {
+        return "method=\"" + escape(method) + "\",route=\"" + escape(route) + "\"";
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(final long nanos) {
+        return nanos / 1e9;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.authbackend.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free rate over the last minute, e.g. bytes per second.
+ *
+ * <p>Each second of the minute has a slot holding that second's number in its top bits and
+ * its amount in the rest, updated by compare-and-set; a slot still stamped with a second a
+ * minute old is reset by whichever recorder reaches it first, so no amount is lost to a
+ * concurrent reset.</p>
+ */
+public final class RateMeter {
+
+    private static final int SECONDS = 60;
+    private static final int AMOUNT_BITS = 40;
+    private static final long AMOUNT_MASK = (1L << AMOUNT_BITS) - 1;
+    private static final long STAMP_MASK = (1L << (Long.SIZE - AMOUNT_BITS)) - 1;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SECONDS);
+    private final long origin = System.nanoTime();
+
+    /**
+     * Adds an amount at the current second.
+     *
+     * @param amount the amount, e.g. bytes received
+     */
+    public void record(final long amount) {
+        final long second = second();
+        final int slot = (int) (second % SECONDS);
+        final long stamp = second & STAMP_MASK;
+        while (true) {
+            final long current = slots.get(slot);
+            final long base = (current >>> AMOUNT_BITS) == stamp ? current & AMOUNT_MASK : 0;
+            final long next = (stamp << AMOUNT_BITS) | Math.min(AMOUNT_MASK, base + amount);
+            if (slots.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the average rate over the last minute, leaving out the second in progress.
+     *
+     * @return the amount per second
+     */
+    public double perSecond() {
+        final long now = second();
+        final long from = Math.max(0, now - SECONDS + 1);
+        if (from == now) {
+            return 0;
+        }
+        long total = 0;
+        for (long second = from; second < now; second++) {
+            final long value = slots.get((int) (second % SECONDS));
+            if ((value >>> AMOUNT_BITS) == (second & STAMP_MASK)) {
+                total += value & AMOUNT_MASK;
+            }
+        }
+        return total / (double) (now - from);
+    }
+
+    private long second() {
+        return (System.nanoTime() - origin) / 1_000_000_000L;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.authbackend.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every {@code /api} request into {@link MetricsRegistry}, by route pattern and method.
+ *
+ * <p>It runs first, so the time includes security and JWT verification. Requests no handler
+ * matched, including those rejected before reaching one, are recorded under the route
+ * {@value #UNMATCHED}. For requests that go asynchronous, such as server-sent events, the time
+ * is until the handler returns, not until the stream ends.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+    private static final String UNMATCHED = "unmatched";
+
+    private final MetricsRegistry metrics;
+
+    /**
+     * Constructor.
+     *
+     * @param metrics where latencies are recorded
+     */
+    public RequestMetricsFilter(final MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain filterChain) throws ServletException, IOException {
+
+        final long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            final Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.endpoint(request.getMethod(), route == null ? UNMATCHED : route.toString())
+                .record(failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), started);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.authbackend.metrics;
+
+import com.example.authbackend.files.FileIndex;
+import com.example.authbackend.kv.KvStore;
+import com.example.authbackend.resume.FeedbackCache;
+import com.example.authbackend.resume.FeedbackJobs;
+import com.example.authbackend.security.JwtUtil;
+import com.example.authbackend.security.KeyRing;
+import com.example.authbackend.security.RateLimiter;
+import com.example.authbackend.security.RevocationList;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the sizes and counts components already keep, read only when scraped: the KV
+ * store, the feedback cache and job queue, the verified-token cache, revocations, signing keys,
+ * rate-limit buckets and the upload index. Hit ratios are since startup; Prometheus can derive windowed ones from
+ * the {@code _total} counters.
+ */
+@Component
+public class StandardMetrics {
+
+    /**
+     * Registers the metrics.
+     *
+     * @param metrics the registry
+     * @param kv the KV store
+     * @param feedbackCache the review cache
+     * @param feedbackJobs the review queue
+     * @param jwtUtil the token verifier and its cache
+     * @param revocations revoked token ids
+     * @param keyRing the signing keys
+     * @param rateLimiter the rate-limit buckets
+     * @param files the upload index
+     */
+    public StandardMetrics(final MetricsRegistry metrics, final KvStore kv, final FeedbackCache feedbackCache,
+                           final FeedbackJobs feedbackJobs, final JwtUtil jwtUtil, final RevocationList revocations,
+                           final KeyRing keyRing, final RateLimiter rateLimiter, final FileIndex files) {
+        metrics.gauge("kv_entries", "Keys in the KV store", kv::size);
+        metrics.gauge("kv_bytes", "Bytes of keys and values in the KV store", () -> kv.stats().getBytes());
+        metrics.gauge("kv_off_heap_bytes", "Bytes of KV values held off-heap", () -> kv.stats().getOffHeapBytes());
+        metrics.counter("kv_expired_total", "KV entries removed on expiry", () -> kv.stats().getExpired());
+        metrics.counter("kv_evicted_total", "KV entries evicted to stay under kv.max-bytes",
+            () -> kv.stats().getEvicted());
+
+        metrics.counter("feedback_cache_heap_hits_total", "Reviews served from the heap tier", feedbackCache::heapHits);
+        metrics.counter("feedback_cache_disk_hits_total", "Reviews served from the disk tier", feedbackCache::diskHits);
+        metrics.counter("feedback_cache_misses_total", "Reviews computed", feedbackCache::misses);
+        metrics.counter("feedback_cache_coalesced_total", "Reviews that waited for an identical one in flight",
+            feedbackCache::coalesced);
+        metrics.gauge("feedback_cache_hit_ratio", "Share of reviews served from either cache tier",
+            () -> ratio(feedbackCache.heapHits() + feedbackCache.diskHits(), feedbackCache.misses()));
+        metrics.gauge("feedback_cache_heap_bytes", "Bytes of reviews in the heap tier", feedbackCache::heapBytes);
+        metrics.gauge("feedback_cache_heap_entries", "Reviews in the heap tier", feedbackCache::heapEntries);
+        metrics.gauge("feedback_cache_disk_bytes", "Bytes of reviews in the disk tier", feedbackCache::diskBytes);
+        metrics.gauge("feedback_jobs_queued", "Review jobs waiting for a worker", feedbackJobs::queued);
+        metrics.gauge("feedback_jobs_running", "Review jobs being worked on", feedbackJobs::running);
+
+        metrics.counter("jwt_verified_cache_hits_total", "Tokens answered from the verified-token cache",
+            jwtUtil::verifiedCacheHits);
+        metrics.counter("jwt_verified_cache_misses_total", "Tokens whose signature was checked",
+            jwtUtil::verifiedCacheMisses);
+        metrics.gauge("jwt_verified_cache_hit_ratio", "Share of tokens answered from the verified-token cache",
+            () -> ratio(jwtUtil.verifiedCacheHits(), jwtUtil.verifiedCacheMisses()));
+        metrics.gauge("jwt_revoked_ids", "Token ids and families revoked and not yet expired", revocations::size);
+        metrics.counter("jwt_revocation_false_positives_total", "Revocation checks the Bloom filter passed for nothing",
+            revocations::falsePositives);
+        metrics.gauge("jwt_signing_keys", "Keys tokens are accepted with", keyRing::size);
+        metrics.gauge("rate_limit_buckets", "Rate-limit buckets held, across all limits", rateLimiter::size);
+
+        metrics.gauge("files_indexed", "Uploads in the file index", files::size);
+    }
+
+    private static double ratio(final long hits, final long misses) {
+        final long total = hits + misses;
+        return total == 0 ? Double.NaN : hits / (double) total;
+    }
+}
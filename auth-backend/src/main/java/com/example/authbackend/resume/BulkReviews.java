@@ -0,0 +1,195 @@
+package com.example.authbackend.resume;
+
+import com.example.authbackend.dto.BulkFeedbackDTOs.BulkResult;
+import com.example.authbackend.dto.BulkFeedbackDTOs.BulkSummary;
+import com.example.authbackend.files.FileIndex;
+import com.example.authbackend.files.FileMetadata;
+import com.example.authbackend.kv.KeyGlob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reviews many resumes against one job in parallel.
+ *
+ * <p>The job description is prepared once with {@link ResumeScorer#prepare} and shared by every
+ * review. Reviews run on a fork-join pool of {@code feedback.bulk.parallelism} workers (0 for
+ * one per core), shared by all batches, and each result is handed back as soon as it is done
+ * with its rank among the results so far. Reviews go through {@link ResumeReviewer}, so they
+ * land in the feedback cache and a later single review of the same resume and job is a hit.</p>
+ */
+@Component
+public class BulkReviews implements Closeable {
+
+    /** Receives each result on the calling thread, in the order they finish. */
+    @FunctionalInterface
+    public interface ResultSink {
+        /**
+         * Called once per resume.
+         *
+         * @param result the resume's score and provisional rank, or its error
+         * @throws IOException to stop the batch, e.g. when the client has gone away
+         */
+        void accept(BulkResult result) throws IOException;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkReviews.class);
+    private static final String FILES_PREFIX = "/api/files/";
+    private static final int MAX_SCORE = 100;
+
+    private final ExtractedTextStore texts;
+    private final FileIndex index;
+    private final ResumeReviewer reviewer;
+    private final ObjectMapper mapper;
+    private final int maxFiles;
+    private final ForkJoinPool pool;
+
+    /**
+     * Starts the worker pool.
+     *
+     * @param texts locates uploads by path
+     * @param index the upload index, for glob selection
+     * @param reviewer runs each review
+     * @param mapper reads the score back from a review
+     * @param parallelism number of workers; 0 for one per core
+     * @param maxFiles most resumes one batch may select
+     */
+    public BulkReviews(final ExtractedTextStore texts, final FileIndex index, final ResumeReviewer reviewer,
+                       final ObjectMapper mapper,
+                       @Value("${feedback.bulk.parallelism:0}") final int parallelism,
+                       @Value("${feedback.bulk.max-files:1000}") final int maxFiles) {
+        this.texts = texts;
+        this.index = index;
+        this.reviewer = reviewer;
+        this.mapper = mapper;
+        this.maxFiles = maxFiles;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+            p -> {
+                final ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("feedback-bulk-" + t.getPoolIndex());
+                return t;
+            }, null, false);
+    }
+
+    /**
+     * Gets the paths of the uploads whose names match a pattern.
+     *
+     * @param glob file name pattern with {@code *} wildcards
+     * @return {@code /api/files/...} paths in name order
+     * @throws IllegalArgumentException if more than {@code feedback.bulk.max-files} match
+     */
+    public List<String> matching(final String glob) {
+        final List<FileMetadata> files = new ArrayList<>();
+        index.list(KeyGlob.compile(glob), null, maxFiles + 1, files);
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("More than " + maxFiles + " files match " + glob);
+        }
+        return files.stream().map(f -> FILES_PREFIX + f.getName()).toList();
+    }
+
+    /**
+     * Reviews resumes against one job, passing each result to {@code sink} as it finishes.
+     * A resume that cannot be found or read is reported with an error and does not stop the
+     * others.
+     *
+     * @param paths the resumes, as {@code /api/files/...} paths
+     * @param job the job, prepared once for all of them
+     * @param sink receives each result
+     * @return the final ranking
+     * @throws IllegalArgumentException if there are more than {@code feedback.bulk.max-files} paths
+     * @throws IOException if {@code sink} fails; reviews not yet started are then cancelled
+     */
+    public BulkSummary review(final List<String> paths, final ResumeScorer.PreparedJob job, final ResultSink sink)
+        throws IOException {
+        if (paths.size() > maxFiles) {
+            throw new IllegalArgumentException("At most " + maxFiles + " files per batch");
+        }
+        final long started = System.nanoTime();
+        final ExecutorCompletionService<BulkResult> completion = new ExecutorCompletionService<>(pool);
+        final List<Future<BulkResult>> pending = new ArrayList<>(paths.size());
+        for (final String path : paths) {
+            pending.add(completion.submit(() -> reviewOne(path, job)));
+        }
+
+        // Scores are whole numbers from 0 to 100, so a count per score gives each rank in O(1)
+        final int[] atScore = new int[MAX_SCORE + 1];
+        final List<BulkResult> ranking = new ArrayList<>(paths.size());
+        int failed = 0;
+        try {
+            for (int done = 1; done <= paths.size(); done++) {
+                final BulkResult result = completion.take().get();
+                result.setCompleted(done);
+                if (result.getOverallScore() == null) {
+                    failed++;
+                } else {
+                    final int score = Math.max(0, Math.min(MAX_SCORE, result.getOverallScore()));
+                    atScore[score]++;
+                    int better = 0;
+                    for (int s = score + 1; s <= MAX_SCORE; s++) {
+                        better += atScore[s];
+                    }
+                    result.setRank(better + 1);
+                    ranking.add(new BulkResult(result.getPath(), result.getOverallScore(), null));
+                }
+                sink.accept(result);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during bulk review");
+        } catch (final ExecutionException e) {
+            // reviewOne reports failures as results, so only an Error gets here
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (final Future<BulkResult> future : pending) {
+                future.cancel(false);
+            }
+        }
+
+        ranking.sort(Comparator.comparing(BulkResult::getOverallScore, Comparator.reverseOrder())
+            .thenComparing(BulkResult::getPath));
+        for (int i = 0; i < ranking.size(); i++) {
+            ranking.get(i).setRank(i + 1);
+        }
+        return new BulkSummary(paths.size(), failed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+            ranking);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private BulkResult reviewOne(final String path, final ResumeScorer.PreparedJob job) {
+        try {
+            final FileMetadata file = texts.locate(path);
+            final byte[] json = reviewer.review(file, job, ResumeReviewer.Progress.NONE);
+            return new BulkResult(FILES_PREFIX + file.getName(), mapper.readTree(json).path("overallScore").asInt(),
+                null);
+        } catch (final IllegalArgumentException e) {
+            return new BulkResult(path, null, e.getMessage());
+        } catch (final NoSuchFileException e) {
+            return new BulkResult(path, null, "File not found");
+        } catch (final UnsupportedDocumentException e) {
+            return new BulkResult(path, null, e.getMessage());
+        } catch (final IOException | RuntimeException e) {
+            LOG.warn("Failed to review {}", path, e);
+            return new BulkResult(path, null, "Failed to analyze resume");
+        }
+    }
+}
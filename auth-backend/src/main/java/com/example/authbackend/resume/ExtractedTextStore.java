@@ -0,0 +1,202 @@
+package com.example.authbackend.resume;
+
+import com.example.authbackend.files.FileIndex;
+import com.example.authbackend.files.FileMetadata;
+import com.example.authbackend.files.UploadStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extracted from uploaded PDFs, cached on disk by content hash.
+ *
+ * <p>Each document's pages are kept as newline-delimited JSON, one {@link PageText} per line,
+ * in {@code <upload-dir>/.extracted/<sha256>.ndjson}. That is also the wire format of
+ * {@link #stream}, so a cached document is copied to the client as is, and an uncached one is
+ * sent page by page while it is written to the cache. Identical uploads share one entry, and
+ * since the key is the content hash an entry never goes stale.</p>
+ */
+@Component
+public class ExtractedTextStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExtractedTextStore.class);
+    private static final String FILES_PREFIX = "/api/files/";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Receives each page with its encoded NDJSON line. */
+    @FunctionalInterface
+    private interface EncodedPageSink {
+        void accept(PageText page, byte[] line) throws IOException;
+    }
+
+    private final FileIndex index;
+    private final PdfTextExtractor extractor;
+    private final ObjectMapper mapper;
+    private final Path cacheDir;
+
+    /**
+     * Constructor.
+     *
+     * @param uploads the upload store, whose directory holds the cache
+     * @param index the upload index used to find files
+     * @param extractor the PDF extractor
+     * @param mapper JSON mapper for the cache lines
+     * @throws IOException if the cache directory cannot be created
+     */
+    public ExtractedTextStore(final UploadStore uploads, final FileIndex index, final PdfTextExtractor extractor,
+                              final ObjectMapper mapper) throws IOException {
+        this.index = index;
+        this.extractor = extractor;
+        this.mapper = mapper;
+        this.cacheDir = uploads.root().resolve(".extracted");
+        Files.createDirectories(cacheDir);
+    }
+
+    /**
+     * Finds an uploaded file by the path the upload endpoint returned, or by its bare name.
+     *
+     * @param path {@code /api/files/<name>} or {@code <name>}
+     * @return the file's metadata
+     * @throws IllegalArgumentException if the path does not name an upload
+     * @throws NoSuchFileException if there is no such file
+     * @throws IOException if the file's attributes cannot be read
+     */
+    public FileMetadata locate(final String path) throws IOException {
+        final String name = path.startsWith(FILES_PREFIX) ? path.substring(FILES_PREFIX.length()) : path;
+        if (name.isEmpty() || name.startsWith(".") || name.contains("/") || name.contains("\\")) {
+            throw new IllegalArgumentException("Not an uploaded file: " + path);
+        }
+        final FileMetadata file = index.get(name);
+        if (file == null) {
+            throw new NoSuchFileException(name);
+        }
+        return file;
+    }
+
+    /**
+     * Writes a document's pages to {@code out} as newline-delimited JSON, flushing after each
+     * page when they are extracted on the fly.
+     *
+     * @param file the uploaded PDF
+     * @param out the destination
+     * @throws UnsupportedDocumentException before anything is written, if the file is not a readable PDF
+     * @throws IOException if the file cannot be read or {@code out} fails
+     */
+    public void stream(final FileMetadata file, final OutputStream out) throws IOException {
+        final String hash = hashOf(file);
+        final Path cached = cacheFile(hash);
+        try (InputStream in = Files.newInputStream(cached)) {
+            in.transferTo(out);
+            return;
+        } catch (final NoSuchFileException e) {
+            // Not extracted yet
+        }
+        extract(file, hash, (page, line) -> {
+            out.write(line);
+            out.flush();
+        });
+    }
+
+    /**
+     * Gets a document's pages, extracting them on first use.
+     *
+     * @param file the uploaded PDF
+     * @return the pages in order
+     * @throws UnsupportedDocumentException if the file is not a readable PDF
+     * @throws IOException if the file or cache cannot be read
+     */
+    public List<PageText> pages(final FileMetadata file) throws IOException {
+        final String hash = hashOf(file);
+        final List<PageText> pages = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile(hash), StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                pages.add(mapper.readValue(line, PageText.class));
+            }
+            return pages;
+        } catch (final NoSuchFileException e) {
+            // Not extracted yet
+        }
+        extract(file, hash, (page, line) -> pages.add(page));
+        return pages;
+    }
+
+    /**
+     * Extracts into a temp file that is renamed into the cache once complete, so readers see
+     * either a whole document or none. Two requests racing on the same upload both extract
+     * it and the second rename wins with identical content.
+     */
+    private void extract(final FileMetadata file, final String hash, final EncodedPageSink sink) throws IOException {
+        final long started = System.nanoTime();
+        final Path part = cacheDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            final int pages;
+            try (OutputStream cache = new BufferedOutputStream(
+                Files.newOutputStream(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), BUFFER_SIZE)) {
+                pages = extractor.extract(file.getPath(), page -> {
+                    final byte[] json = mapper.writeValueAsBytes(page);
+                    final byte[] line = new byte[json.length + 1];
+                    System.arraycopy(json, 0, line, 0, json.length);
+                    line[json.length] = '\n';
+                    cache.write(line);
+                    sink.accept(page, line);
+                });
+            }
+            Files.move(part, cacheFile(hash), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            LOG.debug("Extracted {} pages from {} in {} ms", pages, file.getName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private Path cacheFile(final String hash) {
+        return cacheDir.resolve(hash + ".ndjson");
+    }
+
+    /**
+     * Gets the SHA-256 of an upload's content. Content-addressed uploads carry it in the name;
+     * older files are hashed on each call since their content may have changed.
+     *
+     * @param file the upload
+     * @return the lowercase hex digest
+     * @throws IOException if the file cannot be read
+     */
+    public static String hashOf(final FileMetadata file) throws IOException {
+        if (file.getSha256() != null) {
+            return file.getSha256();
+        }
+        final MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+        try (InputStream in = Files.newInputStream(file.getPath())) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                sha256.update(buffer, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+}
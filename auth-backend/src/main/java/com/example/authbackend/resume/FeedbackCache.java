@@ -0,0 +1,410 @@
+package com.example.authbackend.resume;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache of serialized reviews, keyed by what determines a review's content.
+ *
+ * <p>A key hashes the resume's SHA-256, the normalized job title and description, the scorer
+ * version and the skill dictionary version, so any change to one of them is a different key
+ * and entries never need invalidating. Reviews are kept as their UTF-8 JSON.</p>
+ *
+ * <p>The heap tier holds up to {@code feedback.cache.max-bytes}. Over budget it evicts like
+ * the KV store, from a rolling sample, dropping the entry with the largest
+ * {@code idle time × size / load time}: big, cold and cheap-to-recompute entries go first.
+ * The disk tier keeps reviews as {@code <feedback.cache.dir>/<key>.json}, next to the upload
+ * directory by default, so a restart does not lose them. Once its files pass
+ * {@code feedback.cache.disk-max-bytes} the least recently used are deleted, by modification
+ * time, which a disk hit refreshes, until it is back under nine tenths of the budget.</p>
+ *
+ * <p>A miss on both tiers runs the loader once per key however many requests ask for it at
+ * the same time: the first caller computes, and the rest wait for its result.</p>
+ */
+@Component
+public class FeedbackCache {
+
+    /** Computes a review on a miss. */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Computes the review.
+         *
+         * @return the review's UTF-8 JSON
+         * @throws IOException if it cannot be computed
+         */
+        byte[] load() throws IOException;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(FeedbackCache.class);
+    private static final int EVICTION_SAMPLE = 5;
+    private static final String SUFFIX = ".json";
+
+    /** A heap-tier entry. */
+    private static final class Entry {
+        final byte[] json;
+        final long loadMillis;
+        volatile long lastAccess;
+
+        Entry(final byte[] json, final long loadMillis) {
+            this.json = json;
+            this.loadMillis = loadMillis;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        double evictionScore(final long now) {
+            return (double) Math.max(1, now - lastAccess) * json.length / Math.max(1, loadMillis);
+        }
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+    private final long diskMaxBytes;
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final ReentrantLock diskTrimLock = new ReentrantLock();
+    private final ConcurrentHashMap<String, Entry> heap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Map.Entry<String, Entry>> clockHand;
+    private final LongAdder heapHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates the cache, clearing disk entries left half-written by a previous run and
+     * trimming the disk tier to its budget.
+     *
+     * @param dir directory of the disk tier
+     * @param maxBytes heap tier budget
+     * @param diskMaxBytes disk tier budget; 0 for unbounded
+     * @throws IOException if the directory cannot be created or read
+     */
+    public FeedbackCache(@Value("${feedback.cache.dir:feedback-cache}") final String dir,
+                         @Value("${feedback.cache.max-bytes:16777216}") final long maxBytes,
+                         @Value("${feedback.cache.disk-max-bytes:268435456}") final long diskMaxBytes)
+        throws IOException {
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.diskMaxBytes = diskMaxBytes;
+        Files.createDirectories(this.dir);
+        try (Stream<Path> files = Files.list(this.dir)) {
+            for (final Path file : files.toList()) {
+                final String name = file.getFileName().toString();
+                if (name.endsWith(".part")) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    diskBytes.addAndGet(Files.size(file));
+                }
+            }
+        }
+        trimDisk();
+    }
+
+    /**
+     * Derives a cache key.
+     *
+     * @param resumeSha256 the resume file's content hash
+     * @param job the job the resume is reviewed against
+     * @param dictionaryVersion the skill dictionary version
+     * @return the key, a hex SHA-256
+     */
+    public static String key(final String resumeSha256, final JobDescription job, final String dictionaryVersion) {
+        final MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+        sha256.update((resumeSha256 + '\n' + ResumeScorer.VERSION + '\n' + dictionaryVersion + '\n')
+            .getBytes(StandardCharsets.UTF_8));
+        sha256.update(job.normalized().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    /**
+     * Gets a review from the heap or disk tier, or computes it.
+     *
+     * @param key the key from {@link #key}
+     * @param loader computes the review on a miss
+     * @return the review's UTF-8 JSON
+     * @throws IOException if the loader fails; every coalesced caller sees the same failure
+     */
+    public byte[] get(final String key, final Loader loader) throws IOException {
+        final Entry cached = heap.get(key);
+        if (cached != null) {
+            cached.lastAccess = System.currentTimeMillis();
+            heapHits.increment();
+            return cached.json;
+        }
+
+        final CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        final CompletableFuture<byte[]> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            final byte[] json = load(key, loader);
+            mine.complete(json);
+            return json;
+        } catch (final IOException | RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Gets the number of heap tier hits.
+     *
+     * @return the count since startup
+     */
+    public long heapHits() {
+        return heapHits.sum();
+    }
+
+    /**
+     * Gets the number of disk tier hits.
+     *
+     * @return the count since startup
+     */
+    public long diskHits() {
+        return diskHits.sum();
+    }
+
+    /**
+     * Gets the number of reviews computed.
+     *
+     * @return the count since startup
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of requests that waited for an identical one instead of computing.
+     *
+     * @return the count since startup
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the heap tier's size.
+     *
+     * @return bytes of JSON held
+     */
+    public long heapBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Gets the heap tier's entry count.
+     *
+     * @return the count
+     */
+    public int heapEntries() {
+        return heap.size();
+    }
+
+    /**
+     * Gets the disk tier's size.
+     *
+     * @return bytes of review files
+     */
+    public long diskBytes() {
+        return diskBytes.get();
+    }
+
+    private byte[] load(final String key, final Loader loader) throws IOException {
+        // A caller that finished just before we registered has already filled the heap tier
+        final Entry raced = heap.get(key);
+        if (raced != null) {
+            heapHits.increment();
+            return raced.json;
+        }
+        final long started = System.nanoTime();
+        final Path file = dir.resolve(key + SUFFIX);
+        try {
+            final byte[] json = Files.readAllBytes(file);
+            diskHits.increment();
+            touch(file);
+            // How long it originally took is not recorded, so it is weighed as the cheapest
+            put(key, new Entry(json, 1));
+            return json;
+        } catch (final NoSuchFileException e) {
+            // Not reviewed before
+        }
+
+        final byte[] json = loader.load();
+        misses.increment();
+        put(key, new Entry(json, Math.max(1, (System.nanoTime() - started) / 1_000_000)));
+        try {
+            final Path part = dir.resolve(UUID.randomUUID() + ".part");
+            try {
+                Files.write(part, json, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                final long replaced = Files.exists(file) ? Files.size(file) : 0;
+                Files.move(part, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                diskBytes.addAndGet(json.length - replaced);
+            } finally {
+                Files.deleteIfExists(part);
+            }
+        } catch (final IOException e) {
+            // The review is still served; only the disk copy is lost
+            LOG.warn("Failed to write feedback cache entry {}", key, e);
+        }
+        if (diskMaxBytes > 0 && diskBytes.get() > diskMaxBytes) {
+            trimDisk();
+        }
+        return json;
+    }
+
+    private static void touch(final Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (final IOException e) {
+            // Only makes the file look older to the trim
+        }
+    }
+
+    /**
+     * Deletes the least recently used review files until the disk tier is under nine tenths of
+     * its budget, so a full tier is not listed again on every write. One thread trims at a time;
+     * the others carry on.
+     */
+    private void trimDisk() {
+        if (diskMaxBytes <= 0 || diskBytes.get() <= diskMaxBytes || !diskTrimLock.tryLock()) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            final long target = diskMaxBytes / 10 * 9;
+            final List<Path> reviews = files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList();
+            final Map<Path, FileTime> modified = new HashMap<>();
+            for (final Path file : reviews) {
+                try {
+                    modified.put(file, Files.getLastModifiedTime(file));
+                } catch (final IOException e) {
+                    // Deleted meanwhile
+                }
+            }
+            final List<Path> oldestFirst = new ArrayList<>(modified.keySet());
+            oldestFirst.sort(Comparator.comparing(modified::get));
+            int deleted = 0;
+            for (final Path file : oldestFirst) {
+                if (diskBytes.get() <= target) {
+                    break;
+                }
+                try {
+                    final long size = Files.size(file);
+                    if (Files.deleteIfExists(file)) {
+                        diskBytes.addAndGet(-size);
+                        deleted++;
+                    }
+                } catch (final IOException e) {
+                    // Deleted meanwhile, or not deletable; the next trim tries again
+                }
+            }
+            LOG.debug("Trimmed {} feedback cache files, {} bytes left", deleted, diskBytes.get());
+        } catch (final IOException e) {
+            LOG.warn("Failed to trim feedback cache directory {}", dir, e);
+        } finally {
+            diskTrimLock.unlock();
+        }
+    }
+
+    private void put(final String key, final Entry entry) {
+        final Entry old = heap.put(key, entry);
+        bytes.addAndGet(entry.json.length - (old == null ? 0 : old.json.length));
+        enforceBudget();
+    }
+
+    private void enforceBudget() {
+        if (bytes.get() <= maxBytes || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (bytes.get() > maxBytes) {
+                final long now = System.currentTimeMillis();
+                Map.Entry<String, Entry> victim = null;
+                double worst = -1;
+                for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                    if (clockHand == null || !clockHand.hasNext()) {
+                        clockHand = heap.entrySet().iterator();
+                        if (!clockHand.hasNext()) {
+                            break;
+                        }
+                    }
+                    final Map.Entry<String, Entry> candidate = clockHand.next();
+                    final double score = candidate.getValue().evictionScore(now);
+                    if (score > worst) {
+                        worst = score;
+                        victim = candidate;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                if (heap.remove(victim.getKey(), victim.getValue())) {
+                    bytes.addAndGet(-victim.getValue().json.length);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static byte[] await(final CompletableFuture<byte[]> running) throws IOException {
+        try {
+            return running.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for an identical feedback request");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
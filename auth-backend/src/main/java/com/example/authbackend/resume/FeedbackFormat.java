@@ -0,0 +1,86 @@
+package com.example.authbackend.resume;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * How a review is wrapped in {@code {"message":{"content":...}}} on the wire.
+ *
+ * <p>Reviews are kept as UTF-8 JSON, so neither format goes through the object mapper: the
+ * envelope is fixed bytes written around the review.</p>
+ */
+public enum FeedbackFormat {
+    /**
+     * The review as a JSON string, the shape a chat model's reply has. Clients parse it twice,
+     * and it is escaped on each response.
+     */
+    STRING("{\"message\":{\"content\":\"", "\"}}"),
+    /** The review as a JSON object, written from its cached bytes as they are. */
+    OBJECT("{\"message\":{\"content\":", "}}");
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+
+    FeedbackFormat(final String prefix, final String suffix) {
+        this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+        this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the {@code format} request parameter.
+     *
+     * @param format {@code string} or {@code object}, in any case
+     * @return the format
+     * @throws IllegalArgumentException for anything else
+     */
+    public static FeedbackFormat of(final String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be string or object");
+        }
+    }
+
+    /**
+     * Gets the review as the {@code content} of a DTO, for responses built by the object mapper.
+     *
+     * @param review the review's UTF-8 JSON
+     * @return a string, or a raw value the mapper copies as is
+     */
+    public Object content(final byte[] review) {
+        final String json = new String(review, StandardCharsets.UTF_8);
+        return this == OBJECT ? new RawValue(json) : json;
+    }
+
+    /**
+     * Gets the length of the whole response.
+     *
+     * @param review the review's UTF-8 JSON
+     * @return the byte count for {@code Content-Length}, or -1 if not known in advance
+     */
+    public long length(final byte[] review) {
+        return this == OBJECT ? prefix.length + review.length + suffix.length : -1;
+    }
+
+    /**
+     * Writes the whole response.
+     *
+     * @param review the review's UTF-8 JSON
+     * @param out the destination
+     * @throws IOException if {@code out} fails
+     */
+    public void write(final byte[] review, final OutputStream out) throws IOException {
+        out.write(prefix);
+        if (this == OBJECT) {
+            out.write(review);
+        } else {
+            out.write(JsonStringEncoder.getInstance().quoteAsUTF8(new String(review, StandardCharsets.UTF_8)));
+        }
+        out.write(suffix);
+    }
+}
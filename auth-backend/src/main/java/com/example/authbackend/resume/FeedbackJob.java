@@ -0,0 +1,270 @@
+package com.example.authbackend.resume;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One queued resume review and its progress.
+ *
+ * <p>Stage changes and subscriptions are serialized on the job's lock, which queues each change
+ * for every subscriber, so a new subscriber is told the current stage and then every later one,
+ * in order, with none missed or repeated. Listeners are called after the lock is released: the
+ * current stage on the subscribing thread, and later ones on the delivery executor, one task per
+ * subscriber with stages waiting. The worker running the review only queues stages, so an SSE
+ * listener blocked writing to a slow client holds up neither the review, status reads nor the
+ * other subscribers.</p>
+ */
+public final class FeedbackJob {
+
+    /** Receives a job's stage changes. */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called when the job reaches a stage, and once with the current stage on subscribing.
+         *
+         * @param job the job
+         * @param stage the stage it reached
+         */
+        void onStage(FeedbackJob job, ReviewStage stage);
+    }
+
+    /** A listener and the stages queued for it; guarded by the job's lock. */
+    private static final class Subscription {
+        private final Listener listener;
+        private final ArrayDeque<ReviewStage> pending = new ArrayDeque<>();
+        private boolean delivering;
+
+        Subscription(final Listener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Queues a stage.
+         *
+         * @return whether the caller is to deliver it, as no other thread is delivering
+         */
+        boolean offer(final ReviewStage stage) {
+            pending.add(stage);
+            if (delivering) {
+                return false;
+            }
+            delivering = true;
+            return true;
+        }
+    }
+
+    private final String id;
+    private final Executor delivery;
+    private final long createdAt = System.currentTimeMillis();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private ReviewStage stage = ReviewStage.QUEUED;
+    private byte[] result;
+    private String error;
+
+    FeedbackJob(final String id, final Executor delivery) {
+        this.id = id;
+        this.delivery = delivery;
+    }
+
+    /**
+     * Gets the job's id.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets when the job was accepted.
+     *
+     * @return epoch milliseconds
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the job's current stage.
+     *
+     * @return the stage
+     */
+    public ReviewStage getStage() {
+        lock.lock();
+        try {
+            return stage;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the review once the job is done.
+     *
+     * @return the review's UTF-8 JSON, or null before {@link ReviewStage#DONE}
+     */
+    public byte[] getResult() {
+        lock.lock();
+        try {
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the failure message.
+     *
+     * @return the message, or null unless {@link ReviewStage#FAILED}
+     */
+    public String getError() {
+        lock.lock();
+        try {
+            return error;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Subscribes to stage changes. The listener is called with the current stage right away;
+     * once the job has finished that is its only call.
+     *
+     * @param listener the listener
+     */
+    public void subscribe(final Listener listener) {
+        final Subscription subscription = new Subscription(listener);
+        lock.lock();
+        try {
+            subscription.offer(stage);
+            if (!stage.isTerminal()) {
+                subscriptions.add(subscription);
+            }
+        } finally {
+            lock.unlock();
+        }
+        deliver(subscription);
+    }
+
+    /**
+     * Stops delivering stage changes to a listener.
+     *
+     * @param listener the listener
+     */
+    public void unsubscribe(final Listener listener) {
+        lock.lock();
+        try {
+            subscriptions.removeIf(subscription -> subscription.listener == listener);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void advance(final ReviewStage next) {
+        final List<Subscription> due;
+        lock.lock();
+        try {
+            due = moveTo(next);
+        } finally {
+            lock.unlock();
+        }
+        handOff(due);
+    }
+
+    void complete(final byte[] json) {
+        final List<Subscription> due;
+        lock.lock();
+        try {
+            result = json;
+            due = moveTo(ReviewStage.DONE);
+        } finally {
+            lock.unlock();
+        }
+        handOff(due);
+    }
+
+    void fail(final String message) {
+        final List<Subscription> due;
+        lock.lock();
+        try {
+            error = message;
+            due = moveTo(ReviewStage.FAILED);
+        } finally {
+            lock.unlock();
+        }
+        handOff(due);
+    }
+
+    /**
+     * Sets the stage and queues it for the subscribers. Called with the lock held.
+     *
+     * @return the subscriptions the caller is to deliver to once it has released the lock
+     */
+    private List<Subscription> moveTo(final ReviewStage next) {
+        if (stage.isTerminal() || next.ordinal() <= stage.ordinal()) {
+            return List.of();
+        }
+        stage = next;
+        final List<Subscription> due = new ArrayList<>(subscriptions.size());
+        for (final Subscription subscription : subscriptions) {
+            if (subscription.offer(next)) {
+                due.add(subscription);
+            }
+        }
+        if (next.isTerminal()) {
+            subscriptions.clear();
+        }
+        return due;
+    }
+
+    private void handOff(final List<Subscription> due) {
+        for (final Subscription subscription : due) {
+            try {
+                delivery.execute(() -> deliver(subscription));
+            } catch (final RejectedExecutionException e) {
+                // Shutting down; the client's stream ends with the server
+                return;
+            }
+        }
+    }
+
+    /**
+     * Calls a subscription's listener with its queued stages, oldest first, until none are left.
+     * Stages queued meanwhile by other threads are delivered here too, which keeps them in order.
+     */
+    private void deliver(final Subscription subscription) {
+        boolean drained = false;
+        try {
+            while (true) {
+                final ReviewStage next;
+                lock.lock();
+                try {
+                    next = subscription.pending.poll();
+                    if (next == null) {
+                        subscription.delivering = false;
+                        drained = true;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                subscription.listener.onStage(this, next);
+            }
+        } finally {
+            if (!drained) {
+                // The listener threw; let the next stage change deliver what is left
+                lock.lock();
+                try {
+                    subscription.delivering = false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.authbackend.resume;
+
+import com.example.authbackend.files.FileMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue of resume reviews run off the request threads.
+ *
+ * <p>Reviews run on {@code feedback.jobs.threads} workers (0 for one per core) fed by a queue of
+ * {@code feedback.jobs.queue-capacity}. When the queue is full {@link #submit} refuses the job
+ * rather than letting the backlog grow without bound, and callers should tell the client to
+ * retry later. Finished jobs are kept for {@code feedback.jobs.retention-ms} so their result
+ * can be fetched, then forgotten; the review itself stays in {@link FeedbackCache}.</p>
+ *
+ * <p>Stage changes are sent to subscribers on up to {@code feedback.jobs.event-threads} threads
+ * of their own, so a client slow to read its event stream never holds up a worker.</p>
+ */
+@Component
+public class FeedbackJobs implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FeedbackJobs.class);
+
+    private final ResumeReviewer reviewer;
+    private final long retentionMillis;
+    private final ThreadPoolExecutor workers;
+    private final ThreadPoolExecutor events;
+    private final ScheduledExecutorService reaper;
+    private final Map<String, FeedbackJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the workers.
+     *
+     * @param reviewer runs each review
+     * @param threads number of workers; 0 for one per core
+     * @param queueCapacity how many jobs may wait for a worker
+     * @param retentionMillis how long finished jobs are kept
+     * @param eventThreads most threads sending stage changes to subscribers at once
+     */
+    public FeedbackJobs(final ResumeReviewer reviewer,
+                        @Value("${feedback.jobs.threads:0}") final int threads,
+                        @Value("${feedback.jobs.queue-capacity:64}") final int queueCapacity,
+                        @Value("${feedback.jobs.retention-ms:600000}") final long retentionMillis,
+                        @Value("${feedback.jobs.event-threads:16}") final int eventThreads) {
+        if (eventThreads < 1) {
+            throw new IllegalArgumentException("feedback.jobs.event-threads must be positive");
+        }
+        this.reviewer = reviewer;
+        this.retentionMillis = retentionMillis;
+        final int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger created = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                final Thread t = new Thread(r, "feedback-worker-" + created.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        // Unbounded, but each subscriber has at most one delivery waiting at a time
+        final AtomicInteger eventThreadsCreated = new AtomicInteger();
+        this.events = new ThreadPoolExecutor(eventThreads, eventThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                final Thread t = new Thread(r, "feedback-events-" + eventThreadsCreated.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        events.allowCoreThreadTimeOut(true);
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "feedback-jobs-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queues a review.
+     *
+     * @param file the uploaded resume
+     * @param job the job to review it against
+     * @return the queued job
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public FeedbackJob submit(final FileMetadata file, final JobDescription job) {
+        final FeedbackJob queued = new FeedbackJob(UUID.randomUUID().toString(), events);
+        jobs.put(queued.getId(), queued);
+        try {
+            workers.execute(() -> run(queued, file, job));
+        } catch (final RejectedExecutionException e) {
+            jobs.remove(queued.getId());
+            throw e;
+        }
+        return queued;
+    }
+
+    /**
+     * Looks up a job.
+     *
+     * @param id the job's id
+     * @return the job, or null if there is none or it finished too long ago
+     */
+    public FeedbackJob get(final String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Gets the number of jobs waiting for a worker.
+     *
+     * @return the queue length
+     */
+    public int queued() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * Gets the number of jobs being reviewed.
+     *
+     * @return the count
+     */
+    public int running() {
+        return workers.getActiveCount();
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        events.shutdownNow();
+        reaper.shutdownNow();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(final FeedbackJob job, final FileMetadata file, final JobDescription description) {
+        try {
+            job.complete(reviewer.review(file, description, job::advance));
+        } catch (final UnsupportedDocumentException e) {
+            job.fail(e.getMessage());
+        } catch (final NoSuchFileException e) {
+            // Deleted while queued
+            job.fail("File not found");
+        } catch (final IOException | RuntimeException e) {
+            LOG.warn("Failed to review {}", file.getName(), e);
+            job.fail("Failed to analyze resume");
+        } finally {
+            if (!reaper.isShutdown()) {
+                reaper.schedule(() -> jobs.remove(job.getId()), retentionMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
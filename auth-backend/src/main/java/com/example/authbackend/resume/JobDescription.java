@@ -0,0 +1,88 @@
+package com.example.authbackend.resume;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The job a resume is reviewed against.
+ */
+public final class JobDescription {
+
+    private static final Pattern TITLE = Pattern.compile(
+        "The job title is:(.*?)The job description is:", Pattern.DOTALL);
+    private static final Pattern DESCRIPTION = Pattern.compile(
+        "The job description is:(.*?)(?:Provide the feedback using|$)", Pattern.DOTALL);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String title;
+    private final String description;
+
+    /**
+     * Constructor.
+     *
+     * @param title the job title, possibly empty
+     * @param description the job description, possibly empty
+     */
+    public JobDescription(final String title, final String description) {
+        this.title = title == null ? "" : title.strip();
+        this.description = description == null ? "" : description.strip();
+    }
+
+    /**
+     * Pulls the job title and description out of the instructions the front end's
+     * {@code prepareInstructions} builds. Text in any other form is taken as the description.
+     *
+     * @param instructions the instructions
+     * @return the job
+     */
+    public static JobDescription fromInstructions(final String instructions) {
+        if (instructions == null) {
+            return new JobDescription("", "");
+        }
+        final Matcher description = DESCRIPTION.matcher(instructions);
+        if (!description.find()) {
+            return new JobDescription("", instructions);
+        }
+        final Matcher title = TITLE.matcher(instructions);
+        return new JobDescription(title.find() ? title.group(1) : "", description.group(1));
+    }
+
+    /**
+     * Gets the job title.
+     *
+     * @return the title, possibly empty
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the job description.
+     *
+     * @return the description, possibly empty
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the job in canonical form, so instructions that differ only in case, whitespace or
+     * surrounding boilerplate compare equal.
+     *
+     * @return the lowercased title and description with whitespace collapsed
+     */
+    public String normalized() {
+        return WHITESPACE.matcher(title).replaceAll(" ").toLowerCase(Locale.ROOT) + "\n"
+            + WHITESPACE.matcher(description).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether there is anything to match the resume against.
+     *
+     * @return true if both title and description are empty
+     */
+    public boolean isEmpty() {
+        return title.isEmpty() && description.isEmpty();
+    }
+}
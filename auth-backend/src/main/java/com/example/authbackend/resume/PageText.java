@@ -0,0 +1,83 @@
+package com.example.authbackend.resume;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * The text of one PDF page, as plain lines and as positioned {@link TextBlock}s.
+ */
+public final class PageText {
+
+    private final int page;
+    private final float width;
+    private final float height;
+    private final String text;
+    private final List<TextBlock> blocks;
+
+    /**
+     * Constructor.
+     *
+     * @param page one-based page number
+     * @param width page width in points
+     * @param height page height in points
+     * @param text the page's lines joined with {@code \n}
+     * @param blocks the lines in reading order
+     */
+    @JsonCreator
+    public PageText(@JsonProperty("page") final int page, @JsonProperty("width") final float width,
+                    @JsonProperty("height") final float height, @JsonProperty("text") final String text,
+                    @JsonProperty("blocks") final List<TextBlock> blocks) {
+        this.page = page;
+        this.width = width;
+        this.height = height;
+        this.text = text;
+        this.blocks = blocks == null ? List.of() : List.copyOf(blocks);
+    }
+
+    /**
+     * Gets the page number.
+     *
+     * @return the one-based number
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Gets the page width.
+     *
+     * @return the width in points
+     */
+    public float getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the page height.
+     *
+     * @return the height in points
+     */
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the plain text.
+     *
+     * @return lines joined with {@code \n}
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the positioned lines.
+     *
+     * @return the blocks in reading order
+     */
+    public List<TextBlock> getBlocks() {
+        return blocks;
+    }
+}
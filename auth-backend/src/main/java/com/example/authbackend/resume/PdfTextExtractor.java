@@ -0,0 +1,202 @@
+package com.example.authbackend.resume;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts text and line layout from a PDF one page at a time.
+ *
+ * <p>The document is read through a small buffered window onto the file and PDFBox spills
+ * decoded streams to temp files, so memory stays flat however large the upload is. Each page
+ * is handed to the caller as soon as it has been laid out; nothing accumulates across pages.
+ * Only the first {@code resume.extract.max-pages} pages are read.</p>
+ */
+@Component
+public class PdfTextExtractor {
+
+    /** Receives pages as they are extracted. */
+    @FunctionalInterface
+    public interface PageSink {
+        /**
+         * Accepts one page.
+         *
+         * @param page the page
+         * @throws IOException to abort extraction
+         */
+        void accept(PageText page) throws IOException;
+    }
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    // PDF readers accept the header anywhere in the first kilobyte
+    private static final int HEADER_WINDOW = 1024;
+
+    private final int maxPages;
+
+    /**
+     * Constructor.
+     *
+     * @param maxPages pages to read at most
+     */
+    public PdfTextExtractor(@Value("${resume.extract.max-pages:20}") final int maxPages) {
+        this.maxPages = Math.max(1, maxPages);
+    }
+
+    /**
+     * Extracts a PDF page by page.
+     *
+     * @param pdf the file
+     * @param sink receives each page in order
+     * @return the number of pages extracted
+     * @throws UnsupportedDocumentException if the file is not a PDF or is password protected
+     * @throws IOException if the file cannot be read or the sink fails
+     */
+    public int extract(final Path pdf, final PageSink sink) throws IOException {
+        if (!hasPdfHeader(pdf)) {
+            throw new UnsupportedDocumentException("Not a PDF document");
+        }
+        final PDDocument document;
+        try {
+            document = Loader.loadPDF(new RandomAccessReadBufferedFile(pdf.toFile()),
+                IOUtils.createTempFileOnlyStreamCache());
+        } catch (final InvalidPasswordException e) {
+            throw new UnsupportedDocumentException("PDF is password protected", e);
+        }
+        try (document) {
+            final PageStripper stripper = new PageStripper(sink);
+            stripper.setEndPage(maxPages);
+            stripper.writeText(document, Writer.nullWriter());
+            return stripper.pages;
+        }
+    }
+
+    private static boolean hasPdfHeader(final Path file) throws IOException {
+        final byte[] head = new byte[HEADER_WINDOW];
+        final int n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.readNBytes(head, 0, head.length);
+        }
+        outer:
+        for (int i = 0; i + PDF_MAGIC.length <= n; i++) {
+            for (int j = 0; j < PDF_MAGIC.length; j++) {
+                if (head[i + j] != PDF_MAGIC[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Collects the words PDFBox lays out into lines with bounding boxes, and emits a page at
+     * {@link #endPage}.
+     */
+    private static final class PageStripper extends PDFTextStripper {
+
+        private final PageSink sink;
+        private final List<TextBlock> blocks = new ArrayList<>();
+        private final StringBuilder pageText = new StringBuilder();
+        private final StringBuilder line = new StringBuilder();
+        private int pages;
+        private float left;
+        private float top;
+        private float right;
+        private float bottom;
+        private float fontSizeSum;
+        private int glyphs;
+        private int boldGlyphs;
+
+        PageStripper(final PageSink sink) {
+            this.sink = sink;
+            setSortByPosition(true);
+        }
+
+        @Override
+        protected void startPage(final PDPage page) {
+            blocks.clear();
+            pageText.setLength(0);
+            resetLine();
+        }
+
+        @Override
+        protected void writeString(final String text, final List<TextPosition> positions) {
+            line.append(text);
+            for (final TextPosition p : positions) {
+                left = Math.min(left, p.getXDirAdj());
+                top = Math.min(top, p.getYDirAdj() - p.getHeightDir());
+                right = Math.max(right, p.getXDirAdj() + p.getWidthDirAdj());
+                bottom = Math.max(bottom, p.getYDirAdj());
+                fontSizeSum += p.getFontSizeInPt();
+                glyphs++;
+                if (p.getFont() != null && p.getFont().getName() != null && p.getFont().getName().contains("Bold")) {
+                    boldGlyphs++;
+                }
+            }
+        }
+
+        @Override
+        protected void writeWordSeparator() {
+            line.append(' ');
+        }
+
+        @Override
+        protected void writeLineSeparator() {
+            endLine();
+        }
+
+        @Override
+        protected void endPage(final PDPage page) throws IOException {
+            endLine();
+            final PDRectangle box = page.getCropBox();
+            pages++;
+            sink.accept(new PageText(getCurrentPageNo(), round(box.getWidth()), round(box.getHeight()),
+                pageText.toString(), blocks));
+        }
+
+        private void endLine() {
+            final String text = line.toString().strip();
+            if (!text.isEmpty() && glyphs > 0) {
+                if (pageText.length() > 0) {
+                    pageText.append('\n');
+                }
+                pageText.append(text);
+                blocks.add(new TextBlock(text, round(left), round(top), round(right - left), round(bottom - top),
+                    round(fontSizeSum / glyphs), boldGlyphs * 2 > glyphs));
+            }
+            resetLine();
+        }
+
+        private void resetLine() {
+            line.setLength(0);
+            left = Float.MAX_VALUE;
+            top = Float.MAX_VALUE;
+            right = -Float.MAX_VALUE;
+            bottom = -Float.MAX_VALUE;
+            fontSizeSum = 0;
+            glyphs = 0;
+            boldGlyphs = 0;
+        }
+
+        private static float round(final float points) {
+            return Math.round(points * 10) / 10f;
+        }
+    }
+}
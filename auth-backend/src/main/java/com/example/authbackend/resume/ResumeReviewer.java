@@ -0,0 +1,98 @@
+package com.example.authbackend.resume;
+
+import com.example.authbackend.dto.FeedbackDTOs.Feedback;
+import com.example.authbackend.files.FileMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reviews an uploaded resume against a job: text extraction, scoring and serialization, behind
+ * {@link FeedbackCache}. Shared by the synchronous endpoint and the job queue.
+ */
+@Component
+public class ResumeReviewer {
+
+    /** Receives the stages a review passes through. */
+    @FunctionalInterface
+    public interface Progress {
+        /** Ignores progress. */
+        Progress NONE = stage -> { };
+
+        /**
+         * Called on the reviewing thread as each stage is reached.
+         *
+         * @param stage the stage
+         */
+        void reached(ReviewStage stage);
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResumeReviewer.class);
+
+    private final ExtractedTextStore texts;
+    private final ResumeScorer scorer;
+    private final FeedbackCache cache;
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructor.
+     *
+     * @param texts extracted text of uploads
+     * @param scorer the scorer
+     * @param cache cache of finished reviews
+     * @param mapper JSON mapper for the review
+     */
+    public ResumeReviewer(final ExtractedTextStore texts, final ResumeScorer scorer, final FeedbackCache cache,
+                          final ObjectMapper mapper) {
+        this.texts = texts;
+        this.scorer = scorer;
+        this.cache = cache;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Reviews a resume. A review that is cached, or already being computed for another
+     * caller, is returned without reporting any stage.
+     *
+     * @param file the uploaded resume
+     * @param job the job to review it against
+     * @param progress receives {@link ReviewStage#EXTRACTED} and {@link ReviewStage#SCORED}
+     * @return the review's UTF-8 JSON
+     * @throws UnsupportedDocumentException if the file is not a readable PDF
+     * @throws IOException if the file cannot be read
+     */
+    public byte[] review(final FileMetadata file, final JobDescription job, final Progress progress)
+        throws IOException {
+        return review(file, scorer.prepare(job), progress);
+    }
+
+    /**
+     * Reviews a resume against a job already prepared by {@link ResumeScorer#prepare}, as when
+     * many resumes are reviewed against one job.
+     *
+     * @param file the uploaded resume
+     * @param job the prepared job
+     * @param progress receives {@link ReviewStage#EXTRACTED} and {@link ReviewStage#SCORED}
+     * @return the review's UTF-8 JSON
+     * @throws UnsupportedDocumentException if the file is not a readable PDF
+     * @throws IOException if the file cannot be read
+     */
+    public byte[] review(final FileMetadata file, final ResumeScorer.PreparedJob job, final Progress progress)
+        throws IOException {
+        final String key = FeedbackCache.key(ExtractedTextStore.hashOf(file), job.getJob(), job.getDictionaryVersion());
+        return cache.get(key, () -> {
+            final List<PageText> pages = texts.pages(file);
+            progress.reached(ReviewStage.EXTRACTED);
+            final long started = System.nanoTime();
+            final Feedback feedback = scorer.score(pages, job);
+            LOG.debug("Scored {} ({} pages) in {} us", file.getName(), pages.size(),
+                (System.nanoTime() - started) / 1000);
+            progress.reached(ReviewStage.SCORED);
+            return mapper.writeValueAsBytes(feedback);
+        });
+    }
+}
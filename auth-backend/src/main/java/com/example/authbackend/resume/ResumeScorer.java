@@ -0,0 +1,659 @@
+package com.example.authbackend.resume;
+
+import com.example.authbackend.dto.FeedbackDTOs.Category;
+import com.example.authbackend.dto.FeedbackDTOs.Feedback;
+import com.example.authbackend.dto.FeedbackDTOs.Tip;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic resume review computed from extracted text, with no external model.
+ *
+ * <p>The resume and job description are tokenized once. From that the scorer measures keyword
+ * coverage of the job description, which standard sections are present, how much of the
+ * experience is written as bullets, how many bullets are quantified or open with an action
+ * verb, and which {@link SkillDictionary} skills appear. Each category score is a weighted sum
+ * of those signals and every tip cites what was found, so the same resume and job always get
+ * the same review. Scoring a typical resume takes well under a millisecond once its text is
+ * extracted.</p>
+ */
+@Component
+public class ResumeScorer {
+
+    /** Bumped whenever a change to the scoring would give a cached review a different result. */
+    public static final int VERSION = 2;
+
+    private static final int MAX_KEYWORDS = 25;
+    private static final int MAX_LISTED = 6;
+    private static final String GOOD = "good";
+    private static final String IMPROVE = "improve";
+    private static final String BULLET_MARKERS = "-•*▪‣◦●–·»➢✓>";
+    // Lone years are dates rather than results, so they do not count as quantification
+    private static final Pattern QUANTITY = Pattern.compile(
+        "[$€£]\\s?\\d|\\d\\s*%|\\b(?!(?:19|20)\\d{2}\\b)\\d+(?:[.,]\\d+)?\\b");
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+(?:\\.[\\w-]+)+");
+    private static final Pattern PHONE = Pattern.compile("\\+?\\d[\\d\\s().-]{7,}\\d");
+    private static final Pattern YEAR = Pattern.compile("\\b(?:19|20)\\d{2}\\b");
+
+    private static final String EXPERIENCE = "Experience";
+    private static final String EDUCATION = "Education";
+    private static final String SKILLS = "Skills";
+    private static final String SUMMARY = "Summary";
+    private static final Map<String, String> HEADINGS = headings(Map.of(
+        SUMMARY, List.of("summary", "professional summary", "career summary", "profile", "professional profile",
+            "objective", "career objective", "about me"),
+        EXPERIENCE, List.of("experience", "work experience", "professional experience", "employment",
+            "employment history", "work history", "relevant experience", "career history"),
+        EDUCATION, List.of("education", "academic background", "education and training", "qualifications"),
+        SKILLS, List.of("skills", "technical skills", "core competencies", "key skills", "competencies",
+            "technologies", "tools and technologies", "skills and tools"),
+        "Projects", List.of("projects", "personal projects", "key projects", "selected projects"),
+        "Certifications", List.of("certifications", "certificates", "licenses and certifications"),
+        "Awards", List.of("awards", "achievements", "honors", "honors and awards")));
+
+    private static final Set<String> ACTION_VERBS = Set.of(
+        "accelerated", "achieved", "administered", "analyzed", "architected", "automated", "boosted", "built",
+        "championed", "coached", "collaborated", "completed", "configured", "consolidated", "coordinated",
+        "created", "cut", "debugged", "decreased", "defined", "delivered", "deployed", "designed", "developed",
+        "devised", "directed", "drove", "eliminated", "enabled", "engineered", "enhanced", "established",
+        "evaluated", "expanded", "facilitated", "founded", "generated", "grew", "guided", "headed", "identified",
+        "implemented", "improved", "increased", "initiated", "innovated", "instituted", "integrated", "introduced",
+        "launched", "led", "maintained", "managed", "mentored", "migrated", "modernized", "monitored",
+        "negotiated", "optimized", "orchestrated", "organized", "oversaw", "owned", "pioneered", "planned",
+        "presented", "prioritized", "produced", "programmed", "published", "raised", "redesigned", "reduced",
+        "refactored", "resolved", "restructured", "revamped", "saved", "scaled", "secured", "shipped",
+        "simplified", "spearheaded", "standardized", "streamlined", "strengthened", "supervised", "taught",
+        "tested", "trained", "transformed", "tripled", "doubled", "unified", "upgraded", "won", "wrote");
+    private static final List<String> WEAK_PHRASES = List.of(
+        "responsible for", "duties included", "worked on", "helped with", "helped to", "assisted with",
+        "assisted in", "involved in", "participated in", "tasked with");
+    private static final List<String> BUZZWORDS = List.of(
+        "hardworking", "hard-working", "team player", "detail-oriented", "detail oriented", "go-getter",
+        "self-starter", "self-motivated", "results-driven", "results-oriented", "synergy", "think outside the box",
+        "dynamic", "passionate", "proven track record", "highly motivated");
+    private static final Set<String> FIRST_PERSON = Set.of("i", "me", "my", "mine", "myself");
+
+    private final SkillDictionary dictionary;
+
+    /**
+     * Constructor.
+     *
+     * @param dictionary the skills to recognize
+     */
+    public ResumeScorer(final SkillDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Reviews a resume.
+     *
+     * @param pages the resume's extracted pages
+     * @param job the job applied for; may be empty
+     * @return the review
+     */
+    public Feedback score(final List<PageText> pages, final JobDescription job) {
+        return score(pages, prepare(job));
+    }
+
+    /**
+     * Picks out what resumes are compared against in a job description, so that many resumes
+     * can be scored against it without reading it again each time. The result is bound to the
+     * current skill dictionary, even if it is reloaded meanwhile.
+     *
+     * @param job the job applied for; may be empty
+     * @return the prepared job, safe to share between threads
+     */
+    public PreparedJob prepare(final JobDescription job) {
+        return new PreparedJob(job, dictionary.automaton());
+    }
+
+    /**
+     * Reviews a resume against a prepared job.
+     *
+     * @param pages the resume's extracted pages
+     * @param job the job from {@link #prepare}
+     * @return the review
+     */
+    public Feedback score(final List<PageText> pages, final PreparedJob job) {
+        final Resume resume = new Resume(pages, job.automaton);
+        final Keywords keywords = new Keywords(job, resume);
+
+        final Category ats = ats(resume, keywords);
+        final Category tone = toneAndStyle(resume);
+        final Category content = content(resume, keywords);
+        final Category structure = structure(resume);
+        final Category skills = skills(resume, keywords);
+
+        final Feedback feedback = new Feedback();
+        feedback.setAts(ats);
+        feedback.setToneAndStyle(tone);
+        feedback.setContent(content);
+        feedback.setStructure(structure);
+        feedback.setSkills(skills);
+        feedback.setOverallScore(clamp(0.25 * ats.getScore() + 0.15 * tone.getScore() + 0.25 * content.getScore()
+            + 0.15 * structure.getScore() + 0.20 * skills.getScore()));
+        return feedback;
+    }
+
+    private static Category ats(final Resume resume, final Keywords keywords) {
+        final List<Tip> tips = new ArrayList<>();
+        if (resume.words < 50) {
+            tips.add(new Tip(IMPROVE, "Little or no selectable text was found, so ATS software may read the resume"
+                + " as an image. Export it from a word processor rather than scanning it.", null));
+            return new Category(clamp(10 + (resume.email ? 10 : 0)), tips);
+        }
+
+        final List<String> missingSections = resume.missing(EXPERIENCE, EDUCATION, SKILLS);
+        double score = 45 * keywords.coverage() + 10 * (3 - missingSections.size())
+            + (resume.sections.contains(SUMMARY) ? 5 : 0) + (resume.email ? 8 : 0) + (resume.phone ? 4 : 0)
+            + (resume.pages <= 2 ? 8 : 0);
+
+        if (keywords.jd.isEmpty()) {
+            tips.add(new Tip(IMPROVE, "Add the job description to check keyword coverage against the role.", null));
+        } else if (keywords.coverage() >= 0.7) {
+            tips.add(new Tip(GOOD, "Matches " + keywords.matched.size() + " of " + keywords.jd.size()
+                + " key terms from the job description.", null));
+        } else {
+            tips.add(new Tip(IMPROVE, "Add missing job-description keywords where they fit naturally: "
+                + list(keywords.missing()) + ".", null));
+        }
+        if (missingSections.isEmpty()) {
+            tips.add(new Tip(GOOD, "Uses standard section headings that ATS parsers recognize.", null));
+        } else {
+            tips.add(new Tip(IMPROVE, "Use standard section headings such as " + list(missingSections) + ".", null));
+        }
+        if (resume.email && resume.phone) {
+            tips.add(new Tip(GOOD, "Email and phone number are in plain text where parsers can read them.", null));
+        } else {
+            final String missing = resume.email ? "phone number"
+                : resume.phone ? "email address" : "email address and phone number";
+            tips.add(new Tip(IMPROVE, "Add a plain-text " + missing + " so the ATS can fill in contact details.",
+                null));
+        }
+        if (resume.pages > 2) {
+            tips.add(new Tip(IMPROVE, "Keep the resume to one or two pages; it runs to " + resume.pages + ".", null));
+        }
+        return new Category(clamp(score), tips);
+    }
+
+    private static Category toneAndStyle(final Resume resume) {
+        final List<Tip> tips = new ArrayList<>();
+        final int bullets = resume.bullets.size();
+        final double verbShare = bullets == 0 ? 0.5 : (double) resume.actionBullets / bullets;
+        double score = 45 + 40 * verbShare + Math.max(0, 15 - 5 * resume.firstPerson)
+            - Math.min(20, 5 * resume.buzzwords.size()) - Math.min(15, 5 * resume.weakPhrases.size());
+        final double averageWords = resume.averageBulletWords();
+        if (averageWords > 30) {
+            score -= 10;
+        }
+
+        if (bullets > 0 && verbShare >= 0.6) {
+            tips.add(new Tip(GOOD, "Strong action verbs", resume.actionBullets + " of " + bullets
+                + " bullets open with a verb such as led, built or reduced, which reads as confident and direct."));
+        } else if (bullets > 0) {
+            tips.add(new Tip(IMPROVE, "Lead with action verbs", "Only " + resume.actionBullets + " of " + bullets
+                + " bullets start with a strong verb. Open each one with what you did: Led, Built, Reduced, Shipped."));
+        }
+        if (resume.firstPerson == 0) {
+            tips.add(new Tip(GOOD, "Professional voice",
+                "The resume avoids first-person pronouns and keeps the focus on the work."));
+        } else {
+            tips.add(new Tip(IMPROVE, "Drop first-person pronouns", "Found " + resume.firstPerson
+                + " uses of I, me or my. Resumes read better in implied first person: \"Built\" rather than \"I built\"."));
+        }
+        if (!resume.weakPhrases.isEmpty()) {
+            tips.add(new Tip(IMPROVE, "Replace duty phrases", "Phrases like " + quoted(resume.weakPhrases)
+                + " describe a duty rather than a result. Say what you achieved instead."));
+        }
+        if (!resume.buzzwords.isEmpty()) {
+            tips.add(new Tip(IMPROVE, "Show, don't claim", "Words like " + quoted(resume.buzzwords)
+                + " are common filler. Replace them with evidence from your experience."));
+        }
+        if (averageWords > 30) {
+            tips.add(new Tip(IMPROVE, "Tighten long bullets", "Bullets average " + Math.round(averageWords)
+                + " words. Aim for one or two lines each so they can be scanned quickly."));
+        }
+        return new Category(clamp(score), tips);
+    }
+
+    private static Category content(final Resume resume, final Keywords keywords) {
+        final List<Tip> tips = new ArrayList<>();
+        final int bullets = resume.bullets.size();
+        final double quantShare = bullets == 0 ? 0 : (double) resume.quantifiedBullets / bullets;
+        final double lengthFit = resume.words < 350 ? resume.words / 350.0
+            : resume.words > 900 ? Math.max(0, 1 - (resume.words - 900) / 900.0) : 1;
+        final double score = 15 + 35 * quantShare + 15 * Math.min(1, bullets / 8.0) + 15 * lengthFit
+            + 20 * keywords.coverage();
+
+        if (quantShare >= 0.5) {
+            tips.add(new Tip(GOOD, "Quantified impact", resume.quantifiedBullets + " of " + bullets
+                + " bullets include numbers, which makes the results concrete and comparable."));
+        } else {
+            tips.add(new Tip(IMPROVE, "Quantify impact", (bullets == 0 ? "No bullets" : "Only "
+                + resume.quantifiedBullets + " of " + bullets + " bullets")
+                + " include numbers. Add percentages, amounts, scale or time saved to show the size of each result."));
+        }
+        if (bullets < 4) {
+            tips.add(new Tip(IMPROVE, "Describe more achievements", "Found " + bullets + " achievement bullets."
+                + " List three to five per recent role so recruiters can see what you delivered."));
+        }
+        if (resume.words < 250) {
+            tips.add(new Tip(IMPROVE, "Add more detail", "At about " + resume.words
+                + " words the resume leaves out context a recruiter needs. Expand on recent roles and projects."));
+        } else if (resume.words > 1000) {
+            tips.add(new Tip(IMPROVE, "Trim older content", "At about " + resume.words
+                + " words the resume is long. Cut early-career detail and keep what supports this role."));
+        } else {
+            tips.add(new Tip(GOOD, "Appropriate length", "At about " + resume.words
+                + " words the resume has room for detail without being hard to scan."));
+        }
+        if (!keywords.jd.isEmpty()) {
+            tips.add(keywords.coverage() >= 0.6
+                ? new Tip(GOOD, "Relevant to the role", "The experience covers most of what the job description asks"
+                    + " for, including " + list(keywords.matched) + ".")
+                : new Tip(IMPROVE, "Mirror the role", "The job description stresses " + list(keywords.missing())
+                    + ", which the resume does not mention. Bring forward experience that shows them."));
+        }
+        return new Category(clamp(score), tips);
+    }
+
+    private static Category structure(final Resume resume) {
+        final List<Tip> tips = new ArrayList<>();
+        final List<String> missingCore = resume.missing(EXPERIENCE, EDUCATION, SKILLS);
+        final double bulletDensity = resume.bodyLines == 0 ? 0 : (double) resume.bullets.size() / resume.bodyLines;
+        final double score = 15 * (3 - missingCore.size()) + (resume.sections.contains(SUMMARY) ? 10 : 0)
+            + 20 * Math.min(1, bulletDensity / 0.4) + (resume.dated ? 10 : 0) + (resume.consistentHeadings() ? 15 : 0)
+            - (resume.pages > 2 ? 10 : 0) - Math.min(15, 5 * resume.denseBlocks);
+
+        if (missingCore.isEmpty()) {
+            tips.add(new Tip(GOOD, "Clear sections", "Found " + list(resume.sections)
+                + " sections, so a recruiter can find each part quickly."));
+        } else {
+            tips.add(new Tip(IMPROVE, "Add missing sections", "No " + list(missingCore)
+                + " section was found. Give each its own clearly labelled heading."));
+        }
+        if (!resume.sections.contains(SUMMARY)) {
+            tips.add(new Tip(IMPROVE, "Open with a summary",
+                "Two or three lines at the top stating your role, experience and focus help a reader orient quickly."));
+        }
+        if (bulletDensity < 0.25 || resume.denseBlocks > 0) {
+            tips.add(new Tip(IMPROVE, "Break up dense text",
+                "Long runs of prose are hard to scan. Split them into short, accomplishment-focused bullets."));
+        } else {
+            tips.add(new Tip(GOOD, "Scannable bullets",
+                "Experience is written as bullets, which keeps each achievement easy to pick out."));
+        }
+        if (!resume.dated) {
+            tips.add(new Tip(IMPROVE, "Add dates", "No years were found. Add start and end dates to each role"
+                + " and qualification so the timeline is clear."));
+        }
+        if (resume.headings.size() >= 2 && !resume.consistentHeadings()) {
+            tips.add(new Tip(IMPROVE, "Make headings consistent",
+                "Section headings use different sizes or weights. Style them the same way to make the hierarchy clear."));
+        }
+        return new Category(clamp(score), tips);
+    }
+
+    private static Category skills(final Resume resume, final Keywords keywords) {
+        final List<Tip> tips = new ArrayList<>();
+        final Set<String> listed = resume.skills;
+        final Set<String> wanted = keywords.jdSkills;
+        final List<String> missing = wanted.stream().filter(s -> !listed.contains(s)).toList();
+        final double score;
+        if (wanted.isEmpty()) {
+            score = 30 + Math.min(50, 5 * listed.size()) + (resume.sections.contains(SKILLS) ? 20 : 0);
+        } else {
+            score = 20 + 60.0 * (wanted.size() - missing.size()) / wanted.size() + Math.min(20, 2 * listed.size());
+        }
+
+        if (!listed.isEmpty()) {
+            tips.add(new Tip(GOOD, "Skills are visible", "Recognized skills include " + list(listed) + "."));
+        }
+        if (!missing.isEmpty()) {
+            tips.add(new Tip(IMPROVE, "Cover the required skills", "The job description asks for " + list(missing)
+                + ". If you have them, list them and show where you used them."));
+        } else if (!wanted.isEmpty()) {
+            tips.add(new Tip(GOOD, "Matches the required skills",
+                "Every skill the job description names appears in the resume."));
+        }
+        if (!resume.sections.contains(SKILLS)) {
+            tips.add(new Tip(IMPROVE, "Add a skills section",
+                "A dedicated skills section grouped into languages, frameworks and tools makes keyword matching easier."));
+        }
+        if (!listed.isEmpty() && resume.skillsInBullets * 2 < listed.size()) {
+            tips.add(new Tip(IMPROVE, "Connect skills to achievements", "Only " + resume.skillsInBullets + " of "
+                + listed.size() + " skills appear in experience bullets. Mention key skills where you applied them."));
+        }
+        if (listed.isEmpty()) {
+            tips.add(new Tip(IMPROVE, "Name your tools", "No recognizable skills were found. Name the specific"
+                + " languages, tools and methods you use."));
+        }
+        return new Category(clamp(score), tips);
+    }
+
+    /**
+     * What the scorer needs to know about a resume, gathered in one pass over its lines.
+     */
+    private static final class Resume {
+        final int pages;
+        final Set<String> sections = new LinkedHashSet<>();
+        final List<TextBlock> headings = new ArrayList<>();
+        final List<String> bullets = new ArrayList<>();
+        final Set<String> terms; // stems
+        final Set<String> skills;
+        final List<String> weakPhrases = new ArrayList<>();
+        final List<String> buzzwords = new ArrayList<>();
+        int words;
+        int bodyLines;
+        int actionBullets;
+        int quantifiedBullets;
+        int firstPerson;
+        int denseBlocks;
+        int skillsInBullets;
+        boolean email;
+        boolean phone;
+        boolean dated;
+
+        Resume(final List<PageText> pageTexts, final SkillAutomaton dictionary) {
+            this.pages = pageTexts.size();
+            final StringBuilder all = new StringBuilder();
+            final StringBuilder bulletText = new StringBuilder();
+            int proseRun = 0;
+            for (final PageText page : pageTexts) {
+                for (final TextBlock line : linesOf(page)) {
+                    final String text = line.getText().strip();
+                    all.append(text).append('\n');
+                    final String section = HEADINGS.get(normalizeHeading(text));
+                    if (section != null) {
+                        sections.add(section);
+                        headings.add(line);
+                        proseRun = 0;
+                        continue;
+                    }
+                    bodyLines++;
+                    if (!text.isEmpty() && BULLET_MARKERS.indexOf(text.charAt(0)) >= 0) {
+                        final String bullet = text.substring(1).strip();
+                        bullets.add(bullet);
+                        bulletText.append(bullet).append('\n');
+                        final List<String> tokens = Tokens.tokenize(bullet);
+                        if (!tokens.isEmpty() && ACTION_VERBS.contains(tokens.get(0))) {
+                            actionBullets++;
+                        }
+                        if (QUANTITY.matcher(bullet).find()) {
+                            quantifiedBullets++;
+                        }
+                        proseRun = 0;
+                    } else if (text.split("\\s+").length >= 8) {
+                        if (++proseRun == 5) {
+                            denseBlocks++;
+                        }
+                    } else {
+                        proseRun = 0;
+                    }
+                }
+            }
+
+            final String text = all.toString();
+            final List<String> tokens = Tokens.tokenize(text);
+            words = tokens.size();
+            terms = new HashSet<>();
+            for (final String token : tokens) {
+                terms.add(Tokens.stem(token));
+            }
+            for (final String token : tokens) {
+                if (FIRST_PERSON.contains(token)) {
+                    firstPerson++;
+                }
+            }
+            final String lower = text.toLowerCase(Locale.ROOT);
+            for (final String phrase : WEAK_PHRASES) {
+                if (lower.contains(phrase)) {
+                    weakPhrases.add(phrase);
+                }
+            }
+            for (final String word : BUZZWORDS) {
+                if (lower.contains(word)) {
+                    buzzwords.add(word);
+                }
+            }
+            email = EMAIL.matcher(text).find();
+            phone = PHONE.matcher(text).find();
+            dated = YEAR.matcher(text).find();
+            skills = skillsIn(dictionary, text, null);
+            skillsInBullets = skillsIn(dictionary, bulletText, null).size();
+        }
+
+        List<String> missing(final String... required) {
+            return Arrays.stream(required).filter(s -> !sections.contains(s)).toList();
+        }
+
+        double averageBulletWords() {
+            if (bullets.isEmpty()) {
+                return 0;
+            }
+            int total = 0;
+            for (final String bullet : bullets) {
+                total += bullet.split("\\s+").length;
+            }
+            return (double) total / bullets.size();
+        }
+
+        /**
+         * Headings share one style when their sizes agree to half a point and they are all bold
+         * or all regular. Text without layout (size 0) is given the benefit of the doubt.
+         */
+        boolean consistentHeadings() {
+            if (headings.size() < 2) {
+                return !headings.isEmpty();
+            }
+            final TextBlock first = headings.get(0);
+            for (final TextBlock heading : headings) {
+                if (Math.abs(heading.getFontSize() - first.getFontSize()) > 0.5 || heading.isBold() != first.isBold()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static List<TextBlock> linesOf(final PageText page) {
+            if (!page.getBlocks().isEmpty() || page.getText() == null || page.getText().isEmpty()) {
+                return page.getBlocks();
+            }
+            final List<TextBlock> lines = new ArrayList<>();
+            for (final String line : page.getText().split("\n")) {
+                lines.add(new TextBlock(line, 0, 0, 0, 0, 0, false));
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * A job description's most telling terms, found once and shared by every resume scored
+     * against it.
+     */
+    public static final class PreparedJob {
+        final JobDescription job;
+        final SkillAutomaton automaton;
+        final List<String> terms;
+        final Set<String> skills;
+
+        PreparedJob(final JobDescription job, final SkillAutomaton automaton) {
+            this.job = job;
+            this.automaton = automaton;
+            // Skills are keywords in their own right; blank them out so their words, or a
+            // synonym like k8s, are not counted again as plain terms
+            final StringBuilder text = new StringBuilder(job.getTitle()).append('\n').append(job.getDescription());
+            skills = Collections.unmodifiableSet(skillsIn(automaton, text, text));
+            final List<String> tokens = Tokens.tokenize(text.toString());
+            final Set<String> titleTokens = new HashSet<>(Tokens.tokenize(job.getTitle()));
+
+            // Frequency of each stem plus a bonus for words in the title; ties keep first-seen order,
+            // and each stem is shown as the first word that produced it
+            final Map<String, Integer> weights = new LinkedHashMap<>();
+            final Map<String, String> surface = new HashMap<>();
+            for (final String token : tokens) {
+                if (Tokens.isNoise(token)) {
+                    continue;
+                }
+                final String stem = Tokens.stem(token);
+                surface.putIfAbsent(stem, token);
+                weights.merge(stem, titleTokens.contains(token) ? 3 : 1, Integer::sum);
+            }
+            final List<String> ranked = weights.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .map(e -> surface.get(e.getKey()))
+                .collect(Collectors.toCollection(ArrayList::new));
+            // Skills first, then the heaviest words
+            final Set<String> picked = new LinkedHashSet<>(skills);
+            for (final String term : ranked) {
+                if (picked.size() >= MAX_KEYWORDS) {
+                    break;
+                }
+                picked.add(term);
+            }
+            terms = List.copyOf(picked);
+        }
+
+        /**
+         * Gets the job.
+         *
+         * @return the job description
+         */
+        public JobDescription getJob() {
+            return job;
+        }
+
+        /**
+         * Gets the version of the skill dictionary the job was read with.
+         *
+         * @return the dictionary version
+         */
+        public String getDictionaryVersion() {
+            return automaton.version();
+        }
+    }
+
+    /**
+     * The job's keywords, and which of them the resume contains.
+     */
+    private static final class Keywords {
+        final List<String> jd;
+        final List<String> matched = new ArrayList<>();
+        final Set<String> jdSkills;
+
+        Keywords(final PreparedJob job, final Resume resume) {
+            jd = job.terms;
+            jdSkills = job.skills;
+            for (final String term : jd) {
+                if (resume.skills.contains(term) || resume.terms.contains(Tokens.stem(term))) {
+                    matched.add(term);
+                }
+            }
+        }
+
+        /**
+         * Share of the job's keywords the resume contains; 0.6 when there is no job to compare with,
+         * so a missing description neither rewards nor sinks the score.
+         */
+        double coverage() {
+            return jd.isEmpty() ? 0.6 : (double) matched.size() / jd.size();
+        }
+
+        List<String> missing() {
+            return jd.stream().filter(t -> !matched.contains(t)).toList();
+        }
+    }
+
+    /**
+     * Finds known skills in one pass of the dictionary automaton.
+     *
+     * @param dictionary the automaton
+     * @param text the text to scan
+     * @param blank if not {@code null}, the text's buffer, in which each match is overwritten with spaces
+     * @return canonical names in order of first mention
+     */
+    private static Set<String> skillsIn(final SkillAutomaton dictionary, final CharSequence text,
+                                        final StringBuilder blank) {
+        final Set<String> found = new LinkedHashSet<>();
+        final String[] names = dictionary.names();
+        dictionary.scan(text, (skill, start, end) -> {
+            found.add(names[skill]);
+            if (blank != null) {
+                for (int i = start; i < end; i++) {
+                    blank.setCharAt(i, ' ');
+                }
+            }
+        });
+        return found;
+    }
+
+    private static String normalizeHeading(final String line) {
+        if (line.length() > 40) {
+            return "";
+        }
+        final StringBuilder sb = new StringBuilder(line.length());
+        boolean space = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (Character.isLetter(c)) {
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (c == '&') {
+                if (sb.length() > 0) {
+                    sb.append(" and");
+                }
+                space = true;
+            } else if (Character.isWhitespace(c)) {
+                space = true;
+            } else if (c != ':' && c != '|') {
+                return "";
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, String> headings(final Map<String, List<String>> bySection) {
+        final Map<String, String> headings = new HashMap<>();
+        bySection.forEach((section, names) -> names.forEach(name -> headings.put(name, section)));
+        return Map.copyOf(headings);
+    }
+
+    private static String list(final Collection<String> items) {
+        final List<String> shown = new ArrayList<>();
+        for (final String item : items) {
+            if (shown.size() == MAX_LISTED) {
+                break;
+            }
+            shown.add(item);
+        }
+        if (shown.size() <= 1) {
+            return shown.isEmpty() ? "" : shown.get(0);
+        }
+        return String.join(", ", shown.subList(0, shown.size() - 1)) + " and " + shown.get(shown.size() - 1);
+    }
+
+    private static String quoted(final List<String> phrases) {
+        return phrases.stream().limit(3).map(p -> "\"" + p + "\"").collect(Collectors.joining(", "));
+    }
+
+    private static int clamp(final double score) {
+        return (int) Math.max(0, Math.min(100, Math.round(score)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.authbackend.resume;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * How far a resume review has got. Stages are reported in declaration order, except that a
+ * cached review goes straight from {@link #QUEUED} to {@link #DONE}.
+ */
+public enum ReviewStage {
+    /** Accepted and waiting for a worker. */
+    QUEUED,
+    /** The resume's text has been extracted. */
+    EXTRACTED,
+    /** The resume has been scored against the job. */
+    SCORED,
+    /** The review is ready. */
+    DONE,
+    /** The review could not be computed. */
+    FAILED;
+
+    /**
+     * Gets the stage's name as clients see it, in status responses and as the SSE event name.
+     *
+     * @return the lowercase name
+     */
+    @JsonValue
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether nothing more will happen after this stage.
+     *
+     * @return true for {@link #DONE} and {@link #FAILED}
+     */
+    public boolean isTerminal() {
+        return this == DONE || this == FAILED;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.authbackend.resume;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable Aho-Corasick automaton over the skill dictionary's phrases.
+ *
+ * <p>Text is read as a stream of symbols: lowercased word characters as in {@link Tokens},
+ * with every run of anything else collapsed to one space. Phrases are stored with a space on
+ * either side and the text is scanned with a virtual space at each end, so a phrase only
+ * matches as whole words: {@code java} does not fire inside {@code javascript}.</p>
+ *
+ * <p>Characters that occur in some phrase get a dense symbol id and everything else shares
+ * symbol 0, which no phrase contains. Failure links are resolved at build time into a full
+ * transition table, {@code delta[state * symbols + symbol]}, so a scan is one array load per
+ * character. Each state's matches, its own and those reachable through failure links, are
+ * flattened into {@code outputs[outputStart[state]..outputStart[state + 1]]}. Scanning
+ * allocates nothing per match.</p>
+ */
+final class SkillAutomaton {
+
+    /** Receives matches as primitives. */
+    @FunctionalInterface
+    interface MatchListener {
+        /**
+         * Called once per match, in order of the match's end.
+         *
+         * @param skill the skill's id, an index into {@link #names()}
+         * @param start offset of the match's first character in the text
+         * @param end offset just past the match's last character
+         */
+        void onMatch(int skill, int start, int end);
+    }
+
+    private static final char SPACE = ' ';
+
+    private final String version;
+    private final String[] names;
+    private final char[] symbolChars;
+    /** Symbol ids of ASCII characters; ints, as the alphabet can hold any number of non-ASCII ones too. */
+    private final int[] symbolOf = new int[128];
+    private final char[] wideChars;
+    private final int[] wideSymbols;
+    private final int symbols;
+    private final int[] delta;
+    private final int[] outputStart;
+    private final int[] outputs;
+    private final int[] phraseLength;
+    private final int maxPhraseLength;
+
+    /**
+     * Compiles phrases into an automaton.
+     *
+     * @param version identifies the dictionary contents
+     * @param names canonical skill names, indexed by skill id
+     * @param phrases each phrase, already normalized, mapped to its skill id
+     */
+    SkillAutomaton(final String version, final List<String> names, final Map<String, Integer> phrases) {
+        this.version = version;
+        this.names = names.toArray(new String[0]);
+
+        // Dense symbol ids for the characters phrases use; 0 stands for everything else
+        final StringBuilder alphabet = new StringBuilder().append('\0').append(SPACE);
+        for (final String phrase : phrases.keySet()) {
+            for (int i = 0; i < phrase.length(); i++) {
+                if (alphabet.indexOf(String.valueOf(phrase.charAt(i))) < 0) {
+                    alphabet.append(phrase.charAt(i));
+                }
+            }
+        }
+        this.symbolChars = alphabet.toString().toCharArray();
+        this.symbols = symbolChars.length;
+        // Non-ASCII symbols are looked up by binary search over the sorted characters
+        final char[] wide = alphabet.chars().filter(c -> c >= 128).sorted()
+            .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString().toCharArray();
+        this.wideChars = wide;
+        this.wideSymbols = new int[wide.length];
+        for (int s = 1; s < symbols; s++) {
+            final char c = symbolChars[s];
+            if (c < 128) {
+                symbolOf[c] = s;
+            } else {
+                wideSymbols[Arrays.binarySearch(wide, c)] = s;
+            }
+        }
+
+        // Trie, with phrase ids per node
+        final List<int[]> children = new ArrayList<>();
+        final List<List<Integer>> own = new ArrayList<>();
+        children.add(newRow());
+        own.add(new ArrayList<>());
+        final int[] lengths = new int[phrases.size()];
+        final List<Integer> phraseSkill = new ArrayList<>();
+        int longest = 0;
+        for (final Map.Entry<String, Integer> entry : phrases.entrySet()) {
+            final String bounded = SPACE + entry.getKey() + SPACE;
+            int state = 0;
+            for (int i = 0; i < bounded.length(); i++) {
+                final int symbol = symbol(bounded.charAt(i));
+                if (children.get(state)[symbol] < 0) {
+                    children.get(state)[symbol] = children.size();
+                    children.add(newRow());
+                    own.add(new ArrayList<>());
+                }
+                state = children.get(state)[symbol];
+            }
+            own.get(state).add(phraseSkill.size());
+            lengths[phraseSkill.size()] = bounded.length();
+            phraseSkill.add(entry.getValue());
+            longest = Math.max(longest, bounded.length());
+        }
+        this.phraseLength = lengths;
+        this.maxPhraseLength = longest;
+
+        // Breadth-first: resolve failure links into the transition table and merge outputs
+        final int states = children.size();
+        this.delta = new int[states * symbols];
+        final int[] fail = new int[states];
+        final int[] order = new int[states];
+        int ordered = 0;
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < symbols; s++) {
+            final int child = children.get(0)[s];
+            if (child > 0) {
+                delta[s] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            order[ordered++] = state;
+            for (int s = 0; s < symbols; s++) {
+                final int child = children.get(state)[s];
+                if (child > 0) {
+                    fail[child] = delta[fail[state] * symbols + s];
+                    delta[state * symbols + s] = child;
+                    queue.add(child);
+                } else {
+                    delta[state * symbols + s] = delta[fail[state] * symbols + s];
+                }
+            }
+        }
+
+        // Parents come before children in BFS order, so each state's failure target is complete
+        final List<List<Integer>> merged = new ArrayList<>(states);
+        for (int i = 0; i < states; i++) {
+            merged.add(new ArrayList<>(own.get(i)));
+        }
+        for (int i = 0; i < ordered; i++) {
+            final int state = order[i];
+            merged.get(state).addAll(merged.get(fail[state]));
+        }
+        this.outputStart = new int[states + 1];
+        int total = 0;
+        for (int state = 0; state < states; state++) {
+            outputStart[state] = total;
+            total += merged.get(state).size();
+        }
+        outputStart[states] = total;
+        this.outputs = new int[total * 2];
+        for (int state = 0, k = 0; state < states; state++) {
+            for (final int phrase : merged.get(state)) {
+                outputs[k++] = phraseSkill.get(phrase);
+                outputs[k++] = phrase;
+            }
+        }
+    }
+
+    /**
+     * Normalizes a phrase the way text is read during a scan.
+     *
+     * @param phrase the phrase
+     * @return its tokens joined by single spaces
+     */
+    static String normalize(final String phrase) {
+        return String.join(" ", Tokens.tokenize(phrase));
+    }
+
+    /**
+     * Gets the dictionary version.
+     *
+     * @return a hash of the dictionary file
+     */
+    String version() {
+        return version;
+    }
+
+    /**
+     * Gets the canonical skill names.
+     *
+     * @return names indexed by skill id
+     */
+    String[] names() {
+        return names;
+    }
+
+    /**
+     * Gets the number of skills.
+     *
+     * @return the count
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Finds every phrase in one pass over the text.
+     *
+     * @param text the text
+     * @param listener receives each match
+     */
+    void scan(final CharSequence text, final MatchListener listener) {
+        // Offsets of the last few symbols fed, to map a match back to where it started. A space
+        // symbol records the last character of its run, so the match starts one past it.
+        final int[] offsets = new int[Math.max(1, maxPhraseLength)];
+        int fed = 0;
+        int state = delta[symbol(SPACE)];
+        offsets[fed++ % offsets.length] = -1;
+        boolean space = true;
+        final int n = text.length();
+        for (int i = 0; i <= n; i++) {
+            final char c;
+            if (i == n) {
+                c = SPACE;
+            } else {
+                final char raw = Character.toLowerCase(text.charAt(i));
+                if (Character.isLetterOrDigit(raw)) {
+                    c = raw;
+                } else if ((raw == '+' || raw == '#') && !space) {
+                    c = raw;
+                } else if (raw == '.' && !space && i + 1 < n && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    c = raw;
+                } else {
+                    c = SPACE;
+                }
+            }
+            if (c == SPACE) {
+                if (space && i < n) {
+                    offsets[(fed - 1) % offsets.length] = i;
+                    continue;
+                }
+                space = true;
+            } else {
+                space = false;
+            }
+            offsets[fed++ % offsets.length] = i;
+            state = delta[state * symbols + symbol(c)];
+            for (int k = outputStart[state] * 2, end = outputStart[state + 1] * 2; k < end; k += 2) {
+                final int length = phraseLength[outputs[k + 1]];
+                // The match spans the fed symbols from its leading space to its trailing one
+                final int start = offsets[(fed - length) % offsets.length] + 1;
+                listener.onMatch(outputs[k], start, i);
+            }
+        }
+    }
+
+    /**
+     * Finds which skills a text mentions.
+     *
+     * @param text the text
+     * @return skill ids
+     */
+    BitSet find(final CharSequence text) {
+        final BitSet found = new BitSet(names.length);
+        scan(text, (skill, start, end) -> found.set(skill));
+        return found;
+    }
+
+    private int symbol(final char c) {
+        if (c < 128) {
+            return symbolOf[c];
+        }
+        final int i = Arrays.binarySearch(wideChars, c);
+        return i < 0 ? 0 : wideSymbols[i];
+    }
+
+    private int[] newRow() {
+        final int[] row = new int[symbolChars.length];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
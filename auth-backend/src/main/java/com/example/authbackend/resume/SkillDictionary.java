@@ -0,0 +1,226 @@
+package com.example.authbackend.resume;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skills and their synonyms, compiled into a {@link SkillAutomaton} for single-pass matching.
+ *
+ * <p>The dictionary is a text file with one skill per line, the canonical name optionally
+ * followed by a colon and comma-separated synonyms ({@code Kubernetes: k8s}); blank lines and
+ * lines starting with {@code #} are ignored. It is read from {@code resume.skills.file}, or from the
+ * bundled {@code skills.txt} when no file is configured or it does not exist yet.</p>
+ *
+ * <p>A watcher thread recompiles the dictionary when the file changes. The new automaton is
+ * built off to the side and published with one volatile write, so scans already running finish
+ * on the automaton they started with and nothing waits for the rebuild. A file that fails to
+ * load leaves the previous dictionary in place.</p>
+ */
+@Component
+public class SkillDictionary implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SkillDictionary.class);
+    private static final String BUNDLED = "skills.txt";
+
+    private final Path file;
+    private final WatchService watcher;
+    private final Thread watchThread;
+    private volatile SkillAutomaton automaton;
+
+    /**
+     * Loads the dictionary and starts watching its file.
+     *
+     * @param file path of the dictionary file; empty to use only the bundled one
+     * @throws IOException if the bundled dictionary cannot be read
+     */
+    public SkillDictionary(@Value("${resume.skills.file:}") final String file) throws IOException {
+        this.file = file.isBlank() ? null : Paths.get(file).toAbsolutePath().normalize();
+        this.automaton = load();
+        if (this.file != null && Files.isDirectory(this.file.getParent())) {
+            this.watcher = this.file.getFileSystem().newWatchService();
+            this.file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            this.watchThread = new Thread(this::watch, "skill-dictionary-watch");
+            watchThread.setDaemon(true);
+            watchThread.start();
+        } else {
+            this.watcher = null;
+            this.watchThread = null;
+        }
+    }
+
+    /**
+     * Finds the skills a text mentions, by canonical name.
+     *
+     * @param text the text
+     * @return canonical names in dictionary order
+     */
+    public Set<String> find(final CharSequence text) {
+        final SkillAutomaton current = automaton;
+        final BitSet found = current.find(text);
+        final Set<String> names = new LinkedHashSet<>();
+        for (int skill = found.nextSetBit(0); skill >= 0; skill = found.nextSetBit(skill + 1)) {
+            names.add(current.names()[skill]);
+        }
+        return names;
+    }
+
+    /**
+     * Gets the current automaton, for callers that scan several texts and want them all
+     * matched against the same version of the dictionary.
+     *
+     * @return the automaton
+     */
+    SkillAutomaton automaton() {
+        return automaton;
+    }
+
+    /**
+     * Gets the version of the dictionary in use, which changes whenever its contents do.
+     *
+     * @return a short hash of the dictionary file
+     */
+    public String version() {
+        return automaton.version();
+    }
+
+    /**
+     * Gets the number of skills.
+     *
+     * @return the count
+     */
+    public int size() {
+        return automaton.size();
+    }
+
+    /**
+     * Recompiles the dictionary from its source now.
+     *
+     * @throws IOException if the source cannot be read; the current dictionary is kept
+     */
+    public void reload() throws IOException {
+        final long started = System.nanoTime();
+        automaton = load();
+        LOG.info("Loaded {} skills in {} ms", automaton.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            try {
+                watchThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private SkillAutomaton load() throws IOException {
+        if (file != null && Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                return parse(in);
+            }
+        }
+        if (file != null) {
+            LOG.warn("Skill dictionary {} not found; using the bundled one until it appears", file);
+        }
+        try (InputStream in = new ClassPathResource(BUNDLED).getInputStream()) {
+            return parse(in);
+        }
+    }
+
+    private static SkillAutomaton parse(final InputStream in) throws IOException {
+        final List<String> names = new ArrayList<>();
+        final Map<String, Integer> phrases = new LinkedHashMap<>();
+        final MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new DigestInputStream(in, sha256), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final String entry = line.strip();
+                // Only whole-line comments, since '#' is part of names like C#
+                if (entry.isEmpty() || entry.startsWith("#")) {
+                    continue;
+                }
+                final int colon = entry.indexOf(':');
+                final String name = (colon < 0 ? entry : entry.substring(0, colon)).strip();
+                final int skill = names.size();
+                names.add(name);
+                phrases.putIfAbsent(SkillAutomaton.normalize(name), skill);
+                if (colon >= 0) {
+                    for (final String synonym : entry.substring(colon + 1).split(",")) {
+                        final String phrase = SkillAutomaton.normalize(synonym);
+                        if (!phrase.isEmpty()) {
+                            phrases.putIfAbsent(phrase, skill);
+                        }
+                    }
+                }
+            }
+        }
+        phrases.remove("");
+        return new SkillAutomaton(HexFormat.of().formatHex(sha256.digest(), 0, 8), names, phrases);
+    }
+
+    private void watch() {
+        while (true) {
+            final WatchKey key;
+            try {
+                key = watcher.take();
+            } catch (final InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context());
+            }
+            if (changed) {
+                try {
+                    reload();
+                } catch (final IOException | RuntimeException e) {
+                    LOG.warn("Failed to reload skill dictionary {}; keeping the previous one", file, e);
+                }
+            }
+            if (!key.reset()) {
+                LOG.warn("Skill dictionary directory is no longer watched");
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.authbackend.resume;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One line of text on a page with its bounding box, in points from the top-left corner.
+ */
+public final class TextBlock {
+
+    private final String text;
+    private final float x;
+    private final float y;
+    private final float width;
+    private final float height;
+    private final float fontSize;
+    private final boolean bold;
+
+    /**
+     * Constructor.
+     *
+     * @param text the line's text
+     * @param x left edge
+     * @param y top edge
+     * @param width box width
+     * @param height box height
+     * @param fontSize average font size in points
+     * @param bold whether most glyphs come from a bold font
+     */
+    @JsonCreator
+    public TextBlock(@JsonProperty("text") final String text, @JsonProperty("x") final float x,
+                     @JsonProperty("y") final float y, @JsonProperty("width") final float width,
+                     @JsonProperty("height") final float height, @JsonProperty("fontSize") final float fontSize,
+                     @JsonProperty("bold") final boolean bold) {
+        this.text = text;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.fontSize = fontSize;
+        this.bold = bold;
+    }
+
+    /**
+     * Gets the text.
+     *
+     * @return the line's text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the left edge.
+     *
+     * @return points from the left of the page
+     */
+    public float getX() {
+        return x;
+    }
+
+    /**
+     * Gets the top edge.
+     *
+     * @return points from the top of the page
+     */
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * Gets the width.
+     *
+     * @return the width in points
+     */
+    public float getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height.
+     *
+     * @return the height in points
+     */
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the font size.
+     *
+     * @return the average size in points
+     */
+    public float getFontSize() {
+        return fontSize;
+    }
+
+    /**
+     * Whether the line is set in a bold font.
+     *
+     * @return the flag
+     */
+    public boolean isBold() {
+        return bold;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.authbackend.resume;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Word tokenizer for resumes and job descriptions.
+ *
+ * <p>Tokens are lowercased runs of letters and digits; {@code +} and {@code #} are kept, and
+ * so is a {@code .} between word characters, so {@code C++}, {@code C#} and {@code Node.js}
+ * survive as single terms.</p>
+ */
+final class Tokens {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "about", "above", "across", "after", "all", "also", "am", "an", "and", "any", "are", "as", "at",
+        "be", "been", "being", "both", "but", "by", "can", "could", "do", "does", "each", "etc", "for", "from",
+        "has", "have", "having", "he", "her", "his", "how", "if", "in", "into", "is", "it", "its", "may", "more",
+        "most", "must", "no", "not", "of", "on", "one", "or", "other", "our", "out", "over", "per", "she",
+        "should", "so", "some", "such", "than", "that", "the", "their", "them", "then", "there", "these", "they",
+        "this", "those", "through", "to", "under", "up", "us", "use", "using", "very", "via", "was", "we",
+        "well", "were", "what", "when", "where", "which", "while", "who", "will", "with", "within", "would",
+        "you", "your",
+        // Job-ad boilerplate that says nothing about the role
+        "ability", "able", "candidate", "candidates", "company", "environment", "excellent", "experience",
+        "help", "ideal", "including", "join", "looking", "new", "plus", "preferred", "required", "requirements",
+        "responsibilities", "responsible", "role", "seeking", "strong", "team", "teams", "work", "working",
+        "year", "years");
+
+    private Tokens() {
+    }
+
+    /**
+     * Splits text into lowercase tokens.
+     *
+     * @param text the text
+     * @return the tokens in order
+     */
+    static List<String> tokenize(final String text) {
+        final List<String> tokens = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        final int n = text.length();
+        for (int i = 0; i < n; i++) {
+            final char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if ((c == '+' || c == '#') && token.length() > 0) {
+                token.append(c);
+            } else if (c == '.' && token.length() > 0 && i + 1 < n && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Strips common inflections so {@code designed}, {@code designing} and {@code designs}
+     * all match {@code design}. Only used to compare terms, never shown.
+     *
+     * @param token a lowercase token
+     * @return the stem
+     */
+    static String stem(final String token) {
+        String stem = token;
+        if (stem.length() > 5 && stem.endsWith("ing")) {
+            stem = stem.substring(0, stem.length() - 3);
+        } else if (stem.length() > 4 && stem.endsWith("ed")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.length() > 3 && stem.endsWith("s") && !stem.endsWith("ss")) {
+            stem = stem.substring(0, stem.length() - (stem.endsWith("es") ? 2 : 1));
+        }
+        if (stem.length() > 3 && stem.endsWith("e")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    /**
+     * Whether a token carries no meaning on its own.
+     *
+     * @param token a lowercase token
+     * @return true for stop words, single letters and bare numbers
+     */
+    static boolean isNoise(final String token) {
+        if (STOP_WORDS.contains(token)) {
+            return true;
+        }
+        if (token.length() < 2) {
+            return !"c".equals(token) && !"r".equals(token);
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
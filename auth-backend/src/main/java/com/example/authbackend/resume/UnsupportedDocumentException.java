@@ -0,0 +1,30 @@
+package com.example.authbackend.resume;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an uploaded file is not a PDF whose text can be read, e.g. an image or an
+ * encrypted document.
+ */
+public class UnsupportedDocumentException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     *
+     * @param message what is wrong with the file
+     */
+    public UnsupportedDocumentException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param message what is wrong with the file
+     * @param cause the parser's error
+     */
+    public UnsupportedDocumentException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
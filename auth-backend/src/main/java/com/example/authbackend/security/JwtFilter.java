@@ -1,8 +1,7 @@
 package com.example.authbackend.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.example.authbackend.metrics.LatencyHistogram;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,25 +11,31 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.ArrayList;
 
 /**
  * JWT authentication filter that validates incoming JWT tokens.
+ *
+ * <p>Only access tokens authenticate a request; refresh tokens and revoked tokens leave it
+ * unauthenticated.</p>
  */
 public class JwtFilter extends OncePerRequestFilter {
 
-    private static final String SECRET_KEY = "MyVeryLongSecretKeyForJWTSigningThatIsAtLeast256BitsLongForHS256Algorithm123456";
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
-    private final SecretKey key;
+    private final JwtUtil jwtUtil;
+    private final LatencyHistogram verifyTime;
 
     /**
      * Constructor for JwtFilter.
+     *
+     * @param jwtUtil verifies tokens, with its shared parser and verified-token cache
+     * @param verifyTime records how long each bearer token took to verify, valid or not
      */
-    public JwtFilter() {
-        this.key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    public JwtFilter(final JwtUtil jwtUtil, final LatencyHistogram verifyTime) {
+        this.jwtUtil = jwtUtil;
+        this.verifyTime = verifyTime;
     }
 
     @Override
@@ -44,23 +49,20 @@ public class JwtFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith(BEARER_PREFIX)) {
             final String token = header.substring(BEARER_PREFIX.length());
 
+            final long started = System.nanoTime();
             try {
-                final Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-                final String username = claims.getSubject();
+                final String username = jwtUtil.verifyAccess(token).getSubject();
                 final Authentication authentication = new UsernamePasswordAuthenticationToken(
                     username,
                     null,
                     new ArrayList<>()
                 );
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            } catch (final Exception e) {
+            } catch (final JwtException | IllegalArgumentException e) {
                 // Token validation failed, continue without authentication
                 logger.warn("JWT validation failed: " + e.getMessage());
+            } finally {
+                verifyTime.recordSince(started);
             }
         }
 
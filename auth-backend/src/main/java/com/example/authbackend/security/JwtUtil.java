@@ -1,60 +1,185 @@
 package com.example.authbackend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * Utility class for JWT token generation and validation.
+ *
+ * <p>Tokens are signed with the current key of the shared {@link KeyRing} and name it in their
+ * {@code kid} header, and are parsed with one shared, thread-safe parser that finds the key by
+ * that header, so a token stays valid across key rotations. Since clients send the same bearer
+ * token with every request, verified tokens are kept in a bounded cache keyed by the token's
+ * digest, of up to {@code jwt.verified-cache.max-entries}, and a repeat is answered without
+ * checking the signature or parsing the claims again, until the token's {@code exp}.</p>
+ *
+ * <p>Each token carries a unique {@code jti}, a {@code typ} of access or refresh, and a
+ * {@code fam} shared by every token descended from one login. Refresh tokens are single use:
+ * {@link #redeem} revokes the one presented, and presenting it again revokes its whole family,
+ * since one of the two holders has a stolen copy. Revocations are checked on every
+ * {@link #verify}, cached or not, against {@link RevocationList}.</p>
  */
 @Component
 public class JwtUtil {
 
-    private static final String SECRET_KEY = "MyVeryLongSecretKeyForJWTSigningThatIsAtLeast256BitsLongForHS256Algorithm123456";
     private static final long EXPIRATION_TIME = 86400000; // 24 hours in milliseconds
-    private static final long REFRESH_EXPIRATION_TIME = 604800000; // 7 days in milliseconds
+    static final long REFRESH_EXPIRATION_TIME = 604800000; // 7 days in milliseconds
+    private static final String TYPE_CLAIM = "typ";
+    private static final String FAMILY_CLAIM = "fam";
+    private static final String ACCESS_TYPE = "access";
+    private static final String REFRESH_TYPE = "refresh";
 
-    private final SecretKey key;
+    private final KeyRing keyRing;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verified;
+    private final RevocationList revocations;
 
     /**
      * Constructor for JwtUtil.
+     *
+     * @param verifiedCacheSize most verified tokens to remember; 0 to verify every time
+     * @param revocations revoked token ids and families
+     * @param keyRing the signing keys
      */
-    public JwtUtil() {
-        this.key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    public JwtUtil(@Value("${jwt.verified-cache.max-entries:10000}") final int verifiedCacheSize,
+                   final RevocationList revocations, final KeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser().keyLocator(keyRing.locator()).build();
+        this.verified = new VerifiedTokenCache(verifiedCacheSize);
+        this.revocations = revocations;
     }
 
     /**
-     * Generates a JWT access token for the given username.
+     * Starts a new token family, for a login.
+     *
+     * @return a fresh family id
+     */
+    public String newFamily() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Generates a JWT access token for the given username, in a family of its own.
      *
      * @param username the username
      * @return the JWT access token
      */
     public String generateAccessToken(final String username) {
-        return Jwts.builder()
-            .subject(username)
-            .issuedAt(new Date())
-            .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-            .signWith(key)
-            .compact();
+        return generateAccessToken(username, newFamily());
     }
 
     /**
-     * Generates a JWT refresh token for the given username.
+     * Generates a JWT access token for the given username.
+     *
+     * @param username the username
+     * @param family the family from {@link #newFamily}
+     * @return the JWT access token
+     */
+    public String generateAccessToken(final String username, final String family) {
+        return generate(username, family, ACCESS_TYPE, EXPIRATION_TIME);
+    }
+
+    /**
+     * Generates a JWT refresh token for the given username, in a family of its own.
      *
      * @param username the username
      * @return the JWT refresh token
      */
     public String generateRefreshToken(final String username) {
-        return Jwts.builder()
-            .subject(username)
-            .issuedAt(new Date())
-            .expiration(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION_TIME))
-            .signWith(key)
-            .compact();
+        return generateRefreshToken(username, newFamily());
+    }
+
+    /**
+     * Generates a JWT refresh token for the given username.
+     *
+     * @param username the username
+     * @param family the family from {@link #newFamily}
+     * @return the JWT refresh token
+     */
+    public String generateRefreshToken(final String username, final String family) {
+        return generate(username, family, REFRESH_TYPE, REFRESH_EXPIRATION_TIME);
+    }
+
+    /**
+     * Verifies a JWT token's signature and expiry, from the cache when it was seen before, and
+     * that neither it nor its family has been revoked.
+     *
+     * @param token the JWT token
+     * @return the token's subject and expiry
+     * @throws RevokedTokenException if the token or its family has been revoked
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(final String token) {
+        final VerifiedToken verifiedToken = verifySignature(token);
+        if (revocations.isRevoked(verifiedToken.getId()) || revocations.isRevoked(verifiedToken.getFamily())) {
+            throw new RevokedTokenException(verifiedToken);
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * Verifies a bearer token: as {@link #verify}, and not a refresh token.
+     *
+     * @param token the JWT token
+     * @return the token's subject and expiry
+     * @throws JwtException if the token is not a valid access token
+     */
+    public VerifiedToken verifyAccess(final String token) {
+        final VerifiedToken verifiedToken = verify(token);
+        if (verifiedToken.isRefresh()) {
+            throw new JwtException("Refresh token used as an access token");
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * Spends a refresh token: verifies it and revokes it, so the caller can issue the next pair
+     * in its family. A token that was already spent revokes the whole family.
+     *
+     * @param token the refresh token
+     * @return the spent token, for its subject and family
+     * @throws RevokedTokenException if it was spent or its family revoked before
+     * @throws JwtException if it is not a valid refresh token
+     */
+    public VerifiedToken redeem(final String token) {
+        final VerifiedToken refreshToken;
+        try {
+            refreshToken = verify(token);
+        } catch (final RevokedTokenException e) {
+            revokeFamily(e.getToken());
+            throw e;
+        }
+        if (!refreshToken.isRefresh() || refreshToken.getId() == null || refreshToken.getFamily() == null) {
+            throw new JwtException("Not a refresh token");
+        }
+        // Two concurrent redeems of one token pass verify, but only one revokes it
+        if (!revocations.revoke(refreshToken.getId(), refreshToken.getExpiresAt())) {
+            revokeFamily(refreshToken);
+            throw new RevokedTokenException(refreshToken);
+        }
+        return refreshToken;
+    }
+
+    /**
+     * Revokes the token's whole family, ending the session it belongs to. A token without a
+     * family is revoked alone.
+     *
+     * @param token a verified token of the session
+     */
+    public void revokeFamily(final VerifiedToken token) {
+        if (token.getFamily() != null) {
+            // No token of the family outlives a refresh token issued now
+            revocations.revoke(token.getFamily(), System.currentTimeMillis() + REFRESH_EXPIRATION_TIME);
+        } else if (token.getId() != null) {
+            revocations.revoke(token.getId(), token.getExpiresAt());
+        }
     }
 
     /**
@@ -62,14 +187,10 @@ public class JwtUtil {
      *
      * @param token the JWT token
      * @return the username
+     * @throws JwtException if the token is not valid
      */
     public String extractUsername(final String token) {
-        final Claims claims = Jwts.parser()
-            .verifyWith(key)
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-        return claims.getSubject();
+        return verify(token).getSubject();
     }
 
     /**
@@ -80,13 +201,65 @@ public class JwtUtil {
      */
     public boolean validateToken(final String token) {
         try {
-            Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token);
+            verify(token);
             return true;
-        } catch (final Exception e) {
+        } catch (final JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+
+    /**
+     * Gets the number of verifications answered from the cache.
+     *
+     * @return the count since startup
+     */
+    public long verifiedCacheHits() {
+        return verified.hits();
+    }
+
+    /**
+     * Gets the number of verifications that checked the signature.
+     *
+     * @return the count since startup
+     */
+    public long verifiedCacheMisses() {
+        return verified.misses();
+    }
+
+    private String generate(final String username, final String family, final String type, final long lifetime) {
+        final long now = System.currentTimeMillis();
+        return keyRing.builder()
+            .id(UUID.randomUUID().toString())
+            .subject(username)
+            .claim(TYPE_CLAIM, type)
+            .claim(FAMILY_CLAIM, family)
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + lifetime))
+            .compact();
+    }
+
+    private VerifiedToken verifySignature(final String token) {
+        if (!verified.isEnabled()) {
+            return parse(token);
+        }
+        final VerifiedTokenCache.TokenDigest digest = verified.key(token);
+        final VerifiedToken cached = verified.get(digest, System.currentTimeMillis());
+        if (cached != null) {
+            return cached;
+        }
+        final VerifiedToken parsed = parse(token);
+        verified.put(digest, parsed);
+        return parsed;
+    }
+
+    private VerifiedToken parse(final String token) {
+        final Claims claims = parser.parseSignedClaims(token).getPayload();
+        // Tokens without exp are still valid, but are only cached until they would have expired
+        final long expiresAt = claims.getExpiration() == null
+            ? System.currentTimeMillis() + EXPIRATION_TIME
+            : claims.getExpiration().getTime();
+        // Tokens issued before typ was added are access tokens
+        return new VerifiedToken(claims.getSubject(), expiresAt, claims.getId(),
+            claims.get(FAMILY_CLAIM, String.class), REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class)));
+    }
 }
@@ -0,0 +1,299 @@
+package com.example.authbackend.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HMAC keys tokens are signed and verified with, indexed by {@code kid}.
+ *
+ * <p>Keys live in the PKCS#12 keystore {@code jwt.keys.file}, loaded once at startup and created
+ * with a first key if missing. New tokens are signed with the newest key and name it in their
+ * {@code kid} header; verification looks the key up by that header in a map that is replaced,
+ * never changed, so it takes no lock. Every {@code jwt.keys.rotation-ms} a new key is generated,
+ * saved and made current. A key that has been replaced is kept for as long as the tokens it
+ * signed can live, and then dropped from the ring and the file.</p>
+ *
+ * <p>The keystore is local to the instance: instances that must accept each other's tokens need
+ * to share the file and only one of them may rotate.</p>
+ */
+@Component
+public class KeyRing implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KeyRing.class);
+    private static final String KEY_ALGORITHM = "HmacSHA256";
+    private static final int KEY_BITS = 256;
+    private static final long CHECK_INTERVAL_MS = 60_000;
+
+    /** A key and its id. */
+    private static final class SigningKey {
+        private final String kid;
+        private final SecretKey key;
+
+        SigningKey(final String kid, final SecretKey key) {
+            this.kid = kid;
+            this.key = key;
+        }
+    }
+
+    private final Path file;
+    private final char[] password;
+    private final long rotationMillis;
+    private final ScheduledExecutorService rotator;
+    private final Locator<Key> locator = new LocatorAdapter<>() {
+        @Override
+        protected Key locate(final JwsHeader header) {
+            return verificationKey(header.getKeyId());
+        }
+    };
+    private volatile Map<String, SecretKey> keys;
+    private volatile SigningKey current;
+
+    /**
+     * Loads the keystore, creating it if missing, and schedules rotation.
+     *
+     * @param file the PKCS#12 keystore
+     * @param password its password, also used for each key entry; has no default and must come
+     *                 from the environment ({@code JWT_KEYS_PASSWORD}) or external configuration
+     * @param rotationMillis how long a key signs before the next replaces it; 0 never rotates
+     * @throws IOException if the keystore cannot be read or written
+     * @throws GeneralSecurityException if the keystore is damaged or the password is wrong
+     * @throws IllegalArgumentException if the password is blank
+     */
+    public KeyRing(@Value("${jwt.keys.file:jwt-keys.p12}") final String file,
+                   @Value("${jwt.keys.password}") final String password,
+                   @Value("${jwt.keys.rotation-ms:86400000}") final long rotationMillis)
+        throws IOException, GeneralSecurityException {
+        if (password.isBlank()) {
+            throw new IllegalArgumentException("jwt.keys.password must be set");
+        }
+        this.file = Paths.get(file).toAbsolutePath();
+        this.password = password.toCharArray();
+        this.rotationMillis = rotationMillis;
+
+        final KeyStore store = load();
+        final Map<String, SecretKey> loaded = new HashMap<>();
+        for (final String alias : Collections.list(store.aliases())) {
+            final Key key = store.getKey(alias, this.password);
+            if (key instanceof SecretKey) {
+                loaded.put(alias, Keys.hmacShaKeyFor(key.getEncoded()));
+            }
+        }
+        this.keys = Map.copyOf(loaded);
+        if (loaded.isEmpty()) {
+            rotate(System.currentTimeMillis());
+        } else {
+            final String kid = newest(loaded.keySet());
+            this.current = new SigningKey(kid, loaded.get(kid));
+            LOG.info("Loaded {} signing keys from {}, current {}", loaded.size(), this.file, kid);
+        }
+
+        this.rotator = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "jwt-key-rotation");
+            t.setDaemon(true);
+            return t;
+        });
+        if (rotationMillis > 0) {
+            final long interval = Math.min(rotationMillis, CHECK_INTERVAL_MS);
+            rotator.scheduleWithFixedDelay(this::rotateIfDue, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Gets the id of the key new tokens are signed with.
+     *
+     * @return the {@code kid} header value
+     */
+    public String currentKid() {
+        return current.kid;
+    }
+
+    /**
+     * Starts a token that will be signed with the current key and name it in its header.
+     *
+     * @return a builder for the token's claims
+     */
+    public JwtBuilder builder() {
+        // One read, so the kid and the key always match across a rotation
+        final SigningKey signing = current;
+        return Jwts.builder().header().keyId(signing.kid).and().signWith(signing.key);
+    }
+
+    /**
+     * Gets the key a token names in its {@code kid} header.
+     *
+     * @param kid the header value, or null
+     * @return the key
+     * @throws JwtException if no key in the ring has that id
+     */
+    public SecretKey verificationKey(final String kid) {
+        final SecretKey key = kid == null ? null : keys.get(kid);
+        if (key == null) {
+            throw new JwtException("Unknown signing key");
+        }
+        return key;
+    }
+
+    /**
+     * Gets a key locator for a JWT parser, backed by {@link #verificationKey}.
+     *
+     * @return the locator
+     */
+    public Locator<Key> locator() {
+        return locator;
+    }
+
+    /**
+     * Gets the number of keys tokens are accepted with.
+     *
+     * @return the count
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public void close() {
+        rotator.shutdownNow();
+    }
+
+    /**
+     * Generates a key, makes it current and drops keys whose tokens have all expired.
+     *
+     * @param now the current time in epoch milliseconds
+     * @throws IOException if the keystore cannot be written
+     * @throws GeneralSecurityException if the key cannot be generated or stored
+     */
+    synchronized void rotate(final long now) throws IOException, GeneralSecurityException {
+        final KeyGenerator generator = KeyGenerator.getInstance(KEY_ALGORITHM);
+        generator.init(KEY_BITS);
+        final SecretKey generated = Keys.hmacShaKeyFor(generator.generateKey().getEncoded());
+        // The kid records when the key was made; the suffix keeps two made in one millisecond apart
+        final String kid = Long.toString(now, 36) + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        final Map<String, SecretKey> next = new HashMap<>(keys);
+        next.put(kid, generated);
+        next.keySet().removeIf(k -> isRetired(k, next.keySet(), now));
+
+        final KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, password);
+        final KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(password);
+        for (final Map.Entry<String, SecretKey> entry : next.entrySet()) {
+            store.setEntry(entry.getKey(), new KeyStore.SecretKeyEntry(entry.getValue()), protection);
+        }
+        save(store);
+
+        // Verification learns the key before anything is signed with it
+        keys = Map.copyOf(next);
+        current = new SigningKey(kid, generated);
+        LOG.info("Rotated signing key to {}, {} keys in the ring", kid, next.size());
+    }
+
+    private void rotateIfDue() {
+        final long now = System.currentTimeMillis();
+        if (now - createdAt(current.kid) < rotationMillis) {
+            return;
+        }
+        try {
+            rotate(now);
+        } catch (final IOException | GeneralSecurityException | RuntimeException e) {
+            // The current key keeps signing; the next check tries again
+            LOG.warn("Failed to rotate signing key", e);
+        }
+    }
+
+    /** A key is retired once the longest-lived token it could have signed has expired. */
+    private static boolean isRetired(final String kid, final Iterable<String> all, final long now) {
+        final long created = createdAt(kid);
+        long replaced = Long.MAX_VALUE;
+        for (final String other : all) {
+            final long otherCreated = createdAt(other);
+            if (otherCreated > created) {
+                replaced = Math.min(replaced, otherCreated);
+            }
+        }
+        return replaced != Long.MAX_VALUE && replaced + JwtUtil.REFRESH_EXPIRATION_TIME < now;
+    }
+
+    private static String newest(final Iterable<String> kids) {
+        final List<String> sorted = new ArrayList<>();
+        kids.forEach(sorted::add);
+        sorted.sort((a, b) -> Long.compare(createdAt(a), createdAt(b)));
+        return sorted.get(sorted.size() - 1);
+    }
+
+    private static long createdAt(final String kid) {
+        final int dash = kid.indexOf('-');
+        try {
+            return Long.parseLong(dash < 0 ? kid : kid.substring(0, dash), 36);
+        } catch (final NumberFormatException e) {
+            // Added to the file by hand: treat as oldest, never retired by age alone
+            return 0;
+        }
+    }
+
+    private KeyStore load() throws IOException, GeneralSecurityException {
+        final KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(file)) {
+            store.load(in, password);
+        } catch (final NoSuchFileException e) {
+            LOG.info("No keystore at {}, creating one", file);
+            store.load(null, password);
+        }
+        return store;
+    }
+
+    private void save(final KeyStore store) throws IOException, GeneralSecurityException {
+        final Path dir = file.getParent();
+        Files.createDirectories(dir);
+        final Path part = dir.resolve(file.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(part, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+                store.store(out, password);
+            }
+            try {
+                Files.setPosixFilePermissions(part, PosixFilePermissions.fromString("rw-------"));
+            } catch (final UnsupportedOperationException e) {
+                // Not a POSIX file system; the directory's permissions apply
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+}
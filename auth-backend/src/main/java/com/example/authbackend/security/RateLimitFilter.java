@@ -0,0 +1,68 @@
+package com.example.authbackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for {@code /api}: runs right after {@link JwtFilter} and takes a token from
+ * the caller's {@link RateLimiter} buckets: its address's, and its subject's too when the
+ * request carries a valid access token. A request either bucket refuses is answered 429 with a
+ * {@code Retry-After} of the seconds until it would be admitted, and goes no further.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] TOO_MANY_REQUESTS = "{\"error\":\"Too many requests, try again shortly\"}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter limiter;
+    private final LongAdder rejected;
+
+    /**
+     * Constructor.
+     *
+     * @param limiter the buckets
+     * @param rejected counts requests answered 429
+     */
+    public RateLimitFilter(final RateLimiter limiter, final LongAdder rejected) {
+        this.limiter = limiter;
+        this.rejected = rejected;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain filterChain) throws ServletException, IOException {
+
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final String subject = authentication != null && authentication.isAuthenticated()
+            ? authentication.getName()
+            : null;
+        final long wait = limiter.acquire(request.getMethod(), request.getRequestURI(), subject,
+            request.getRemoteAddr());
+        if (wait == RateLimiter.ADMITTED) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.increment();
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(TOO_MANY_REQUESTS.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.authbackend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets that admit or refuse {@code /api} requests, one per client and kind of request.
+ *
+ * <p>Requests fall into three limits: uploads ({@code POST /api/files/upload}), reviews and
+ * other AI work ({@code POST /api/ai/**}), and everything else under {@code /api}. Each limit
+ * refills at {@code ratelimit.<limit>.per-second} up to {@code ratelimit.<limit>.burst}, and
+ * has a bucket per client address and one per signed-in subject. Every request takes a token
+ * from its address's bucket, and a signed-in request from its subject's as well, so logging in
+ * under new usernames does not get an address past its limit, and one user cannot exceed it by
+ * spreading requests over addresses.</p>
+ *
+ * <p>A bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the generic cell rate algorithm): taking a token adds one refill interval to it with a
+ * compare-and-set, and it is refused if that puts it more than a burst ahead of now. No lock is
+ * taken and nothing is allocated once the client has a bucket. A bucket that has been full for
+ * {@code ratelimit.idle-ms} behaves exactly like a new one, so a sweeper drops it.</p>
+ */
+@Component
+public class RateLimiter implements Closeable {
+
+    /** What {@link #acquire} returns when the request may go ahead. */
+    public static final long ADMITTED = 0;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final String API_PREFIX = "/api/";
+    private static final String UPLOAD_PATH = "/api/files/upload";
+    private static final String AI_PREFIX = "/api/ai/";
+
+    /** One kind of request: its refill rate, burst and buckets. */
+    private static final class Limit {
+        private final long interval;
+        private final long tolerance;
+        private final ConcurrentHashMap<String, AtomicLong> bySubject = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, AtomicLong> byAddress = new ConcurrentHashMap<>();
+
+        Limit(final double perSecond, final int burst) {
+            if (perSecond < 0 || burst < 1) {
+                throw new IllegalArgumentException("ratelimit per-second must be >= 0 and burst >= 1");
+            }
+            this.interval = perSecond == 0 ? 0 : Math.max(1, (long) (NANOS_PER_SECOND / perSecond));
+            this.tolerance = interval * burst;
+        }
+
+        long acquire(final String subject, final String address, final long now) {
+            if (interval == 0) {
+                return ADMITTED;
+            }
+            final long wait = take(byAddress, address, now);
+            // If the subject then refuses, the address's token stays spent: retrying past a
+            // user's limit uses up the address's share as well
+            return wait != ADMITTED || subject == null ? wait : take(bySubject, subject, now);
+        }
+
+        private long take(final ConcurrentHashMap<String, AtomicLong> buckets, final String key, final long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                final AtomicLong created = new AtomicLong(now);
+                bucket = buckets.putIfAbsent(key, created);
+                if (bucket == null) {
+                    bucket = created;
+                }
+            }
+            while (true) {
+                final long full = bucket.get();
+                final long next = Math.max(full - now, 0) + now + interval;
+                final long ahead = next - now - tolerance;
+                if (ahead > 0) {
+                    return ahead;
+                }
+                if (bucket.compareAndSet(full, next)) {
+                    return ADMITTED;
+                }
+            }
+        }
+
+        void sweep(final long now, final long idle) {
+            // Taking a token from a bucket as it is dropped loses that token: at worst one
+            // extra request from a client that had been idle anyway
+            bySubject.values().removeIf(bucket -> now - bucket.get() >= idle);
+            byAddress.values().removeIf(bucket -> now - bucket.get() >= idle);
+        }
+
+        int size() {
+            return bySubject.size() + byAddress.size();
+        }
+    }
+
+    private final Limit uploads;
+    private final Limit ai;
+    private final Limit api;
+    private final boolean enabled;
+    private final long idleNanos;
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Starts the sweeper.
+     *
+     * @param enabled whether requests are limited at all
+     * @param uploadsPerSecond uploads refilled per second and client; 0 for no limit
+     * @param uploadsBurst uploads a rested client may make at once
+     * @param aiPerSecond AI requests refilled per second and client; 0 for no limit
+     * @param aiBurst AI requests a rested client may make at once
+     * @param apiPerSecond other API requests refilled per second and client; 0 for no limit
+     * @param apiBurst other API requests a rested client may make at once
+     * @param idleMillis how long a bucket stays full before it is dropped
+     */
+    public RateLimiter(@Value("${ratelimit.enabled:true}") final boolean enabled,
+                       @Value("${ratelimit.upload.per-second:2}") final double uploadsPerSecond,
+                       @Value("${ratelimit.upload.burst:20}") final int uploadsBurst,
+                       @Value("${ratelimit.ai.per-second:1}") final double aiPerSecond,
+                       @Value("${ratelimit.ai.burst:10}") final int aiBurst,
+                       @Value("${ratelimit.api.per-second:50}") final double apiPerSecond,
+                       @Value("${ratelimit.api.burst:200}") final int apiBurst,
+                       @Value("${ratelimit.idle-ms:600000}") final long idleMillis) {
+        if (idleMillis <= 0) {
+            throw new IllegalArgumentException("ratelimit.idle-ms must be positive");
+        }
+        this.enabled = enabled;
+        this.uploads = new Limit(uploadsPerSecond, uploadsBurst);
+        this.ai = new Limit(aiPerSecond, aiBurst);
+        this.api = new Limit(apiPerSecond, apiBurst);
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "rate-limit-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        final long interval = Math.max(1, idleMillis / 2);
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes a token for a request from its address's bucket and, if signed in, its subject's.
+     * Safe to call from any thread.
+     *
+     * @param method the HTTP method
+     * @param path the request path, without the context path
+     * @param subject the signed-in user, or null for anonymous requests
+     * @param address the client's address
+     * @return {@link #ADMITTED}, or how many nanoseconds until the request would be admitted
+     */
+    public long acquire(final String method, final String path, final String subject, final String address) {
+        if (!enabled || !path.startsWith(API_PREFIX) || "OPTIONS".equals(method)) {
+            return ADMITTED;
+        }
+        return limitFor(method, path).acquire(subject, address, System.nanoTime());
+    }
+
+    /**
+     * Gets the number of buckets held.
+     *
+     * @return the count
+     */
+    public int size() {
+        return uploads.size() + ai.size() + api.size();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Drops buckets that have been full for the idle time.
+     */
+    void sweep() {
+        final long now = System.nanoTime();
+        uploads.sweep(now, idleNanos);
+        ai.sweep(now, idleNanos);
+        api.sweep(now, idleNanos);
+    }
+
+    private Limit limitFor(final String method, final String path) {
+        if ("POST".equals(method)) {
+            if (path.equals(UPLOAD_PATH)) {
+                return uploads;
+            }
+            if (path.startsWith(AI_PREFIX)) {
+                return ai;
+            }
+        }
+        return api;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.authbackend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token ids ({@code jti}) and session families that have been revoked, each until the last
+ * token it covers has expired.
+ *
+ * <p>Every authenticated request asks {@link #isRevoked}, and almost every answer is no, so
+ * the check is a Bloom filter: a few bit probes hashed from the id's characters, with no
+ * allocation and no lock. Only an id the filter may contain is looked up in the exact map
+ * behind it. Ids are also filed in a ring of time buckets of {@code jwt.revocation.bucket-ms}
+ * by when they expire; once a bucket's end has passed, a sweeper drops its ids from the map and
+ * rebuilds the filter from what is left, so neither grows past the tokens still alive.</p>
+ *
+ * <p>The filter is sized for {@code jwt.revocation.expected-entries} live ids at about one
+ * false positive in a thousand; more ids only make it less selective.</p>
+ */
+@Component
+public class RevocationList implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RevocationList.class);
+    private static final int HASHES = 6;
+    private static final int BITS_PER_ENTRY = 16;
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    /** The ids that expire within one bucket. */
+    private static final class Bucket {
+        private final long end;
+        private final List<String> ids = new ArrayList<>();
+
+        Bucket(final long end) {
+            this.end = end;
+        }
+    }
+
+    private final long bucketMillis;
+    private final long horizonMillis;
+    private final Bucket[] ring;
+    private final int words;
+    private final int bitMask;
+    private final ConcurrentHashMap<String, Long> exact = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService sweeper;
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile AtomicLongArray bloom;
+
+    /**
+     * Starts the sweeper.
+     *
+     * @param bucketMillis width of a time bucket; ids outlive their tokens by at most this much
+     * @param expectedEntries live ids the filter is sized for
+     */
+    public RevocationList(@Value("${jwt.revocation.bucket-ms:3600000}") final long bucketMillis,
+                          @Value("${jwt.revocation.expected-entries:100000}") final int expectedEntries) {
+        if (bucketMillis <= 0 || expectedEntries <= 0) {
+            throw new IllegalArgumentException("jwt.revocation.bucket-ms and expected-entries must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.horizonMillis = JwtUtil.REFRESH_EXPIRATION_TIME;
+        // Room for every bucket from now to the horizon, plus the one being swept
+        this.ring = new Bucket[(int) ((horizonMillis + bucketMillis - 1) / bucketMillis) + 2];
+        final int bits = Integer.highestOneBit(Math.max(64, expectedEntries * BITS_PER_ENTRY - 1)) << 1;
+        this.words = bits >>> 6;
+        this.bitMask = bits - 1;
+        this.bloom = new AtomicLongArray(words);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "jwt-revocation-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(() -> sweep(System.currentTimeMillis()),
+            SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks whether an id has been revoked. Safe to call from any thread, without allocating.
+     *
+     * @param id a token id or family, or null for tokens that have none
+     * @return true if revoked and not yet swept
+     */
+    public boolean isRevoked(final String id) {
+        if (id == null) {
+            return false;
+        }
+        final AtomicLongArray bits = bloom;
+        final long hash = hash(id);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            final int bit = (h1 + i * h2) & bitMask;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        if (exact.containsKey(id)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes an id until the last token carrying it expires.
+     *
+     * @param id a token id or family
+     * @param expiresAt when the last such token expires, in epoch milliseconds
+     * @return true if this call revoked it, false if it was already revoked or has expired
+     * @throws IllegalArgumentException if {@code expiresAt} is further off than any token lives
+     */
+    public boolean revoke(final String id, final long expiresAt) {
+        final long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return false;
+        }
+        if (expiresAt > now + horizonMillis + bucketMillis) {
+            throw new IllegalArgumentException("Revocation outlives every token");
+        }
+        lock.lock();
+        try {
+            sweep(now);
+            final Long previous = exact.get(id);
+            if (previous != null && previous >= expiresAt) {
+                return false;
+            }
+            // The map entry goes in before the filter bits, so a reader that sees the bits finds it
+            exact.put(id, expiresAt);
+            bucketFor(expiresAt).ids.add(id);
+            if (previous == null) {
+                add(bloom, id);
+            }
+            return previous == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of ids currently revoked.
+     *
+     * @return the count
+     */
+    public int size() {
+        return exact.size();
+    }
+
+    /**
+     * Gets the number of checks the filter passed to the exact map for nothing.
+     *
+     * @return the count since startup
+     */
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Drops every bucket that has ended and rebuilds the filter without its ids.
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    void sweep(final long now) {
+        lock.lock();
+        try {
+            int dropped = 0;
+            for (int i = 0; i < ring.length; i++) {
+                final Bucket bucket = ring[i];
+                if (bucket == null || bucket.end > now) {
+                    continue;
+                }
+                ring[i] = null;
+                for (final String id : bucket.ids) {
+                    // Kept if it was revoked again with a later expiry, in a later bucket
+                    exact.computeIfPresent(id, (k, expiresAt) -> expiresAt <= bucket.end ? null : expiresAt);
+                }
+                dropped += bucket.ids.size();
+            }
+            if (dropped > 0) {
+                final AtomicLongArray rebuilt = new AtomicLongArray(words);
+                for (final String id : exact.keySet()) {
+                    add(rebuilt, id);
+                }
+                bloom = rebuilt;
+                LOG.debug("Swept {} expired revocations, {} left", dropped, exact.size());
+            }
+        } catch (final RuntimeException e) {
+            LOG.warn("Revocation sweep failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Bucket bucketFor(final long expiresAt) {
+        final long index = (expiresAt + bucketMillis - 1) / bucketMillis;
+        final int slot = (int) (index % ring.length);
+        Bucket bucket = ring[slot];
+        if (bucket == null) {
+            bucket = new Bucket(index * bucketMillis);
+            ring[slot] = bucket;
+        }
+        return bucket;
+    }
+
+    private void add(final AtomicLongArray bits, final String id) {
+        final long hash = hash(id);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            final int bit = (h1 + i * h2) & bitMask;
+            // Writers hold the lock, so a plain read-modify-write cannot lose a bit
+            bits.set(bit >>> 6, bits.get(bit >>> 6) | (1L << bit));
+        }
+    }
+
+    /** FNV-1a over the id's chars with a final mix, split into two hashes for double hashing. */
+    private static long hash(final String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
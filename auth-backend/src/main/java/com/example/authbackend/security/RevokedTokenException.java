@@ -0,0 +1,32 @@
+package com.example.authbackend.security;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Thrown for a well-formed, unexpired token that has been revoked, or whose session has.
+ */
+public class RevokedTokenException extends JwtException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient VerifiedToken token;
+
+    /**
+     * Constructor.
+     *
+     * @param token the revoked token
+     */
+    public RevokedTokenException(final VerifiedToken token) {
+        super("Token has been revoked");
+        this.token = token;
+    }
+
+    /**
+     * Gets the revoked token.
+     *
+     * @return what its signature established
+     */
+    public VerifiedToken getToken() {
+        return token;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.authbackend.security;
 
+import com.example.authbackend.metrics.MetricsRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -25,23 +26,34 @@ public class SecurityConfig {
      * Configures the security filter chain.
      *
      * @param http the HttpSecurity object
+     * @param jwtUtil verifies bearer tokens
+     * @param rateLimiter admits API requests per user or address
+     * @param metrics records token verification time and rate-limited requests
      * @return the configured SecurityFilterChain
      * @throws Exception if configuration fails
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(final HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(final HttpSecurity http, final JwtUtil jwtUtil,
+                                                   final RateLimiter rateLimiter,
+                                                   final MetricsRegistry metrics) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/auth/logout").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/auth/me").authenticated()
                 .requestMatchers("/api/files/**", "/api/ai/**", "/api/kv/**", "/files/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/metrics").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(new JwtFilter(), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(new JwtFilter(jwtUtil,
+                metrics.timer("jwt_verify_seconds", "Time to verify a bearer token in JwtFilter")), UsernamePasswordAuthenticationFilter.class)
+            // After JwtFilter, so signed-in users are limited by subject as well as address
+            .addFilterAfter(new RateLimitFilter(rateLimiter,
+                metrics.counter("rate_limited_total", "API requests answered 429 by RateLimitFilter")), JwtFilter.class);
 
         return http.build();
     }
@@ -66,6 +78,7 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,76 @@
+package com.example.authbackend.security;
+
+/**
+ * What a JWT established once its signature and expiry were checked.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final long expiresAt;
+    private final String id;
+    private final String family;
+    private final boolean refresh;
+
+    /**
+     * Constructor.
+     *
+     * @param subject the token's subject
+     * @param expiresAt when the token expires, in epoch milliseconds
+     * @param id the token's {@code jti}, or null for tokens issued without one
+     * @param family the session the token belongs to, or null for tokens issued without one
+     * @param refresh whether it is a refresh token rather than an access token
+     */
+    public VerifiedToken(final String subject, final long expiresAt, final String id, final String family,
+                         final boolean refresh) {
+        this.subject = subject;
+        this.expiresAt = expiresAt;
+        this.id = id;
+        this.family = family;
+        this.refresh = refresh;
+    }
+
+    /**
+     * Gets the token's subject.
+     *
+     * @return the username
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Gets when the token expires.
+     *
+     * @return epoch milliseconds
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Gets the token's unique id.
+     *
+     * @return the {@code jti} claim, or null
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the session the token belongs to, shared by every token rotated from one login.
+     *
+     * @return the {@code fam} claim, or null
+     */
+    public String getFamily() {
+        return family;
+    }
+
+    /**
+     * Whether this is a refresh token, which is only accepted by {@code /api/auth/refresh}.
+     *
+     * @return true for refresh tokens
+     */
+    public boolean isRefresh() {
+        return refresh;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.authbackend.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ *
+ * <p>Entries are keyed by the SHA-256 of the whole token, so the cache holds no usable
+ * credentials and a token that differs in any byte, signature included, misses and is
+ * verified in full. An entry is only served before its token's {@code exp}. Past
+ * {@code maxEntries} it evicts like the KV store, from a rolling sample, dropping the entry
+ * that expires first.</p>
+ */
+final class VerifiedTokenCache {
+
+    private static final int EVICTION_SAMPLE = 5;
+
+    /** A SHA-256 as four longs, so lookups hash and compare without a byte array. */
+    static final class TokenDigest {
+        private final long h0;
+        private final long h1;
+        private final long h2;
+        private final long h3;
+
+        TokenDigest(final byte[] sha256) {
+            final ByteBuffer buffer = ByteBuffer.wrap(sha256);
+            this.h0 = buffer.getLong();
+            this.h1 = buffer.getLong();
+            this.h2 = buffer.getLong();
+            this.h3 = buffer.getLong();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof TokenDigest d && h0 == d.h0 && h1 == d.h1 && h2 == d.h2 && h3 == d.h3;
+        }
+
+        @Override
+        public int hashCode() {
+            // The digest is already uniformly distributed
+            return (int) h0;
+        }
+    }
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<TokenDigest, VerifiedToken> tokens = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Map.Entry<TokenDigest, VerifiedToken>> clockHand;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries most tokens kept; 0 disables the cache
+     */
+    VerifiedTokenCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Whether tokens are cached at all.
+     *
+     * @return false if {@code maxEntries} is 0
+     */
+    boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Computes the key for a token.
+     *
+     * @param token the compact JWT
+     * @return its digest
+     */
+    TokenDigest key(final String token) {
+        try {
+            final MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return new TokenDigest(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /**
+     * Looks up a verified token that has not expired.
+     *
+     * @param key the key from {@link #key}
+     * @param now the current time in epoch milliseconds
+     * @return the token, or null if it has to be verified
+     */
+    VerifiedToken get(final TokenDigest key, final long now) {
+        final VerifiedToken token = tokens.get(key);
+        if (token == null) {
+            misses.increment();
+            return null;
+        }
+        if (now >= token.getExpiresAt()) {
+            tokens.remove(key, token);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return token;
+    }
+
+    /**
+     * Remembers a verified token.
+     *
+     * @param key the key from {@link #key}
+     * @param token what verification established
+     */
+    void put(final TokenDigest key, final VerifiedToken token) {
+        tokens.put(key, token);
+        if (tokens.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the count since startup
+     */
+    long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that needed a full verification.
+     *
+     * @return the count since startup
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of tokens held.
+     *
+     * @return the count
+     */
+    int size() {
+        return tokens.size();
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (tokens.size() > maxEntries) {
+                Map.Entry<TokenDigest, VerifiedToken> victim = null;
+                for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                    if (clockHand == null || !clockHand.hasNext()) {
+                        clockHand = tokens.entrySet().iterator();
+                        if (!clockHand.hasNext()) {
+                            break;
+                        }
+                    }
+                    final Map.Entry<TokenDigest, VerifiedToken> candidate = clockHand.next();
+                    if (victim == null || candidate.getValue().getExpiresAt() < victim.getValue().getExpiresAt()) {
+                        victim = candidate;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                tokens.remove(victim.getKey(), victim.getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
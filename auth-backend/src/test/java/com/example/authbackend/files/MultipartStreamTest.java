@@ -0,0 +1,191 @@
+package com.example.authbackend.files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultipartStreamTest {
+
+    private static final String BOUNDARY = "----form7MA4YWxkTrZu0gW";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 7, 13, 26, 27, 28, 4096})
+    void delimitersSplitAcrossReadsAreFound(final int chunk) throws IOException {
+        final byte[] file = random(10_000, 1);
+        final byte[] body = body(field("note", "hello"), file("file", "a.pdf", file), field("after", "bye"));
+
+        final MultipartStream multipart = MultipartStream.open(CONTENT_TYPE, new ChunkedStream(body, chunk));
+        final MultipartStream.Part note = multipart.nextPart();
+        assertEquals("note", note.name());
+        assertNull(note.filename());
+        assertEquals("hello", text(note));
+        final MultipartStream.Part part = multipart.nextPart();
+        assertEquals("file", part.name());
+        assertEquals("a.pdf", part.filename());
+        assertArrayEquals(file, readAll(part.body(), chunk));
+        assertEquals("bye", text(multipart.nextPart()));
+        assertNull(multipart.nextPart());
+    }
+
+    @Test
+    void delimiterStraddlingTheBufferEdgeIsFound() throws IOException {
+        final int headerBytes = preamble("file", "big.bin").length;
+        // Move the delimiter across the end of the first and second buffer fills, one byte at a time
+        for (int shift = -40; shift <= 40; shift++) {
+            for (final int fills : new int[] {1, 2}) {
+                final byte[] file = random(fills * BUFFER_SIZE - headerBytes + shift, shift);
+                final byte[] body = body(file("file", "big.bin", file), field("after", "x"));
+                for (final int chunk : new int[] {BUFFER_SIZE, 1000, 17}) {
+                    final MultipartStream multipart = MultipartStream.open(CONTENT_TYPE, new ChunkedStream(body, chunk));
+                    final byte[] read = readAll(multipart.nextPart().body(), 8192);
+                    assertEquals(file.length, read.length, "shift " + shift + ", chunk " + chunk);
+                    assertArrayEquals(file, read, "shift " + shift + ", chunk " + chunk);
+                    assertEquals("x", text(multipart.nextPart()));
+                    assertNull(multipart.nextPart());
+                }
+            }
+        }
+    }
+
+    @Test
+    void partialDelimitersInsideTheBodyAreData() throws IOException {
+        // Delimiters cut short at various points, the last running straight into the real one
+        final String data = "a\r\n--" + BOUNDARY.substring(0, 10) + "\r\n-\r\n--"
+            + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "\r\r\n--\r";
+        final byte[] body = body(file("file", "t.txt", data.getBytes(StandardCharsets.ISO_8859_1)));
+        for (int chunk = 1; chunk <= 8; chunk++) {
+            final MultipartStream multipart = MultipartStream.open(CONTENT_TYPE, new ChunkedStream(body, chunk));
+            assertEquals(data, text(multipart.nextPart()));
+            assertNull(multipart.nextPart());
+        }
+    }
+
+    @Test
+    void unreadPartIsSkipped() throws IOException {
+        final byte[] body = body(file("skipped", "s.bin", random(200_000, 3)), field("wanted", "yes"));
+        final MultipartStream multipart = MultipartStream.open(CONTENT_TYPE, new ChunkedStream(body, 999));
+        assertEquals("skipped", multipart.nextPart().name());
+        final MultipartStream.Part wanted = multipart.nextPart();
+        assertEquals("wanted", wanted.name());
+        assertEquals("yes", text(wanted));
+        assertNull(multipart.nextPart());
+    }
+
+    @Test
+    void preambleIsIgnoredAndQuotedBoundaryAccepted() throws IOException {
+        final byte[] parts = body(field("a", "1"));
+        final byte[] body = concat("This is the preamble.\r\n".getBytes(StandardCharsets.US_ASCII), parts);
+        final MultipartStream multipart = MultipartStream.open(
+            "multipart/form-data; boundary=\"" + BOUNDARY + "\"; charset=utf-8", new ChunkedStream(body, 4));
+        assertEquals("1", text(multipart.nextPart()));
+        assertNull(multipart.nextPart());
+    }
+
+    @Test
+    void bodyWithoutClosingBoundaryIsRejected() throws IOException {
+        final byte[] full = body(file("file", "a.bin", random(5000, 4)));
+        final byte[] cut = Arrays.copyOf(full, full.length - 40);
+        final MultipartStream multipart = MultipartStream.open(CONTENT_TYPE, new ChunkedStream(cut, 100));
+        final MultipartStream.Part part = multipart.nextPart();
+        assertThrows(EOFException.class, () -> readAll(part.body(), 4096));
+    }
+
+    @Test
+    void nonMultipartIsNotOpened() {
+        assertNull(MultipartStream.open("application/json", new ChunkedStream(new byte[0], 1)));
+        assertNull(MultipartStream.open("multipart/form-data", new ChunkedStream(new byte[0], 1)));
+        assertNull(MultipartStream.open(null, new ChunkedStream(new byte[0], 1)));
+    }
+
+    private static byte[] field(final String name, final String value) {
+        return concat(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n")
+            .getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8), crlf());
+    }
+
+    private static byte[] file(final String name, final String filename, final byte[] content) {
+        return concat(preamble(name, filename), content, crlf());
+    }
+
+    private static byte[] preamble(final String name, final String filename) {
+        return ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+            + filename + "\"\r\nContent-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] body(final byte[]... parts) {
+        return concat(concat(parts), ("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] crlf() {
+        return new byte[] {'\r', '\n'};
+    }
+
+    private static byte[] concat(final byte[]... arrays) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (final byte[] a : arrays) {
+            out.writeBytes(a);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] random(final int size, final long seed) {
+        final byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String text(final MultipartStream.Part part) throws IOException {
+        return new String(readAll(part.body(), 3), StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] readAll(final InputStream in, final int readSize) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] chunk = new byte[readSize];
+        for (int n = in.read(chunk, 0, readSize); n >= 0; n = in.read(chunk, 0, readSize)) {
+            out.write(chunk, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /** Hands out at most {@code chunk} bytes per read, as a slow network would. */
+    private static final class ChunkedStream extends InputStream {
+        private final byte[] data;
+        private final int chunk;
+        private int position;
+
+        ChunkedStream(final byte[] data, final int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (position >= data.length) {
+                return -1;
+            }
+            final int n = Math.min(Math.min(len, chunk), data.length - position);
+            System.arraycopy(data, position, b, off, n);
+            position += n;
+            return n;
+        }
+    }
+}
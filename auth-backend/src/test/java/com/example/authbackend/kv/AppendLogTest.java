@@ -0,0 +1,131 @@
+package com.example.authbackend.kv;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AppendLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayStopsAtTruncatedTailAndCutsItOff() throws IOException {
+        final Path path = dir.resolve("kv-1.log");
+        final long intact = write(path, put("a", "1"), put("b", "2"));
+        write(path, put("c", "3"));
+        truncate(path, Files.size(path) - 3);
+
+        final List<String> seen = new ArrayList<>();
+        assertEquals(2, AppendLog.replay(path, collect(seen)));
+        assertEquals(List.of("put a=1", "put b=2"), seen);
+        assertEquals(intact, Files.size(path));
+    }
+
+    @Test
+    void replayStopsAtTornHeader() throws IOException {
+        final Path path = dir.resolve("kv-1.log");
+        final long intact = write(path, put("a", "1"));
+        write(path, put("b", "2"));
+        truncate(path, intact + 6);
+
+        final List<String> seen = new ArrayList<>();
+        assertEquals(1, AppendLog.replay(path, collect(seen)));
+        assertEquals(List.of("put a=1"), seen);
+        assertEquals(intact, Files.size(path));
+    }
+
+    @Test
+    void replayStopsAtRecordFailingItsChecksum() throws IOException {
+        final Path path = dir.resolve("kv-1.log");
+        final long intact = write(path, put("a", "1"));
+        write(path, put("b", "2"), put("c", "3"));
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            // Last byte of the second record's value
+            ch.write(ByteBuffer.wrap(new byte[] {'X'}), intact + AppendLog.encode(AppendLog.OP_PUT, "b",
+                utf8("2"), 0).remaining() - 1);
+        }
+
+        final List<String> seen = new ArrayList<>();
+        assertEquals(1, AppendLog.replay(path, collect(seen)));
+        assertEquals(List.of("put a=1"), seen);
+        assertEquals(intact, Files.size(path));
+    }
+
+    @Test
+    void tornBatchIsDroppedWhole() throws IOException {
+        final Path path = dir.resolve("kv-1.log");
+        final long intact = write(path, put("a", "1"));
+        final KvEntry entry = new KvEntry("b", ValueStorage.heap().store("2"), 0, System.currentTimeMillis());
+        write(path, AppendLog.encodeBatch(new String[] {"b", "a"}, new KvEntry[] {entry, null}));
+        truncate(path, Files.size(path) - 1);
+
+        final List<String> seen = new ArrayList<>();
+        assertEquals(1, AppendLog.replay(path, collect(seen)));
+        assertEquals(List.of("put a=1"), seen);
+        assertEquals(intact, Files.size(path));
+    }
+
+    @Test
+    void appendsAfterRecoveryFollowTheIntactRecords() throws IOException {
+        final Path path = dir.resolve("kv-1.log");
+        write(path, put("a", "1"), put("b", "2"));
+        truncate(path, Files.size(path) - 1);
+        AppendLog.replay(path, (op, key, value, expiresAt) -> { });
+        write(path, put("c", "3"), AppendLog.encode(AppendLog.OP_DELETE, "a", null, 0));
+
+        final List<String> seen = new ArrayList<>();
+        assertEquals(3, AppendLog.replay(path, collect(seen)));
+        assertEquals(List.of("put a=1", "put c=3", "delete a"), seen);
+    }
+
+    @Test
+    void expiringPutKeepsItsExpiry() throws IOException {
+        final Path path = dir.resolve("kv-1.log");
+        write(path, AppendLog.encode(AppendLog.OP_PUT, "a", utf8("1"), 1234L));
+
+        final List<Long> expiries = new ArrayList<>();
+        AppendLog.replay(path, (op, key, value, expiresAt) -> expiries.add(expiresAt));
+        assertEquals(List.of(1234L), expiries);
+    }
+
+    private static ByteBuffer put(final String key, final String value) {
+        return AppendLog.encode(AppendLog.OP_PUT, key, utf8(value), 0);
+    }
+
+    private static byte[] utf8(final String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long write(final Path path, final ByteBuffer... records) throws IOException {
+        try (AppendLog log = AppendLog.open(path)) {
+            long position = 0;
+            for (final ByteBuffer record : records) {
+                position = log.append(record);
+            }
+            return position;
+        }
+    }
+
+    private static void truncate(final Path path, final long size) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ch.truncate(size);
+        }
+    }
+
+    private static AppendLog.Visitor collect(final List<String> seen) {
+        return (op, key, value, expiresAt) -> seen.add(op == AppendLog.OP_PUT ? "put " + key + "=" + value
+            : op == AppendLog.OP_DELETE ? "delete " + key : "op " + op);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.authbackend.kv;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DurableKvStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversAcknowledgedWritesFromTheLog() throws IOException {
+        final Path data = dir.resolve("live");
+        try (DurableKvStore store = open(data)) {
+            store.put("a", "1", 0);
+            store.put("b", "2", 0);
+            store.put("a", "3", 0);
+            store.remove("b");
+            crash(data, dir.resolve("crashed"));
+        }
+        try (DurableKvStore store = open(dir.resolve("crashed"))) {
+            assertEquals("3", store.get("a"));
+            assertNull(store.get("b"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void dropsTornTailRecordAndKeepsWriting() throws IOException {
+        final Path data = dir.resolve("live");
+        final Path crashed = dir.resolve("crashed");
+        try (DurableKvStore store = open(data)) {
+            store.put("a", "1", 0);
+            store.put("b", "2", 0);
+            crash(data, crashed);
+        }
+        final Path log = only(crashed, "kv-");
+        final long size = Files.size(log);
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            ch.truncate(size - 2);
+        }
+
+        final Path again = dir.resolve("again");
+        try (DurableKvStore store = open(crashed)) {
+            assertEquals("1", store.get("a"));
+            assertNull(store.get("b"));
+            store.put("c", "3", 0);
+            crash(crashed, again);
+        }
+        try (DurableKvStore store = open(again)) {
+            assertEquals("1", store.get("a"));
+            assertNull(store.get("b"));
+            assertEquals("3", store.get("c"));
+        }
+    }
+
+    @Test
+    void replaysLogWrittenAfterSnapshotRotation() throws IOException {
+        final Path data = dir.resolve("live");
+        try (DurableKvStore store = open(data)) {
+            store.put("a", "1", 0);
+            store.put("b", "2", 0);
+            store.snapshot();
+            store.put("a", "3", 0);
+            store.remove("b");
+            store.put("c", "4", 0);
+            assertEquals(List.of("kv-2.log", "snapshot-2.dat"), names(data));
+            crash(data, dir.resolve("crashed"));
+        }
+        try (DurableKvStore store = open(dir.resolve("crashed"))) {
+            assertEquals("3", store.get("a"));
+            assertNull(store.get("b"));
+            assertEquals("4", store.get("c"));
+        }
+    }
+
+    @Test
+    void fallsBackToOlderSnapshotWhenNewestIsDamaged() throws IOException {
+        final Path data = dir.resolve("live");
+        try (DurableKvStore store = open(data)) {
+            store.put("a", "1", 0);
+        }
+        // Closing snapshots into generation 2; a damaged generation 3 must not hide it
+        Files.write(data.resolve("snapshot-3.dat"), new byte[] {1, 2, 3});
+        try (DurableKvStore store = open(data)) {
+            assertEquals("1", store.get("a"));
+        }
+    }
+
+    @Test
+    void atomicBatchSurvivesWhole() throws IOException {
+        final Path data = dir.resolve("live");
+        try (DurableKvStore store = open(data)) {
+            store.put("gone", "x", 0);
+            store.execute(new KvBatch().set("a", "1", 0).delete("gone"), true);
+            crash(data, dir.resolve("crashed"));
+        }
+        try (DurableKvStore store = open(dir.resolve("crashed"))) {
+            assertEquals("1", store.get("a"));
+            assertNull(store.get("gone"));
+        }
+    }
+
+    private static DurableKvStore open(final Path data) throws IOException {
+        return new DurableKvStore(data, 0, Long.MAX_VALUE, 1000, 0, EvictionPolicy.LRU, ValueStorage.heap());
+    }
+
+    /**
+     * Copies a live store's files as a crash would leave them: whatever reached the log, and no
+     * final snapshot.
+     */
+    private static void crash(final Path data, final Path copy) throws IOException {
+        Files.createDirectories(copy);
+        for (final String name : names(data)) {
+            Files.copy(data.resolve(name), copy.resolve(name));
+        }
+    }
+
+    private static List<String> names(final Path data) throws IOException {
+        try (Stream<Path> files = Files.list(data)) {
+            return files.map(f -> f.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static Path only(final Path data, final String prefix) throws IOException {
+        final List<String> matches = names(data).stream().filter(n -> n.startsWith(prefix)).toList();
+        assertEquals(1, matches.size(), matches::toString);
+        return data.resolve(matches.get(0));
+    }
+}
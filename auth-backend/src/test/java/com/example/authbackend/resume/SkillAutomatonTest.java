@@ -0,0 +1,109 @@
+package com.example.authbackend.resume;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SkillAutomatonTest {
+
+    @Test
+    void reportsPhraseAndItsSuffixPhrase() {
+        final SkillAutomaton automaton = automaton("machine learning", "learning", "deep learning");
+        assertEquals(List.of("machine learning@[5,21)", "learning@[13,21)"),
+            matches(automaton, "Used machine learning daily"));
+    }
+
+    @Test
+    void reportsOverlappingPhrasesSharingAWord() {
+        final SkillAutomaton automaton = automaton("data science", "science fiction", "science");
+        assertEquals(List.of("data science@[0,12)", "science@[5,12)", "science fiction@[5,20)"),
+            matches(automaton, "data science fiction"));
+    }
+
+    @Test
+    void reportsNestedPhraseInsideLongerOne() {
+        final SkillAutomaton automaton = automaton("amazon web services", "web", "web services");
+        assertEquals(List.of("web@[7,10)", "amazon web services@[0,19)", "web services@[7,19)"),
+            matches(automaton, "amazon web services"));
+    }
+
+    @Test
+    void recoversAfterPartialMatchOfLongerPhrase() {
+        // "spring" starts "spring boot", fails on "data", and must still find "spring data"
+        final SkillAutomaton automaton = automaton("spring boot", "spring data", "data");
+        assertEquals(List.of("spring data@[0,11)", "data@[7,11)"), matches(automaton, "spring data"));
+        assertEquals(List.of("spring boot@[0,11)", "spring data@[12,23)", "data@[19,23)"),
+            matches(automaton, "spring boot spring data"));
+    }
+
+    @Test
+    void matchesWholeWordsOnly() {
+        final SkillAutomaton automaton = automaton("java", "javascript", "c", "c++", "go");
+        assertEquals(List.of("javascript@[0,10)"), matches(automaton, "javascript"));
+        assertEquals(List.of("c++@[0,3)"), matches(automaton, "C++ and golang"));
+        assertEquals(List.of("java@[0,4)", "c@[5,6)", "go@[8,10)"), matches(automaton, "Java/C, Go"));
+    }
+
+    @Test
+    void collapsesPunctuationAndSpaceRunsBetweenWords() {
+        final SkillAutomaton automaton = automaton("node.js", "machine learning");
+        assertEquals(List.of("node.js@[9,16)", "machine learning@[20,41)"),
+            matches(automaton, "Skills:  Node.js;   Machine -- \n Learning."));
+    }
+
+    @Test
+    void findsRepeatedMatchesOfOnePhrase() {
+        final SkillAutomaton automaton = automaton("sql");
+        assertEquals(List.of("sql@[0,3)", "sql@[4,7)", "sql@[8,11)"), matches(automaton, "sql sql SQL"));
+    }
+
+    @Test
+    void matchesNonAsciiPhrases() {
+        final SkillAutomaton automaton = automaton("café ops", "müller");
+        assertEquals(List.of("café ops@[4,12)", "müller@[13,19)"), matches(automaton, "Ran CAFÉ Ops Müller"));
+    }
+
+    @Test
+    void handlesAlphabetLargerThanAByte() {
+        // 300 one-character CJK phrases take 300 symbol ids; the ASCII letters of the Kotlin
+        // phrases, listed after the first 150 of them, get ids between 128 and 255
+        final List<String> phrases = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            phrases.add(String.valueOf((char) (0x4E00 + i)));
+            if (i == 149) {
+                phrases.add("kotlin");
+                phrases.add("kotlin multiplatform");
+            }
+        }
+        final SkillAutomaton automaton = automaton(phrases.toArray(new String[0]));
+        final String last = String.valueOf((char) (0x4E00 + 299));
+        assertEquals(List.of(last + "@[0,1)", "kotlin@[2,8)", "kotlin multiplatform@[2,22)"),
+            matches(automaton, last + " kotlin multiplatform"));
+        for (int i = 0; i < 300; i++) {
+            final String phrase = String.valueOf((char) (0x4E00 + i));
+            assertEquals(List.of(phrase + "@[0,1)"), matches(automaton, phrase), "phrase " + i);
+        }
+    }
+
+    private static SkillAutomaton automaton(final String... phrases) {
+        final List<String> names = new ArrayList<>();
+        final Map<String, Integer> ids = new LinkedHashMap<>();
+        for (final String phrase : phrases) {
+            ids.put(SkillAutomaton.normalize(phrase), names.size());
+            names.add(phrase);
+        }
+        return new SkillAutomaton("test", names, ids);
+    }
+
+    private static List<String> matches(final SkillAutomaton automaton, final String text) {
+        final List<String> found = new ArrayList<>();
+        automaton.scan(text, (skill, start, end) ->
+            found.add(automaton.names()[skill] + "@[" + start + "," + end + ")"));
+        return found;
+    }
+}
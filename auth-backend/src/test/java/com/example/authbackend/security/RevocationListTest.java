@@ -0,0 +1,99 @@
+package com.example.authbackend.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationListTest {
+
+    private static final long BUCKET = 60_000;
+
+    @Test
+    void revokedUntilItsBucketIsSwept() {
+        try (RevocationList list = new RevocationList(BUCKET, 1000)) {
+            final long boundary = nextBoundary();
+            assertTrue(list.revoke("jti-1", boundary - 10));
+            assertTrue(list.isRevoked("jti-1"));
+            assertFalse(list.isRevoked("jti-2"));
+
+            list.sweep(boundary - 1);
+            assertTrue(list.isRevoked("jti-1"));
+            list.sweep(boundary);
+            assertFalse(list.isRevoked("jti-1"));
+            assertEquals(0, list.size());
+        }
+    }
+
+    @Test
+    void sweepDropsOnlyTheBucketsThatEnded() {
+        try (RevocationList list = new RevocationList(BUCKET, 1000)) {
+            final long boundary = nextBoundary();
+            // On the boundary the id belongs to the bucket ending there; a millisecond later, to the next
+            list.revoke("last-of-bucket", boundary);
+            list.revoke("first-of-next", boundary + 1);
+
+            list.sweep(boundary);
+            assertFalse(list.isRevoked("last-of-bucket"));
+            assertTrue(list.isRevoked("first-of-next"));
+            assertEquals(1, list.size());
+
+            list.sweep(boundary + BUCKET - 1);
+            assertTrue(list.isRevoked("first-of-next"));
+            list.sweep(boundary + BUCKET);
+            assertFalse(list.isRevoked("first-of-next"));
+            assertEquals(0, list.size());
+        }
+    }
+
+    @Test
+    void revokingAgainLaterOutlivesTheEarlierBucket() {
+        try (RevocationList list = new RevocationList(BUCKET, 1000)) {
+            final long boundary = nextBoundary();
+            assertTrue(list.revoke("family", boundary - 5));
+            assertFalse(list.revoke("family", boundary - 6));
+            assertFalse(list.revoke("family", boundary + 3 * BUCKET));
+
+            list.sweep(boundary);
+            assertTrue(list.isRevoked("family"));
+            list.sweep(boundary + 3 * BUCKET - 1);
+            assertTrue(list.isRevoked("family"));
+            list.sweep(boundary + 3 * BUCKET);
+            assertFalse(list.isRevoked("family"));
+        }
+    }
+
+    @Test
+    void rebuiltFilterKeepsEveryIdStillRevoked() {
+        try (RevocationList list = new RevocationList(BUCKET, 1000)) {
+            final long boundary = nextBoundary();
+            for (int i = 0; i < 2000; i++) {
+                list.revoke("id-" + i, i % 2 == 0 ? boundary : boundary + BUCKET);
+            }
+            list.sweep(boundary);
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(i % 2 != 0, list.isRevoked("id-" + i), "id-" + i);
+            }
+            assertEquals(1000, list.size());
+        }
+    }
+
+    @Test
+    void rejectsExpiredAndOverlongRevocations() {
+        try (RevocationList list = new RevocationList(BUCKET, 1000)) {
+            final long now = System.currentTimeMillis();
+            assertFalse(list.revoke("old", now - 1));
+            assertFalse(list.isRevoked("old"));
+            assertThrows(IllegalArgumentException.class,
+                () -> list.revoke("forever", now + JwtUtil.REFRESH_EXPIRATION_TIME + 2 * BUCKET));
+            assertFalse(list.isRevoked(null));
+        }
+    }
+
+    /** A bucket boundary at least one whole bucket from now, so nothing ends mid-test. */
+    private static long nextBoundary() {
+        return (System.currentTimeMillis() / BUCKET + 2) * BUCKET;
+    }
+}